@@ -0,0 +1,78 @@
+package com.example.bookingservice.benchmark;
+
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.BookingStatus;
+import com.example.bookingservice.persistence.model.PaymentMethod;
+import com.example.bookingservice.persistence.model.PaymentStatus;
+import com.example.bookingservice.persistence.model.PaymentType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Realistically populated bookings shared by the benchmarks
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static BookingEntity booking(int index) {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 15, 10, 30);
+        return BookingEntity.builder()
+                .id("booking-" + index)
+                .appointmentId("appt-" + index)
+                .appointmentTitle("Viewing Appointment")
+                .appointmentDateTime(now.plusDays(5))
+                .propertyId(1000L + index)
+                .propertyTitle("Luxury Apartment near the city centre")
+                .propertyAddress("123 Main St, 5611 AB Eindhoven")
+                .propertyDescription("Bright two bedroom apartment with balcony and shared garden")
+                .propertyImage("https://images.example.com/property/" + index + "/1.jpg")
+                .propertyImage2("https://images.example.com/property/" + index + "/2.jpg")
+                .rentAmount(new BigDecimal("1250.00"))
+                .requesterId(100L)
+                .requesterUsername("john.doe")
+                .requesterFirstName("John")
+                .requesterLastName("Doe")
+                .requesterName("John Doe")
+                .requesterEmail("john@example.com")
+                .requesterPhone("+31 6 12345678")
+                .providerId(200L)
+                .providerName("Jane Smith")
+                .providerEmail("jane@example.com")
+                .providerPhone("+31 6 87654321")
+                .bookingDate(now)
+                .moveInDate(now.plusDays(30))
+                .moveOutDate(now.plusYears(1))
+                .bookingDurationMonths(12)
+                .totalAmount(new BigDecimal("16250.00"))
+                .depositAmount(new BigDecimal("1250.00"))
+                .monthlyRent(new BigDecimal("1250.00"))
+                .paidAmount(BigDecimal.ZERO)
+                .remainingAmount(new BigDecimal("16250.00"))
+                .status(BookingStatus.PENDING)
+                .paymentStatus(PaymentStatus.PENDING)
+                .paymentDeadline(now.plusDays(7))
+                .paymentType(PaymentType.DEPOSIT)
+                .paymentMethod(PaymentMethod.CREDIT_CARD)
+                .currency("EUR")
+                .notes("Would like to move in at the start of the month")
+                .confirmationToken(UUID.nameUUIDFromBytes(("booking-" + index).getBytes()).toString())
+                .payments(new ArrayList<>())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    static List<BookingEntity> bookings(int size) {
+        List<BookingEntity> bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            bookings.add(booking(i));
+        }
+        return bookings;
+    }
+}
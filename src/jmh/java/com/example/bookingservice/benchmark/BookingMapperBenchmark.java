@@ -0,0 +1,48 @@
+package com.example.bookingservice.benchmark;
+
+import com.example.bookingservice.business.mapper.BookingMapper;
+import com.example.bookingservice.domain.dto.BookingDto;
+import com.example.bookingservice.event.BookingEvent;
+import com.example.bookingservice.persistence.model.BookingEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+
+/**
+ * Entity to DTO/event mapping done on every read and every published event
+ */
+@State(Scope.Benchmark)
+public class BookingMapperBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final BookingMapper mapper = new BookingMapper();
+    private BookingEntity booking;
+    private List<BookingEntity> page;
+
+    @Setup
+    public void setUp() {
+        booking = BenchmarkFixtures.booking(1);
+        page = BenchmarkFixtures.bookings(pageSize);
+    }
+
+    @Benchmark
+    public BookingDto toDto() {
+        return mapper.toDto(booking);
+    }
+
+    @Benchmark
+    public BookingEvent toEvent() {
+        return mapper.toEvent(booking);
+    }
+
+    @Benchmark
+    public List<BookingDto> toDtoList() {
+        return mapper.toDtoList(page);
+    }
+}
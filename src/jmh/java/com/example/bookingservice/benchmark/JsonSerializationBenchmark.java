@@ -0,0 +1,66 @@
+package com.example.bookingservice.benchmark;
+
+import com.example.bookingservice.business.mapper.BookingMapper;
+import com.example.bookingservice.configuration.JacksonConfig;
+import com.example.bookingservice.domain.dto.BookingDto;
+import com.example.bookingservice.domain.response.BookingListResponse;
+import com.example.bookingservice.event.BookingEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * JSON encoding of REST responses and of events through the AMQP converter
+ */
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    // Built like the Boot-configured mapper used by Spring MVC, including the BookingDto fieldset filter
+    private final ObjectMapper objectMapper = bootObjectMapper();
+
+    // JSON delegate of RabbitMQConfig.messageConverter, see MessageEncodingBenchmark for CBOR and gzip
+    private final Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter();
+
+    private BookingDto booking;
+    private BookingListResponse page;
+    private BookingEvent event;
+
+    @Setup
+    public void setUp() {
+        BookingMapper mapper = new BookingMapper();
+        booking = mapper.toDto(BenchmarkFixtures.booking(1));
+        page = BookingListResponse.success("Bookings retrieved successfully",
+                mapper.toDtoList(BenchmarkFixtures.bookings(20)));
+        event = mapper.toEvent(BenchmarkFixtures.booking(1));
+        event.setEventId("event-1");
+        event.setEventType("BOOKING_CREATED");
+    }
+
+    static ObjectMapper bootObjectMapper() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new JacksonConfig().bookingFieldsFilter().customize(builder);
+        return builder.build();
+    }
+
+    @Benchmark
+    public byte[] bookingDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(booking);
+    }
+
+    @Benchmark
+    public byte[] bookingListResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public Message bookingEventMessage() {
+        return messageConverter.toMessage(event, new MessageProperties());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bookingservice.benchmark;
+
+import com.example.bookingservice.business.mapper.BookingMapper;
+import com.example.bookingservice.configuration.CompressingMessageConverter;
+import com.example.bookingservice.configuration.Jackson2CborMessageConverter;
+import com.example.bookingservice.event.BookingEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Encode/decode cost of a BookingEvent per wire format, bytes on the wire are printed at setup
+ * ./gradlew jmh -PjmhIncludes=MessageEncoding
+ */
+@State(Scope.Benchmark)
+public class MessageEncodingBenchmark {
+
+    @Param({"json", "cbor"})
+    public String encoding;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private MessageConverter converter;
+    private BookingEvent event;
+    private Message encoded;
+
+    @Setup
+    public void setUp() {
+        MessageConverter delegate = "cbor".equals(encoding)
+                ? new Jackson2CborMessageConverter()
+                : new Jackson2JsonMessageConverter();
+        // Threshold 0 compresses every message, the production default only compresses large ones
+        converter = new CompressingMessageConverter(delegate, gzip ? 0 : -1);
+
+        event = new BookingMapper().toEvent(BenchmarkFixtures.booking(1));
+        event.setEventId("event-1");
+        event.setEventType("BOOKING_CREATED");
+        encoded = converter.toMessage(event, new MessageProperties());
+        System.out.printf("%n%s%s BookingEvent: %d bytes on the wire%n",
+                encoding, gzip ? "+gzip" : "", encoded.getBody().length);
+    }
+
+    @Benchmark
+    public Message encode() {
+        return converter.toMessage(event, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decode() {
+        // Decoding may rewrite the content-encoding, each call gets its own properties
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(encoded.getMessageProperties().getContentType());
+        properties.setContentEncoding(encoded.getMessageProperties().getContentEncoding());
+        properties.getHeaders().putAll(encoded.getMessageProperties().getHeaders());
+        return converter.fromMessage(new Message(encoded.getBody(), properties));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.bookingservice.benchmark;
+
+import com.example.bookingservice.persistence.model.SagaState;
+import com.example.bookingservice.persistence.model.SagaStatus;
+import com.example.bookingservice.persistence.model.SagaStep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * SagaState helpers called on every saga step
+ * Mutating benchmarks start from a fresh saga, as each step loads the saga from Mongo
+ */
+@State(Scope.Thread)
+public class SagaStateBenchmark {
+
+    private SagaState saga;
+
+    @Setup
+    public void setUp() {
+        saga = newSaga();
+    }
+
+    private static SagaState newSaga() {
+        SagaState saga = SagaState.builder()
+                .id("saga-1")
+                .sagaType("BOOKING_SAGA")
+                .appointmentId("appt-1")
+                .status(SagaStatus.PROCESSING)
+                .retryCount(0)
+                .maxRetries(3)
+                .build();
+        saga.addCompletedStep(SagaStep.APPOINTMENT_CONFIRMED);
+        saga.addCompletedStep(SagaStep.BOOKING_CREATED);
+        return saga;
+    }
+
+    @Benchmark
+    public SagaState completeSteps() {
+        SagaState saga = newSaga();
+        saga.addCompletedStep(SagaStep.PAYMENT_COMPLETED);
+        saga.addCompletedStep(SagaStep.PROPERTY_UPDATED);
+        saga.addCompletedStep(SagaStep.COMPLETED);
+        return saga;
+    }
+
+    @Benchmark
+    public boolean isStepCompleted() {
+        return saga.isStepCompleted(SagaStep.BOOKING_CREATED);
+    }
+
+    @Benchmark
+    public SagaState setPaymentData() {
+        SagaState saga = newSaga();
+        saga.payload().setTransactionId("txn-1");
+        return saga;
+    }
+}
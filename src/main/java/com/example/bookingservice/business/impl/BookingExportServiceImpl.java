@@ -0,0 +1,132 @@
+package com.example.bookingservice.business.impl;
+
+import com.example.bookingservice.business.interfaces.BookingExportService;
+import com.example.bookingservice.business.mapper.BookingMapper;
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.BookingStatus;
+import com.example.bookingservice.persistence.model.PaymentEntity;
+import com.example.bookingservice.persistence.model.PaymentStatus;
+import com.example.bookingservice.persistence.routing.AnalyticsMongo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Streams documents straight from a Mongo cursor to the output stream
+ * Only one cursor batch is held in memory regardless of the result size
+ */
+@Slf4j
+@Service
+public class BookingExportServiceImpl implements BookingExportService {
+
+    private static final int CURSOR_BATCH_SIZE = 500;
+    private static final int FLUSH_EVERY = 500;
+    private static final byte NEWLINE = '\n';
+
+    private final MongoTemplate mongoTemplate;
+    private final BookingMapper bookingMapper;
+    private final ObjectWriter writer;
+
+    // Reporting client on tagged secondaries, exports use the primary client when it is not configured
+    @Autowired(required = false)
+    private AnalyticsMongo analyticsMongo;
+
+    public BookingExportServiceImpl(MongoTemplate mongoTemplate,
+                                    BookingMapper bookingMapper,
+                                    ObjectMapper objectMapper) {
+        this.mongoTemplate = mongoTemplate;
+        this.bookingMapper = bookingMapper;
+        // The response stream is owned by the container: never close it, and flush in batches
+        this.writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public long exportBookings(BookingStatus status, Long providerId,
+                               LocalDateTime from, LocalDateTime to,
+                               OutputStream out) throws IOException {
+        log.info("📤 Exporting bookings (status: {}, provider: {}, from: {}, to: {})", status, providerId, from, to);
+
+        Query query = new Query();
+        if (status != null) {
+            query.addCriteria(Criteria.where("status").is(status));
+        }
+        if (providerId != null) {
+            query.addCriteria(Criteria.where("providerId").is(providerId));
+        }
+        addCreatedAtRange(query, from, to);
+
+        long count = writeNdjson(query, BookingEntity.class, bookingMapper::toDto, out);
+        log.info("✅ Exported {} bookings", count);
+        return count;
+    }
+
+    @Override
+    public long exportPayments(PaymentStatus status, Long payerId,
+                               LocalDateTime from, LocalDateTime to,
+                               OutputStream out) throws IOException {
+        log.info("📤 Exporting payments (status: {}, payer: {}, from: {}, to: {})", status, payerId, from, to);
+
+        Query query = new Query();
+        if (status != null) {
+            query.addCriteria(Criteria.where("status").is(status));
+        }
+        if (payerId != null) {
+            query.addCriteria(Criteria.where("payerId").is(payerId));
+        }
+        addCreatedAtRange(query, from, to);
+
+        long count = writeNdjson(query, PaymentEntity.class, bookingMapper::toDto, out);
+        log.info("✅ Exported {} payments", count);
+        return count;
+    }
+
+    private void addCreatedAtRange(Query query, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return;
+        }
+        Criteria createdAt = Criteria.where("createdAt");
+        if (from != null) {
+            createdAt.gte(from);
+        }
+        if (to != null) {
+            createdAt.lt(to);
+        }
+        query.addCriteria(createdAt);
+    }
+
+    private <T> long writeNdjson(Query query, Class<T> entityType,
+                                 Function<T, ?> toDto, OutputStream out) throws IOException {
+        query.cursorBatchSize(CURSOR_BATCH_SIZE);
+
+        long count = 0;
+        MongoTemplate template = analyticsMongo != null ? analyticsMongo.getTemplate() : mongoTemplate;
+        try (Stream<T> documents = template.stream(query, entityType)) {
+            Iterator<T> iterator = documents.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(out, toDto.apply(iterator.next()));
+                out.write(NEWLINE);
+                if (++count % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
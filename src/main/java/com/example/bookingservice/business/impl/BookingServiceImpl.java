@@ -1,11 +1,17 @@
 package com.example.bookingservice.business.impl;
 
 import com.example.bookingservice.business.interfaces.BookingService;
+import com.example.bookingservice.business.mapper.BookingFields;
 import com.example.bookingservice.business.mapper.BookingMapper;
+import com.example.bookingservice.business.payment.PaymentGateway;
+import com.example.bookingservice.business.payment.PaymentGatewayResult;
 import com.example.bookingservice.business.saga.BookingSagaOrchestrator;
 import com.example.bookingservice.client.AppointmentServiceClient;
+import com.example.bookingservice.configuration.BookingBatchConfig;
 import com.example.bookingservice.domain.dto.AppointmentDto;
+import com.example.bookingservice.domain.dto.BookingBatchItemDto;
 import com.example.bookingservice.domain.dto.BookingDto;
+import com.example.bookingservice.domain.dto.BookingPageDto;
 import com.example.bookingservice.domain.dto.PaymentDto;
 import com.example.bookingservice.domain.request.CreateBookingRequest;
 import com.example.bookingservice.domain.request.ProcessPaymentRequest;
@@ -13,31 +19,70 @@ import com.example.bookingservice.domain.response.AppointmentResponse;
 import com.example.bookingservice.event.BookingEvent;
 import com.example.bookingservice.exception.*;
 import com.example.bookingservice.persistence.model.*;
+import com.example.bookingservice.persistence.respository.BookingCursor;
 import com.example.bookingservice.persistence.respository.BookingRepository;
 import com.example.bookingservice.persistence.respository.PaymentRepository;
 import com.example.bookingservice.producer.BookingEventProducer;
+import com.mongodb.ErrorCategory;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 public class BookingServiceImpl implements BookingService {
 
+    // Keyset pagination bounds for list endpoints
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final Set<BookingStatus> CANCELLABLE =
+            EnumSet.complementOf(EnumSet.of(BookingStatus.COMPLETED, BookingStatus.CANCELLED));
+    private static final Set<BookingStatus> CONFIRMABLE =
+            EnumSet.of(BookingStatus.PENDING, BookingStatus.PAYMENT_PENDING, BookingStatus.CONFIRMED);
+    // Reads of a booking still waiting for the payment that changed before the outcome could be applied
+    private static final int PAYMENT_APPLY_ATTEMPTS = 3;
+    private static final Duration ORPHANED_CLAIM_AFTER = Duration.ofMinutes(1);
+
     // REQUIRED dependencies - injected via constructor
     private final BookingRepository bookingRepository;
     private final PaymentRepository paymentRepository;
     private final BookingMapper bookingMapper;
     private final AppointmentServiceClient appointmentServiceClient;
+    private final PaymentGateway paymentGateway;
 
     // OPTIONAL dependency - RabbitMQ producer (may be null if RabbitMQ is disabled)
     @Autowired(required = false)
@@ -48,34 +93,87 @@ public class BookingServiceImpl implements BookingService {
     @Lazy
     private BookingSagaOrchestrator sagaOrchestrator;
 
+    // OPTIONAL dependency - bounded pool for batch appointment lookups, lookups run inline without it
+    @Autowired(required = false)
+    @Qualifier(BookingBatchConfig.BATCH_EXECUTOR)
+    private ExecutorService bookingBatchExecutor;
+
     // Constructor with only required dependencies
     public BookingServiceImpl(
             BookingRepository bookingRepository,
             PaymentRepository paymentRepository,
             BookingMapper bookingMapper,
-            AppointmentServiceClient appointmentServiceClient) {
+            AppointmentServiceClient appointmentServiceClient,
+            PaymentGateway paymentGateway) {
         this.bookingRepository = bookingRepository;
         this.paymentRepository = paymentRepository;
         this.bookingMapper = bookingMapper;
         this.appointmentServiceClient = appointmentServiceClient;
+        this.paymentGateway = paymentGateway;
     }
 
     /**
-     * Helper method to safely publish events to RabbitMQ
-     * Only publishes if RabbitMQ is enabled and producer is available
+     * Compare-and-set on the booking status and the version that was read, only the given fields are written
+     * A miss means the booking moved to another status or was changed in any other way meanwhile
      */
-    private void publishEventSafely(Runnable eventPublisher, String eventDescription) {
-        if (bookingEventProducer != null) {
-            try {
-                eventPublisher.run();
-                log.info("📤 Published {} event", eventDescription);
-            } catch (Exception e) {
-                log.error("❌ Failed to publish {} event: {}", eventDescription, e.getMessage(), e);
-                // Don't fail the operation if event publishing fails
-            }
-        } else {
-            log.debug("ℹ️ RabbitMQ disabled - skipping {} event", eventDescription);
+    private BookingEntity transition(BookingEntity booking, Collection<BookingStatus> from, Update changes) {
+        Criteria expected = Criteria.where("status").in(from).and("version").is(booking.getVersion());
+        return bookingRepository.updateIfMatches(booking.getId(), expected, changes)
+                .orElseThrow(() -> new BookingStateConflictException(
+                        "Booking " + booking.getId() + " was changed concurrently, expected status " + from
+                                + " at version " + booking.getVersion()));
+    }
+
+    /**
+     * Add the event to the booking update, so the change and its event are written together or not at all
+     * The event is built from the booking as the update leaves it, which is exact because every update
+     * is guarded on the version that was read. Nothing is added when RabbitMQ is disabled or no event applies
+     */
+    private void withEvent(Update changes, BookingEntity booking, Function<BookingEntity, PendingEvent> event) {
+        if (bookingEventProducer == null) {
+            return;
+        }
+        PendingEvent pending = event.apply(afterUpdate(booking, changes));
+        if (pending != null) {
+            changes.push("pendingEvents", pending);
+        }
+    }
+
+    /**
+     * Attach the BOOKING_CREATED event to a booking before it is inserted
+     */
+    private void withCreatedEvent(BookingEntity booking) {
+        if (bookingEventProducer == null) {
+            return;
+        }
+        PendingEvent pending = bookingEventProducer.pendingEvent("BOOKING_CREATED", bookingMapper.toEvent(booking));
+        if (pending != null) {
+            booking.setPendingEvents(new ArrayList<>(List.of(pending)));
+        }
+    }
+
+    /**
+     * Status transition event, a delta when booking.events.status-change-mode=delta, otherwise the full booking
+     *
+     * @param eventType type of the full event, null when the transition has none
+     */
+    private PendingEvent statusEvent(BookingEntity updated, BookingStatus oldStatus,
+                                     Map<String, Object> changedFields, String eventType) {
+        if (bookingEventProducer.isStatusDeltaEnabled()) {
+            return bookingEventProducer.pendingEvent(bookingMapper.toStatusChangedEvent(updated, oldStatus, changedFields));
         }
+        return eventType != null ? bookingEventProducer.pendingEvent(eventType, bookingMapper.toEvent(updated)) : null;
+    }
+
+    private static BookingEntity afterUpdate(BookingEntity booking, Update changes) {
+        BookingEntity updated = booking.toBuilder().build();
+        Document set = changes.getUpdateObject().get("$set", Document.class);
+        if (set != null) {
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(updated);
+            set.forEach(wrapper::setPropertyValue);
+        }
+        updated.setUpdatedAt(LocalDateTime.now());
+        return updated;
     }
 
     // ========== CIRCUIT BREAKER PROTECTED METHOD ==========
@@ -111,34 +209,166 @@ public class BookingServiceImpl implements BookingService {
     public BookingDto createBooking(CreateBookingRequest request) {
         log.info("📌 Creating booking for appointment ID: {}", request.getAppointmentId());
 
-        // 1️⃣ Check if booking already exists
-        if (bookingRepository.existsByAppointmentId(request.getAppointmentId())) {
+        // 1️⃣ Validate the request locally before any remote call
+        // Duplicates are rejected by the unique appointmentId index on insert, no exists query needed
+        validateBookingDates(request);
+
+        // 2️⃣ Fetch appointment details
+        AppointmentDto appointment = fetchAppointment(request.getAppointmentId());
+
+        // 3️⃣ Validate appointment and build booking entity
+        BookingEntity booking = buildBooking(request, appointment);
+        booking.setId(new ObjectId().toHexString());
+        withCreatedEvent(booking);
+
+        // 4️⃣ Insert booking with its BOOKING_CREATED event, a concurrent create for the same appointment
+        // fails on the unique index
+        BookingEntity savedBooking;
+        try {
+            savedBooking = bookingRepository.insert(booking);
+            log.info("✅ Booking saved successfully: {}", savedBooking.getId());
+        } catch (DuplicateKeyException e) {
             log.warn("⚠️ Booking already exists for appointment ID: {}", request.getAppointmentId());
             throw new BookingAlreadyExistsException(
                     "Booking already exists for appointment ID: " + request.getAppointmentId()
             );
+        } catch (Exception e) {
+            log.error("❌ Failed to save booking: {}", e.getMessage(), e);
+            throw new BookingPersistenceException("Could not save booking. Check data and try again.");
         }
 
-        // 2️⃣ Fetch appointment details
+        // ✅ 5️⃣ START SAGA - This won't cause circular dependency anymore due to @Lazy
+        startSaga(request);
+
+        return bookingMapper.toDto(savedBooking);
+    }
+
+    @Override
+    public List<BookingBatchItemDto> createBookings(List<CreateBookingRequest> requests) {
+        log.info("📌 Creating batch of {} bookings", requests.size());
+        BookingBatchItemDto[] results = new BookingBatchItemDto[requests.size()];
+
+        // 1️⃣ Validate locally, then fetch appointments in parallel on the bounded batch executor
+        Map<Integer, CompletableFuture<BookingEntity>> pending = new LinkedHashMap<>();
+        Executor executor = bookingBatchExecutor != null ? bookingBatchExecutor : Runnable::run;
+        for (int i = 0; i < requests.size(); i++) {
+            CreateBookingRequest request = requests.get(i);
+            try {
+                validateBookingDates(request);
+                pending.put(i, CompletableFuture.supplyAsync(
+                        () -> buildBooking(request, fetchAppointment(request.getAppointmentId())), executor));
+            } catch (RuntimeException e) {
+                results[i] = batchFailure(i, request, e);
+            }
+        }
+
+        // 2️⃣ Collect the enriched bookings, ids are assigned here so bulk results map back to items
+        List<Integer> indexes = new ArrayList<>();
+        List<BookingEntity> bookings = new ArrayList<>();
+        pending.forEach((i, future) -> {
+            try {
+                BookingEntity booking = future.join();
+                booking.setId(new ObjectId().toHexString());
+                withCreatedEvent(booking);
+                indexes.add(i);
+                bookings.add(booking);
+            } catch (CompletionException e) {
+                results[i] = batchFailure(i, requests.get(i), e.getCause());
+            }
+        });
+
+        // 3️⃣ Unordered bulk insert, each booking with its BOOKING_CREATED event, duplicates fail on the unique appointmentId index without stopping the rest
+        Map<Integer, Integer> insertErrors;
+        try {
+            insertErrors = bookingRepository.insertUnordered(bookings);
+        } catch (Exception e) {
+            log.error("❌ Failed to save booking batch: {}", e.getMessage(), e);
+            insertErrors = new HashMap<>();
+            for (int k = 0; k < bookings.size(); k++) {
+                insertErrors.put(k, null);
+            }
+        }
+
+        List<BookingEntity> created = new ArrayList<>();
+        for (int k = 0; k < bookings.size(); k++) {
+            int i = indexes.get(k);
+            if (!insertErrors.containsKey(k)) {
+                created.add(bookings.get(k));
+                results[i] = BookingBatchItemDto.created(i, bookingMapper.toDto(bookings.get(k)));
+            } else if (isDuplicateKey(insertErrors.get(k))) {
+                results[i] = batchFailure(i, requests.get(i), new BookingAlreadyExistsException(
+                        "Booking already exists for appointment ID: " + requests.get(i).getAppointmentId()));
+            } else {
+                results[i] = batchFailure(i, requests.get(i),
+                        new BookingPersistenceException("Could not save booking. Check data and try again."));
+            }
+        }
+        log.info("✅ Batch saved: {} of {} bookings created", created.size(), requests.size());
+
+        // 4️⃣ Start a saga per created booking
+        for (int k = 0; k < bookings.size(); k++) {
+            if (!insertErrors.containsKey(k)) {
+                startSaga(requests.get(indexes.get(k)));
+            }
+        }
+
+        return Arrays.asList(results);
+    }
+
+    private boolean isDuplicateKey(Integer errorCode) {
+        return errorCode != null && ErrorCategory.fromErrorCode(errorCode) == ErrorCategory.DUPLICATE_KEY;
+    }
+
+    private BookingBatchItemDto batchFailure(int index, CreateBookingRequest request, Throwable error) {
+        String errorCode;
+        if (error instanceof InvalidBookingException) {
+            errorCode = "INVALID_BOOKING";
+        } else if (error instanceof AppointmentNotFoundException) {
+            errorCode = "APPOINTMENT_NOT_FOUND";
+        } else if (error instanceof BookingAlreadyExistsException) {
+            errorCode = "BOOKING_ALREADY_EXISTS";
+        } else if (error instanceof BookingPersistenceException) {
+            errorCode = "PERSISTENCE_ERROR";
+        } else {
+            log.error("❌ Unexpected error in booking batch item {}: {}", index, error.getMessage(), error);
+            return BookingBatchItemDto.failed(index, request.getAppointmentId(),
+                    "INTERNAL_ERROR", "An unexpected error occurred");
+        }
+        log.warn("⚠️ Booking batch item {} failed: {}", index, error.getMessage());
+        return BookingBatchItemDto.failed(index, request.getAppointmentId(), errorCode, error.getMessage());
+    }
+
+    private void validateBookingDates(CreateBookingRequest request) {
+        if (request.getMoveInDate().isBefore(LocalDateTime.now())) {
+            throw new InvalidBookingException("Move-in date cannot be in the past");
+        }
+
+        if (request.getMoveOutDate().isBefore(request.getMoveInDate())) {
+            throw new InvalidBookingException("Move-out date must be after move-in date");
+        }
+    }
+
+    private AppointmentDto fetchAppointment(String appointmentId) {
         AppointmentResponse appointmentResponse;
         try {
-            appointmentResponse = appointmentServiceClient.getAppointmentById(request.getAppointmentId());
+            appointmentResponse = appointmentServiceClient.getAppointmentById(appointmentId);
         } catch (Exception e) {
             log.error("❌ Failed to fetch appointment: {}", e.getMessage(), e);
             throw new AppointmentNotFoundException(
-                    "Appointment not found for ID: " + request.getAppointmentId()
+                    "Appointment not found for ID: " + appointmentId
             );
         }
 
         if (appointmentResponse == null || !appointmentResponse.isSuccess()) {
             throw new AppointmentNotFoundException(
-                    "Appointment not found or service unavailable for ID: " + request.getAppointmentId()
+                    "Appointment not found or service unavailable for ID: " + appointmentId
             );
         }
 
-        AppointmentDto appointment = appointmentResponse.getAppointment();
+        return appointmentResponse.getAppointment();
+    }
 
-        // 3️⃣ Null checks & validation
+    private BookingEntity buildBooking(CreateBookingRequest request, AppointmentDto appointment) {
         if (appointment.getPropertyRentAmount() == null) {
             throw new InvalidBookingException("Property rent amount cannot be null");
         }
@@ -161,22 +391,13 @@ public class BookingServiceImpl implements BookingService {
             throw new InvalidBookingException("Property is already rented: " + appointment.getPropertyTitle());
         }
 
-        if (request.getMoveInDate().isBefore(LocalDateTime.now())) {
-            throw new InvalidBookingException("Move-in date cannot be in the past");
-        }
-
-        if (request.getMoveOutDate().isBefore(request.getMoveInDate())) {
-            throw new InvalidBookingException("Move-out date must be after move-in date");
-        }
-
-        // 4️⃣ Calculate amounts
+        // Calculate amounts
         BigDecimal monthlyRent = appointment.getPropertyRentAmount();
         BigDecimal depositAmount = monthlyRent;
         BigDecimal totalAmount = monthlyRent.multiply(BigDecimal.valueOf(request.getBookingDurationMonths()))
                 .add(depositAmount);
 
-        // 5️⃣ Build booking entity
-        BookingEntity booking = BookingEntity.builder()
+        return BookingEntity.builder()
                 .appointmentId(appointment.getAppointmentId())
                 .appointmentTitle(appointment.getAppointmentTitle())
                 .appointmentDateTime(appointment.getAppointmentDateTime())
@@ -223,27 +444,9 @@ public class BookingServiceImpl implements BookingService {
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
+    }
 
-        // 6️⃣ Save booking safely
-        BookingEntity savedBooking;
-        try {
-            savedBooking = bookingRepository.save(booking);
-            log.info("✅ Booking saved successfully: {}", savedBooking.getId());
-        } catch (Exception e) {
-            log.error("❌ Failed to save booking: {}", e.getMessage(), e);
-            throw new BookingPersistenceException("Could not save booking. Check data and try again.");
-        }
-
-        // 7️⃣ Publish event safely
-        BookingEntity finalSavedBooking = savedBooking;
-        publishEventSafely(() -> {
-            BookingEvent event = bookingMapper.toEvent(finalSavedBooking);
-            if (bookingEventProducer != null) {
-                bookingEventProducer.publishBookingCreated(event);
-            }
-        }, "BOOKING_CREATED");
-
-        // ✅ 8️⃣ START SAGA - This won't cause circular dependency anymore due to @Lazy
+    private void startSaga(CreateBookingRequest request) {
         if (sagaOrchestrator != null) {
             try {
                 log.info("🎬 Starting BOOKING SAGA for appointment: {}", request.getAppointmentId());
@@ -255,8 +458,6 @@ public class BookingServiceImpl implements BookingService {
         } else {
             log.debug("ℹ️ SAGA disabled - skipping saga orchestration");
         }
-
-        return bookingMapper.toDto(savedBooking);
     }
 
     @Override
@@ -267,10 +468,34 @@ public class BookingServiceImpl implements BookingService {
         return bookingMapper.toDto(booking);
     }
 
+    @Override
+    public BookingEvent getBookingSnapshot(String bookingId) {
+        log.info("🔍 Fetching booking snapshot: {}", bookingId);
+        BookingEntity booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + bookingId));
+        BookingEvent snapshot = bookingMapper.toEvent(booking);
+        snapshot.setEventType("BOOKING_SNAPSHOT");
+        snapshot.setEventTimestamp(LocalDateTime.now());
+        return snapshot;
+    }
+
+    @Override
+    public BookingDto getBookingById(String bookingId, String fields) {
+        Set<String> fieldSet = BookingFields.parse(fields);
+        if (fieldSet == null) {
+            return getBookingById(bookingId);
+        }
+
+        log.info("🔍 Fetching booking: {} (fields: {})", bookingId, fieldSet);
+        BookingEntity booking = bookingRepository.findProjectedById(bookingId, fieldSet)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + bookingId));
+        return bookingMapper.toDto(booking, fieldSet);
+    }
+
     @Override
     public List<BookingDto> getAllBookings() {
         log.info("📋 Fetching all bookings");
-        List<BookingEntity> bookings = bookingRepository.findAll();
+        List<BookingEntity> bookings = bookingRepository.findMatching(null);
         return bookingMapper.toDtoList(bookings);
     }
 
@@ -284,41 +509,109 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public BookingDto updatePropertyStatus(String propertyId, boolean propertyIsRented) {
         log.info("🏠 Updating property status for property: {}", propertyId);
-        BookingEntity booking = bookingRepository.findById(propertyId)
+        BookingEntity booking = bookingRepository.updateIfMatches(
+                        propertyId, null, new Update().set("propertyIsRented", propertyIsRented))
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + propertyId));
-        booking.setPropertyIsRented(propertyIsRented);
-        bookingRepository.save(booking);
         return bookingMapper.toDto(booking);
     }
 
     @Override
     public List<BookingDto> getBookingsByRequesterId(Long requesterId) {
         log.info("👤 Fetching bookings for requester: {}", requesterId);
-        List<BookingEntity> bookings = bookingRepository.findByRequesterId(requesterId);
+        List<BookingEntity> bookings = bookingRepository.findMatching(Criteria.where("requesterId").is(requesterId));
         return bookingMapper.toDtoList(bookings);
     }
 
     @Override
     public List<BookingDto> getBookingsByProviderId(Long providerId) {
         log.info("🏢 Fetching bookings for provider: {}", providerId);
-        List<BookingEntity> bookings = bookingRepository.findByProviderId(providerId);
+        List<BookingEntity> bookings = bookingRepository.findMatching(Criteria.where("providerId").is(providerId));
         return bookingMapper.toDtoList(bookings);
     }
 
     @Override
     public List<BookingDto> getBookingsByPropertyId(Long propertyId) {
         log.info("🏘️ Fetching bookings for property: {}", propertyId);
-        List<BookingEntity> bookings = bookingRepository.findByPropertyId(propertyId);
+        List<BookingEntity> bookings = bookingRepository.findMatching(Criteria.where("propertyId").is(propertyId));
         return bookingMapper.toDtoList(bookings);
     }
 
     @Override
     public List<BookingDto> getBookingsByStatus(BookingStatus status) {
         log.info("📊 Fetching bookings with status: {}", status);
-        List<BookingEntity> bookings = bookingRepository.findByStatus(status);
+        List<BookingEntity> bookings = bookingRepository.findMatching(Criteria.where("status").is(status));
         return bookingMapper.toDtoList(bookings);
     }
 
+    // ========== PAGINATED BOOKING LISTS ==========
+
+    @Override
+    public BookingPageDto getAllBookings(String cursor, int size, String fields) {
+        log.info("📋 Fetching bookings page (size: {})", size);
+        return findBookingPage(null, cursor, size, fields);
+    }
+
+    @Override
+    public BookingPageDto getBookingsByRequesterId(Long requesterId, String cursor, int size, String fields) {
+        log.info("👤 Fetching bookings page for requester: {}", requesterId);
+        return findBookingPage(Criteria.where("requesterId").is(requesterId), cursor, size, fields);
+    }
+
+    @Override
+    public BookingPageDto getBookingsByProviderId(Long providerId, String cursor, int size, String fields) {
+        log.info("🏢 Fetching bookings page for provider: {}", providerId);
+        return findBookingPage(Criteria.where("providerId").is(providerId), cursor, size, fields);
+    }
+
+    @Override
+    public BookingPageDto getBookingsByPropertyId(Long propertyId, String cursor, int size, String fields) {
+        log.info("🏘️ Fetching bookings page for property: {}", propertyId);
+        return findBookingPage(Criteria.where("propertyId").is(propertyId), cursor, size, fields);
+    }
+
+    @Override
+    public BookingPageDto getBookingsByStatus(BookingStatus status, String cursor, int size, String fields) {
+        log.info("📊 Fetching bookings page with status: {}", status);
+        return findBookingPage(Criteria.where("status").is(status), cursor, size, fields);
+    }
+
+    /**
+     * Fetch one page plus one extra booking to know whether another page exists
+     */
+    private BookingPageDto findBookingPage(Criteria filter, String cursor, int size, String fields) {
+        int pageSize = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        BookingCursor after = decodeCursor(cursor);
+        Set<String> fieldSet = BookingFields.parse(fields);
+
+        List<BookingEntity> bookings = bookingRepository.findPage(filter, after, pageSize + 1, fieldSet);
+        boolean hasMore = bookings.size() > pageSize;
+        if (hasMore) {
+            bookings = bookings.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore
+                ? BookingCursor.of(bookings.get(bookings.size() - 1)).encode()
+                : null;
+
+        return BookingPageDto.builder()
+                .bookings(bookingMapper.toDtoList(bookings, fieldSet))
+                .nextCursor(nextCursor)
+                .pageSize(pageSize)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private BookingCursor decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            return BookingCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidBookingException("Invalid pagination cursor");
+        }
+    }
+
     // ========== BOOKING STATUS MANAGEMENT ==========
 
     @Override
@@ -329,26 +622,21 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + bookingId));
 
         BookingStatus oldStatus = booking.getStatus();
-        booking.setStatus(status);
-        booking.setUpdatedAt(LocalDateTime.now());
-
-        BookingEntity updatedBooking = bookingRepository.save(booking);
-
-        // Publish status update event if status changed
-        if (oldStatus != status) {
-            BookingEntity finalUpdatedBooking = updatedBooking;
-            publishEventSafely(() -> {
-                BookingEvent event = bookingMapper.toEvent(finalUpdatedBooking);
-                if (status == BookingStatus.CONFIRMED) {
-                    bookingEventProducer.publishBookingConfirmed(event);
-                } else if (status == BookingStatus.COMPLETED) {
-                    bookingEventProducer.publishBookingCompleted(event);
-                } else if (status == BookingStatus.EXPIRED) {
-                    bookingEventProducer.publishBookingExpired(event);
-                }
-            }, "BOOKING_STATUS_UPDATE");
+        if (oldStatus == status) {
+            return bookingMapper.toDto(booking);
         }
 
+        Update changes = new Update().set("status", status);
+        withEvent(changes, booking, updated -> statusEvent(updated, oldStatus, Map.of(), switch (status) {
+            case CONFIRMED -> "BOOKING_CONFIRMED";
+            case COMPLETED -> "BOOKING_COMPLETED";
+            case EXPIRED -> "BOOKING_EXPIRED";
+            default -> null;
+        }));
+
+        // Only moves the status we read, a concurrent transition wins and this one is rejected
+        BookingEntity updatedBooking = transition(booking, Collections.singleton(oldStatus), changes);
+
         return bookingMapper.toDto(updatedBooking);
     }
 
@@ -365,33 +653,39 @@ public class BookingServiceImpl implements BookingService {
             );
         }
 
-        booking.setStatus(BookingStatus.CANCELLED);
-        booking.setCancellationReason(reason);
-        booking.setUpdatedAt(LocalDateTime.now());
+        BookingStatus oldStatus = booking.getStatus();
+        // A paid booking is refunded with the cancel, the version guard keeps the paymentStatus read here current
+        boolean refund = booking.getPaymentStatus() == PaymentStatus.COMPLETED;
+        Update changes = new Update()
+                .set("status", BookingStatus.CANCELLED)
+                .set("cancellationReason", reason);
+        if (refund) {
+            changes.set("paymentStatus", PaymentStatus.REFUNDED);
+        }
+        withEvent(changes, booking, cancelled -> {
+            if (bookingEventProducer.isStatusDeltaEnabled()) {
+                Map<String, Object> changedFields = new LinkedHashMap<>();
+                changedFields.put("cancellationReason", reason);
+                changedFields.put("paymentStatus", cancelled.getPaymentStatus());
+                return bookingEventProducer.pendingEvent(
+                        bookingMapper.toStatusChangedEvent(cancelled, oldStatus, changedFields));
+            }
+            BookingEvent event = bookingMapper.toEvent(cancelled);
+            event.setCancelledAt(LocalDateTime.now());
+            return bookingEventProducer.pendingEvent("BOOKING_CANCELLED", event);
+        });
+        BookingEntity cancelledBooking = transition(booking, CANCELLABLE, changes);
 
-        // Refund payment if already paid
-        if (booking.getPaymentStatus() == PaymentStatus.COMPLETED) {
-            PaymentEntity payment = paymentRepository.findByBookingId(bookingId)
-                    .orElse(null);
-            if (payment != null) {
+        if (refund) {
+            // Failed attempts stay next to the completed payment, only the completed one is refunded
+            for (PaymentEntity payment : paymentRepository.findByBookingIdAndStatus(bookingId, PaymentStatus.COMPLETED)) {
                 payment.setStatus(PaymentStatus.REFUNDED);
                 payment.setUpdatedAt(LocalDateTime.now());
                 paymentRepository.save(payment);
             }
-            booking.setPaymentStatus(PaymentStatus.REFUNDED);
         }
-
-        BookingEntity cancelledBooking = bookingRepository.save(booking);
         log.info("✅ Booking cancelled successfully: {}", bookingId);
 
-        // Publish booking cancelled event
-        BookingEntity finalCancelledBooking = cancelledBooking;
-        publishEventSafely(() -> {
-            BookingEvent event = bookingMapper.toEvent(finalCancelledBooking);
-            event.setCancelledAt(LocalDateTime.now());
-            bookingEventProducer.publishBookingCancelled(event);
-        }, "BOOKING_CANCELLED");
-
         return bookingMapper.toDto(cancelledBooking);
     }
 
@@ -420,19 +714,18 @@ public class BookingServiceImpl implements BookingService {
             );
         }
 
-        booking.setStatus(BookingStatus.CONFIRMED);
-        booking.setUpdatedAt(LocalDateTime.now());
+        if (!CONFIRMABLE.contains(booking.getStatus())) {
+            throw new InvalidBookingException(
+                    "Cannot confirm booking with status: " + booking.getStatus()
+            );
+        }
 
-        BookingEntity confirmedBooking = bookingRepository.save(booking);
+        BookingStatus oldStatus = booking.getStatus();
+        Update changes = new Update().set("status", BookingStatus.CONFIRMED);
+        withEvent(changes, booking, confirmed -> statusEvent(confirmed, oldStatus, Map.of(), "BOOKING_CONFIRMED"));
+        BookingEntity confirmedBooking = transition(booking, CONFIRMABLE, changes);
         log.info("✅ Booking confirmed successfully: {}", confirmedBooking.getId());
 
-        // Publish booking confirmed event
-        BookingEntity finalConfirmedBooking = confirmedBooking;
-        publishEventSafely(() -> {
-            BookingEvent event = bookingMapper.toEvent(finalConfirmedBooking);
-            bookingEventProducer.publishBookingConfirmed(event);
-        }, "BOOKING_CONFIRMED");
-
         return bookingMapper.toDto(confirmedBooking);
     }
 
@@ -457,13 +750,36 @@ public class BookingServiceImpl implements BookingService {
 
         // Check payment deadline
         if (LocalDateTime.now().isAfter(booking.getPaymentDeadline())) {
-            booking.setStatus(BookingStatus.EXPIRED);
-            bookingRepository.save(booking);
+            // A concurrent transition or a payment at the gateway takes precedence, this one is refused either way
+            bookingRepository.updateIfMatches(booking.getId(),
+                    Criteria.where("status").is(booking.getStatus())
+                            .and("paymentStatus").ne(PaymentStatus.PROCESSING),
+                    new Update().set("status", BookingStatus.EXPIRED));
             throw new PaymentException("Payment deadline has passed");
         }
 
-        // Create payment record
+        boolean orphanedClaim = isOrphanedClaim(booking);
+        if (booking.getPaymentStatus() == PaymentStatus.PROCESSING && !orphanedClaim) {
+            throw new PaymentException("Payment already in progress for this booking");
+        }
+
+        // Claim the booking for this payment before the payment exists, of two concurrent submissions
+        // only one gets past here and the other leaves nothing behind
+        String paymentId = new ObjectId().toHexString();
+        Criteria unpaid = orphanedClaim
+                ? Criteria.where("paymentId").is(booking.getPaymentId()).and("paymentStatus").is(PaymentStatus.PROCESSING)
+                : Criteria.where("paymentStatus").nin(PaymentStatus.COMPLETED, PaymentStatus.PROCESSING);
+        Criteria payable = new Criteria().andOperator(
+                Criteria.where("status").nin(BookingStatus.CANCELLED, BookingStatus.EXPIRED), unpaid);
+        if (bookingRepository.updateIfMatches(booking.getId(), payable, new Update()
+                .set("paymentId", paymentId)
+                .set("paymentStatus", PaymentStatus.PROCESSING)).isEmpty()) {
+            throw new BookingStateConflictException(
+                    "Booking " + booking.getId() + " was paid, cancelled or expired concurrently");
+        }
+
         PaymentEntity payment = PaymentEntity.builder()
+                .id(paymentId)
                 .bookingId(booking.getId())
                 .amount(booking.getTotalAmount())
                 .currency("EUR")
@@ -474,71 +790,243 @@ public class BookingServiceImpl implements BookingService {
                 .payerEmail(booking.getRequesterEmail())
                 .transactionId(UUID.randomUUID().toString())
                 .paymentReference(request.getPaymentReference())
-                .paymentGateway("MOCK_GATEWAY")
+                .paymentGateway(paymentGateway.name())
                 .description("Payment for booking: " + booking.getPropertyTitle())
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        // Simulate payment processing
+        PaymentEntity savedPayment;
         try {
-            Thread.sleep(1000); // Simulate processing time
+            savedPayment = paymentRepository.insert(payment);
+        } catch (RuntimeException e) {
+            // Give the booking back so the next submission is not refused as in progress
+            bookingRepository.updateIfMatches(booking.getId(),
+                    Criteria.where("paymentId").is(paymentId).and("paymentStatus").is(PaymentStatus.PROCESSING),
+                    new Update()
+                            .set("paymentId", booking.getPaymentId())
+                            .set("paymentStatus", booking.getPaymentStatus()));
+            throw e;
+        }
 
-            payment.setStatus(PaymentStatus.COMPLETED);
-            payment.setPaymentDate(LocalDateTime.now());
-            payment.setReceiptUrl("https://receipts.example.com/" + payment.getTransactionId());
+        // Hand off to the gateway, the request thread does not wait for the outcome
+        submitToGateway(savedPayment);
+        return bookingMapper.toDto(savedPayment);
+    }
 
-            booking.setPaymentId(payment.getId());
-            booking.setPaymentStatus(PaymentStatus.COMPLETED);
-            booking.setStatus(BookingStatus.CONFIRMED);
-            booking.setPaidAmount(booking.getTotalAmount());
-            booking.setRemainingAmount(BigDecimal.ZERO);
-            booking.setUpdatedAt(LocalDateTime.now());
+    /**
+     * A claim whose payment was never inserted, the pod crashed between the two writes
+     * Only reported once the claim is older than any insert still in flight
+     */
+    private boolean isOrphanedClaim(BookingEntity booking) {
+        return booking.getPaymentStatus() == PaymentStatus.PROCESSING
+                && booking.getPaymentId() != null
+                && booking.getUpdatedAt() != null
+                && booking.getUpdatedAt().isBefore(LocalDateTime.now().minus(ORPHANED_CLAIM_AFTER))
+                && !paymentRepository.existsById(booking.getPaymentId());
+    }
 
+    @Override
+    public void resumePayment(String paymentId) {
+        PaymentEntity payment = paymentRepository.findById(paymentId).orElse(null);
+        if (payment == null || payment.getStatus() != PaymentStatus.PROCESSING) {
+            return;
+        }
+        BookingEntity booking = bookingRepository.findById(payment.getBookingId()).orElse(null);
+
+        if (settleFromBooking(paymentId, booking)) {
+            log.info("🩺 Payment {} settled from booking {}: {}", paymentId, booking.getId(), booking.getPaymentStatus());
+            return;
+        }
+        if (booking == null || !paymentId.equals(booking.getPaymentId())) {
+            // Crashed before the booking was claimed, or the booking moved on to a later payment
+            paymentRepository.updateIfMatches(paymentId, Criteria.where("status").is(PaymentStatus.PROCESSING),
+                    new Update()
+                            .set("status", PaymentStatus.FAILED)
+                            .set("failureReason", "Booking is not waiting for this payment"));
+            log.info("🩺 Payment {} failed, booking {} is not waiting for it", paymentId, payment.getBookingId());
+            return;
+        }
+
+        // The gateway outcome was lost, submit again, providers dedupe on the transactionId
+        log.info("🩺 Resubmitting payment {} for booking {}", paymentId, booking.getId());
+        submitToGateway(payment);
+    }
+
+    private void submitToGateway(PaymentEntity payment) {
+        String paymentId = payment.getId();
+        String bookingId = payment.getBookingId();
+        paymentGateway.submit(payment)
+                .whenComplete((result, error) -> completePayment(paymentId, bookingId, result, error));
+
+        log.info("⏳ Payment submitted to {}: {}", paymentGateway.name(), paymentId);
+    }
+
+    /**
+     * Apply the gateway outcome to the booking, then to the payment
+     * Runs on the gateway's completion thread. A failure in between leaves the payment PROCESSING,
+     * the StalePaymentRecovery settles it from the booking
+     */
+    private void completePayment(String paymentId, String bookingId, PaymentGatewayResult result, Throwable error) {
+        try {
+            if (error == null && result != null && result.isSuccess()) {
+                applyPaymentSuccess(paymentId, bookingId, result);
+            } else {
+                String reason = error != null ? error.getMessage() : result != null ? result.getFailureReason() : null;
+                applyPaymentFailure(paymentId, bookingId, reason);
+            }
         } catch (Exception e) {
-            log.error("❌ Payment processing failed: {}", e.getMessage());
-            payment.setStatus(PaymentStatus.FAILED);
-            payment.setFailureReason(e.getMessage());
-            booking.setPaymentStatus(PaymentStatus.FAILED);
-        }
-
-        PaymentEntity savedPayment = paymentRepository.save(payment);
-        BookingEntity updatedBooking = bookingRepository.save(booking);
-
-        // Publish payment completed event if payment was successful
-        if (payment.getStatus() == PaymentStatus.COMPLETED) {
-            PaymentEntity finalSavedPayment = savedPayment;
-            BookingEntity finalUpdatedBooking = updatedBooking;
-            publishEventSafely(() -> {
-                BookingEvent event = bookingMapper.toEvent(finalUpdatedBooking);
-                event.setTransactionId(finalSavedPayment.getTransactionId());
-                event.setPaymentReference(finalSavedPayment.getPaymentReference());
-                bookingEventProducer.publishBookingPaymentCompleted(event);
-            }, "BOOKING_PAYMENT_COMPLETED");
-
-            // ✅ UPDATE SAGA - No circular dependency issue due to @Lazy
-            if (sagaOrchestrator != null) {
-                try {
-                    log.info("💰 Updating SAGA - Payment completed for booking: {}", request.getBookingId());
-                    sagaOrchestrator.handlePaymentCompleted(
-                            request.getBookingId(),
-                            finalSavedPayment.getTransactionId()
-                    );
-                } catch (Exception e) {
-                    log.error("❌ Failed to update SAGA: {}", e.getMessage(), e);
-                    // Don't fail the payment if SAGA update fails
-                }
+            log.error("❌ Failed to apply gateway result for payment {}: {}", paymentId, e.getMessage(), e);
+        }
+    }
+
+    private void applyPaymentSuccess(String paymentId, String bookingId, PaymentGatewayResult result) {
+        PaymentEntity payment = paymentRepository.findById(paymentId).orElse(null);
+        if (payment == null || payment.getStatus() != PaymentStatus.PROCESSING) {
+            log.warn("⚠️ Ignoring gateway result for payment {} (not processing)", paymentId);
+            return;
+        }
+
+        // Only a booking still waiting for this payment is confirmed, a cancel or expiry during the call wins
+        BookingEntity updatedBooking = null;
+        for (int attempt = 1; updatedBooking == null; attempt++) {
+            BookingEntity booking = bookingRepository.findById(bookingId).orElse(null);
+            if (!awaitsPayment(booking, paymentId)) {
+                refundUnappliedPayment(payment, booking);
+                return;
             }
+            if (attempt > PAYMENT_APPLY_ATTEMPTS) {
+                // Left PROCESSING, the StalePaymentRecovery resubmits it
+                throw new BookingStateConflictException("Booking " + bookingId + " keeps changing, payment "
+                        + paymentId + " not applied");
+            }
+
+            Update changes = new Update()
+                    .set("paymentStatus", PaymentStatus.COMPLETED)
+                    .set("status", BookingStatus.CONFIRMED)
+                    .set("paidAmount", payment.getAmount())
+                    .set("remainingAmount", BigDecimal.ZERO);
+            withEvent(changes, booking, paid -> {
+                BookingEvent event = bookingMapper.toEvent(paid);
+                event.setTransactionId(payment.getTransactionId());
+                event.setPaymentReference(payment.getPaymentReference());
+                return bookingEventProducer.pendingEvent("BOOKING_PAYMENT_COMPLETED", event);
+            });
+            Criteria awaitingPayment = Criteria.where("status").nin(BookingStatus.CANCELLED, BookingStatus.EXPIRED)
+                    .and("paymentId").is(paymentId)
+                    .and("paymentStatus").is(PaymentStatus.PROCESSING)
+                    .and("version").is(booking.getVersion());
+            updatedBooking = bookingRepository.updateIfMatches(bookingId, awaitingPayment, changes).orElse(null);
         }
 
-        log.info("✅ Payment processed successfully: {}", savedPayment.getId());
-        return bookingMapper.toDto(savedPayment);
+        PaymentEntity savedPayment = paymentRepository.updateIfMatches(paymentId,
+                        Criteria.where("status").is(PaymentStatus.PROCESSING),
+                        new Update()
+                                .set("status", PaymentStatus.COMPLETED)
+                                .set("paymentDate", LocalDateTime.now())
+                                .set("receiptUrl", result.getReceiptUrl()))
+                .orElse(payment);
+
+        // ✅ UPDATE SAGA - No circular dependency issue due to @Lazy
+        if (sagaOrchestrator != null) {
+            try {
+                log.info("💰 Updating SAGA - Payment completed for booking: {}", updatedBooking.getId());
+                sagaOrchestrator.handlePaymentCompleted(
+                        updatedBooking.getId(),
+                        savedPayment.getTransactionId()
+                );
+            } catch (Exception e) {
+                log.error("❌ Failed to update SAGA: {}", e.getMessage(), e);
+                // Don't fail the payment if SAGA update fails
+            }
+        }
+
+        log.info("✅ Payment processed successfully: {}", paymentId);
+    }
+
+    private static boolean awaitsPayment(BookingEntity booking, String paymentId) {
+        return booking != null
+                && booking.getStatus() != BookingStatus.CANCELLED
+                && booking.getStatus() != BookingStatus.EXPIRED
+                && paymentId.equals(booking.getPaymentId())
+                && booking.getPaymentStatus() == PaymentStatus.PROCESSING;
+    }
+
+    /**
+     * The gateway charged a payment the booking did not take, it was cancelled or expired during the call
+     */
+    private void refundUnappliedPayment(PaymentEntity payment, BookingEntity booking) {
+        if (settleFromBooking(payment.getId(), booking)) {
+            // Duplicate completion of a payment the booking already recorded
+            return;
+        }
+
+        log.warn("💸 Booking {} no longer accepts payment {} ({}), refunding", payment.getBookingId(), payment.getId(),
+                booking != null ? booking.getStatus() : "deleted");
+        paymentRepository.updateIfMatches(payment.getId(), Criteria.where("status").is(PaymentStatus.PROCESSING),
+                new Update()
+                        .set("status", PaymentStatus.REFUNDED)
+                        .set("failureReason", "Booking was cancelled or expired before the payment completed"));
+        // Release the claim, the booking keeps its status
+        bookingRepository.updateIfMatches(payment.getBookingId(),
+                Criteria.where("paymentId").is(payment.getId()).and("paymentStatus").is(PaymentStatus.PROCESSING),
+                new Update().set("paymentStatus", PaymentStatus.REFUNDED));
+    }
+
+    private void applyPaymentFailure(String paymentId, String bookingId, String reason) {
+        log.error("❌ Payment processing failed: {}", reason);
+
+        Criteria claimedByPayment = Criteria.where("paymentId").is(paymentId)
+                .and("paymentStatus").is(PaymentStatus.PROCESSING);
+        if (bookingRepository.updateIfMatches(bookingId, claimedByPayment,
+                new Update().set("paymentStatus", PaymentStatus.FAILED)).isEmpty()
+                && settleFromBooking(paymentId, bookingRepository.findById(bookingId).orElse(null))) {
+            // Duplicate completion of a payment the booking already recorded
+            return;
+        }
+        paymentRepository.updateIfMatches(paymentId, Criteria.where("status").is(PaymentStatus.PROCESSING),
+                new Update()
+                        .set("status", PaymentStatus.FAILED)
+                        .set("failureReason", reason));
+    }
+
+    /**
+     * Align a PROCESSING payment with its booking when the booking already recorded the outcome,
+     * after a crash between the two updates or for a duplicate gateway completion
+     *
+     * @return whether the booking has settled this payment
+     */
+    private boolean settleFromBooking(String paymentId, BookingEntity booking) {
+        if (booking == null || !paymentId.equals(booking.getPaymentId())
+                || booking.getPaymentStatus() == null || booking.getPaymentStatus() == PaymentStatus.PROCESSING) {
+            return false;
+        }
+        Update settled = new Update().set("status", booking.getPaymentStatus());
+        if (booking.getPaymentStatus() == PaymentStatus.COMPLETED) {
+            settled.set("paymentDate", LocalDateTime.now());
+        }
+        paymentRepository.updateIfMatches(paymentId, Criteria.where("status").is(PaymentStatus.PROCESSING), settled);
+        return true;
+    }
+
+    @Override
+    public PaymentDto getPaymentById(String paymentId) {
+        log.info("🔍 Fetching payment: {}", paymentId);
+        PaymentEntity payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new BookingNotFoundException(
+                        "Payment not found: " + paymentId
+                ));
+        return bookingMapper.toDto(payment);
     }
 
     @Override
     public PaymentDto getPaymentByBookingId(String bookingId) {
         log.info("🔍 Fetching payment for booking: {}", bookingId);
-        PaymentEntity payment = paymentRepository.findByBookingId(bookingId)
+        BookingEntity booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException("Booking not found: " + bookingId));
+        // A booking keeps its failed attempts, the current payment is the one it points to
+        PaymentEntity payment = Optional.ofNullable(booking.getPaymentId())
+                .flatMap(paymentRepository::findById)
                 .orElseThrow(() -> new BookingNotFoundException(
                         "Payment not found for booking: " + bookingId
                 ));
@@ -0,0 +1,29 @@
+package com.example.bookingservice.business.interfaces;
+
+import com.example.bookingservice.persistence.model.BookingStatus;
+import com.example.bookingservice.persistence.model.PaymentStatus;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+/**
+ * Bulk export of bookings and payments as newline-delimited JSON
+ * Every filter is optional, the date range applies to createdAt (from inclusive, to exclusive)
+ */
+public interface BookingExportService {
+
+    /**
+     * @return number of bookings written
+     */
+    long exportBookings(BookingStatus status, Long providerId,
+                        LocalDateTime from, LocalDateTime to,
+                        OutputStream out) throws IOException;
+
+    /**
+     * @return number of payments written
+     */
+    long exportPayments(PaymentStatus status, Long payerId,
+                        LocalDateTime from, LocalDateTime to,
+                        OutputStream out) throws IOException;
+}
@@ -1,9 +1,12 @@
 package com.example.bookingservice.business.interfaces;
 
+import com.example.bookingservice.domain.dto.BookingBatchItemDto;
 import com.example.bookingservice.domain.dto.BookingDto;
+import com.example.bookingservice.domain.dto.BookingPageDto;
 import com.example.bookingservice.domain.dto.PaymentDto;
 import com.example.bookingservice.domain.request.CreateBookingRequest;
 import com.example.bookingservice.domain.request.ProcessPaymentRequest;
+import com.example.bookingservice.event.BookingEvent;
 import com.example.bookingservice.persistence.model.BookingStatus;
 
 import java.util.List;
@@ -12,9 +15,18 @@ public interface BookingService {
 
     BookingDto createBooking(CreateBookingRequest request);
 
+    // Creates every valid booking of the batch, results are in request order with an error per failed item
+    List<BookingBatchItemDto> createBookings(List<CreateBookingRequest> requests);
+
 
     BookingDto getBookingById(String id);
 
+    // Sparse fieldset read, fields is a comma separated list of BookingDto properties (null for all)
+    BookingDto getBookingById(String id, String fields);
+
+    // Full booking in event form, for consumers of status change deltas
+    BookingEvent getBookingSnapshot(String id);
+
 
     List<BookingDto> getAllBookings();
 
@@ -30,6 +42,22 @@ public interface BookingService {
 
     List<BookingDto> getBookingsByStatus(BookingStatus status);
 
+    // Keyset-paginated lists, cursor is the nextCursor of the previous page (null for the first page)
+    // and fields an optional sparse fieldset as in getBookingById
+    BookingPageDto getAllBookings(String cursor, int size, String fields);
+
+
+    BookingPageDto getBookingsByRequesterId(Long requesterId, String cursor, int size, String fields);
+
+
+    BookingPageDto getBookingsByProviderId(Long providerId, String cursor, int size, String fields);
+
+
+    BookingPageDto getBookingsByPropertyId(Long propertyId, String cursor, int size, String fields);
+
+
+    BookingPageDto getBookingsByStatus(BookingStatus status, String cursor, int size, String fields);
+
 
     BookingDto updateBookingStatus(String id, BookingStatus status);
 
@@ -43,8 +71,15 @@ public interface BookingService {
     BookingDto confirmBooking(String confirmationToken);
 
 
+    // Submits the payment and returns it in PROCESSING, the outcome is applied asynchronously
     PaymentDto processPayment(ProcessPaymentRequest request);
 
+    // Settles a payment left PROCESSING, from its booking when that recorded the outcome, otherwise resubmits it
+    void resumePayment(String paymentId);
+
+
+    PaymentDto getPaymentById(String paymentId);
+
 
     PaymentDto getPaymentByBookingId(String bookingId);
 
@@ -0,0 +1,192 @@
+package com.example.bookingservice.business.lifecycle;
+
+import com.example.bookingservice.business.mapper.BookingMapper;
+import com.example.bookingservice.persistence.lock.MongoLeaseLock;
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.BookingStatus;
+import com.example.bookingservice.persistence.model.PaymentStatus;
+import com.example.bookingservice.persistence.model.PendingEvent;
+import com.example.bookingservice.persistence.respository.BookingRepository;
+import com.example.bookingservice.producer.BookingEventProducer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Time based booking transitions, swept on a schedule by the replica holding the lifecycle lease
+ * - PENDING / PAYMENT_PENDING past the payment deadline -> EXPIRED, unless a payment is at the gateway
+ * - CONFIRMED on move-in -> ACTIVE
+ * - ACTIVE on move-out -> COMPLETED
+ * Bookings are read in fixed-size pages and each page is moved with one unordered bulk write,
+ * every update guarded by the source status and the version read so concurrent changes (e.g. a payment)
+ * win over the sweep. Each update carries the booking's event, see BookingEntity.pendingEvents
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.lifecycle.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingLifecycleEngine {
+
+    static final String LOCK_NAME = "booking-lifecycle";
+    private static final Set<BookingStatus> UNPAID = Set.of(BookingStatus.PENDING, BookingStatus.PAYMENT_PENDING);
+    // A booking claimed by a payment is settled by the payment's outcome, see StalePaymentRecovery
+    private static final Criteria EXPIRABLE = Criteria.where("status").in(UNPAID)
+            .and("paymentStatus").ne(PaymentStatus.PROCESSING);
+
+    private final BookingRepository bookingRepository;
+    private final MongoTemplate mongoTemplate;
+    private final BookingMapper bookingMapper;
+    private final MongoLeaseLock leaseLock;
+    private final MeterRegistry meterRegistry;
+    private final int pageSize;
+    private final int maxPages;
+    private final Duration lease;
+    private final Timer sweepTimer;
+
+    // OPTIONAL dependency - RabbitMQ producer (may be null if RabbitMQ is disabled)
+    @Autowired(required = false)
+    private BookingEventProducer bookingEventProducer;
+
+    public BookingLifecycleEngine(BookingRepository bookingRepository,
+                                  MongoTemplate mongoTemplate,
+                                  BookingMapper bookingMapper,
+                                  MongoLeaseLock leaseLock,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${booking.lifecycle.page-size:500}") int pageSize,
+                                  @Value("${booking.lifecycle.max-pages:100}") int maxPages,
+                                  @Value("${booking.lifecycle.lease:5m}") Duration lease) {
+        this.bookingRepository = bookingRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.bookingMapper = bookingMapper;
+        this.leaseLock = leaseLock;
+        this.meterRegistry = meterRegistry;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        this.lease = lease;
+        this.sweepTimer = Timer.builder("booking.lifecycle.sweep")
+                .description("Duration of a lifecycle sweep on the leader replica")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.lifecycle.sweep-interval-ms:60000}",
+            initialDelayString = "${booking.lifecycle.initial-delay-ms:30000}")
+    public void sweep() {
+        if (!leaseLock.tryAcquire(LOCK_NAME, lease)) {
+            log.debug("⏭️ Lifecycle sweep skipped, another replica holds the lease");
+            return;
+        }
+        sweepTimer.record(() -> {
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                int expired = expireOverdue(now);
+                int activated = activateMovedIn(now);
+                int completed = completeMovedOut(now);
+                if (expired + activated + completed > 0) {
+                    log.info("🔁 Lifecycle sweep: {} expired, {} activated, {} completed", expired, activated, completed);
+                }
+            } catch (Exception e) {
+                log.error("❌ Lifecycle sweep failed: {}", e.getMessage(), e);
+            }
+        });
+    }
+
+    int expireOverdue(LocalDateTime now) {
+        return transition("expired", EXPIRABLE, BookingStatus.EXPIRED, "BOOKING_EXPIRED",
+                page -> bookingRepository.findByPaymentDeadlineBeforeAndStatusInAndPaymentStatusNot(
+                        now, UNPAID, PaymentStatus.PROCESSING, page));
+    }
+
+    int activateMovedIn(LocalDateTime now) {
+        return transition("activated", Criteria.where("status").is(BookingStatus.CONFIRMED), BookingStatus.ACTIVE,
+                "BOOKING_ACTIVATED",
+                page -> bookingRepository.findByStatusAndMoveInDateBefore(BookingStatus.CONFIRMED, now, page));
+    }
+
+    int completeMovedOut(LocalDateTime now) {
+        return transition("completed", Criteria.where("status").is(BookingStatus.ACTIVE), BookingStatus.COMPLETED,
+                "BOOKING_COMPLETED",
+                page -> bookingRepository.findByStatusAndMoveOutDateBefore(BookingStatus.ACTIVE, now, page));
+    }
+
+    /**
+     * Move bookings page by page, always reading the first page since moved bookings leave the result
+     *
+     * @param eligible condition the finder selects on, re-checked by every update
+     * @return number of bookings moved
+     */
+    private int transition(String name,
+                           Criteria eligible,
+                           BookingStatus to,
+                           String eventType,
+                           Function<Pageable, List<BookingEntity>> finder) {
+        Counter counter = meterRegistry.counter("booking.lifecycle.transitions", "transition", name);
+        int total = 0;
+        for (int pages = 0; pages < maxPages; pages++) {
+            List<BookingEntity> page = finder.apply(PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookingEntity.class);
+            for (BookingEntity booking : page) {
+                Update update = new Update().set("status", to).set("updatedAt", now).inc("version", 1);
+                PendingEvent event = eventFor(booking, to, now, eventType);
+                if (event != null) {
+                    update.push("pendingEvents", event);
+                }
+                bulk.updateOne(Query.query(Criteria.where("id").is(booking.getId())
+                                .and("version").is(booking.getVersion()))
+                        .addCriteria(eligible), update);
+            }
+            int moved = bulk.execute().getModifiedCount();
+            counter.increment(moved);
+            total += moved;
+
+            // Nothing moved means every booking of the page changed concurrently, the next sweep picks up the rest
+            if (moved == 0 || page.size() < pageSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Event of one booking's transition, built from the booking as the guarded update leaves it
+     */
+    private PendingEvent eventFor(BookingEntity booking, BookingStatus to, LocalDateTime now, String eventType) {
+        if (bookingEventProducer == null) {
+            return null;
+        }
+        BookingStatus previous = booking.getStatus();
+        BookingEntity moved = booking.toBuilder()
+                .status(to)
+                .updatedAt(now)
+                .version(booking.getVersion() != null ? booking.getVersion() + 1 : null)
+                .pendingEvents(null)
+                .build();
+        if (bookingEventProducer.isStatusDeltaEnabled()) {
+            return bookingEventProducer.pendingEvent(bookingMapper.toStatusChangedEvent(moved, previous, Map.of()));
+        }
+        return bookingEventProducer.pendingEvent(eventType, bookingMapper.toEvent(moved));
+    }
+}
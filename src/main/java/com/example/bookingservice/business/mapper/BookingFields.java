@@ -0,0 +1,84 @@
+package com.example.bookingservice.business.mapper;
+
+import com.example.bookingservice.exception.InvalidBookingException;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Sparse fieldsets for booking reads (?fields=id,status,moveInDate)
+ * Names are BookingDto properties, which share their name with the BookingEntity field
+ */
+public final class BookingFields {
+
+    public static final String FILTER_ID = "bookingFields";
+
+    public static final Set<String> SELECTABLE = Set.of(
+            "id",
+            "appointmentId", "appointmentTitle", "appointmentDateTime",
+            "propertyId", "propertyTitle", "propertyAddress", "propertyDescription",
+            "propertyImage", "propertyImage2", "propertyImage3", "propertyImage4",
+            "propertyIsRented", "rentAmount",
+            "requesterId", "requesterUsername", "requesterFirstName", "requesterLastName",
+            "requesterName", "requesterEmail", "requesterPhone",
+            "providerId", "providerName", "providerEmail", "providerPhone",
+            "bookingDate", "moveInDate", "moveOutDate", "bookingDurationMonths",
+            "totalAmount", "depositAmount", "monthlyRent", "paidAmount",
+            "status", "notes",
+            "paymentDeadline", "paymentStatus", "paymentMethod", "paymentType",
+            "contractSigned", "contractUrl",
+            "createdAt", "updatedAt"
+    );
+
+    private BookingFields() {
+    }
+
+    /**
+     * Mix-in attaching the fieldset filter to BookingDto, registered on the application ObjectMapper only
+     * so mappers without a filter provider still serialize BookingDto, see JacksonConfig
+     */
+    @JsonFilter(FILTER_ID)
+    public interface MixIn {
+    }
+
+    /**
+     * Parse a comma separated field list
+     *
+     * @return the requested fields, or null when all fields are wanted
+     * @throws InvalidBookingException for unknown field names
+     */
+    public static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+
+        Set<String> parsed = new LinkedHashSet<>();
+        Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .forEach(field -> {
+                    if (!SELECTABLE.contains(field)) {
+                        throw new InvalidBookingException("Unknown booking field: " + field);
+                    }
+                    parsed.add(field);
+                });
+
+        return parsed.isEmpty() ? null : parsed;
+    }
+
+    /**
+     * Jackson filter for BookingDto writing only the requested properties, needs the MixIn on the mapper
+     *
+     * @param fields parsed field list, null writes every property including nulls
+     */
+    public static FilterProvider filter(Set<String> fields) {
+        return new SimpleFilterProvider().addFilter(FILTER_ID, fields == null
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+}
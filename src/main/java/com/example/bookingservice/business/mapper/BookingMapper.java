@@ -41,11 +41,15 @@ package com.example.bookingservice.business.mapper;
 import com.example.bookingservice.domain.dto.BookingDto;
 import com.example.bookingservice.domain.dto.PaymentDto;
 import com.example.bookingservice.event.BookingEvent;
+import com.example.bookingservice.event.BookingStatusChangedEvent;
 import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.BookingStatus;
 import com.example.bookingservice.persistence.model.PaymentEntity;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 
@@ -128,6 +132,72 @@ public class BookingMapper {
                 .build();
     }
 
+    /**
+     * Partial mapping for sparse fieldsets, only the requested fields are copied
+     * A null field set falls back to the full mapping
+     */
+    public BookingDto toDto(BookingEntity entity, Set<String> fields) {
+        if (fields == null) {
+            return toDto(entity);
+        }
+        if (entity == null) {
+            return null;
+        }
+
+        BookingDto dto = new BookingDto();
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> dto.setId(entity.getId());
+                case "appointmentId" -> dto.setAppointmentId(entity.getAppointmentId());
+                case "appointmentTitle" -> dto.setAppointmentTitle(entity.getAppointmentTitle());
+                case "appointmentDateTime" -> dto.setAppointmentDateTime(entity.getAppointmentDateTime());
+                case "propertyId" -> dto.setPropertyId(entity.getPropertyId());
+                case "propertyTitle" -> dto.setPropertyTitle(entity.getPropertyTitle());
+                case "propertyAddress" -> dto.setPropertyAddress(entity.getPropertyAddress());
+                case "propertyDescription" -> dto.setPropertyDescription(entity.getPropertyDescription());
+                case "propertyImage" -> dto.setPropertyImage(entity.getPropertyImage());
+                case "propertyImage2" -> dto.setPropertyImage2(entity.getPropertyImage2());
+                case "propertyImage3" -> dto.setPropertyImage3(entity.getPropertyImage3());
+                case "propertyImage4" -> dto.setPropertyImage4(entity.getPropertyImage4());
+                case "propertyIsRented" -> dto.setPropertyIsRented(entity.isPropertyIsRented());
+                case "rentAmount" -> dto.setRentAmount(entity.getRentAmount());
+                case "requesterId" -> dto.setRequesterId(entity.getRequesterId());
+                case "requesterUsername" -> dto.setRequesterUsername(entity.getRequesterUsername());
+                case "requesterFirstName" -> dto.setRequesterFirstName(entity.getRequesterFirstName());
+                case "requesterLastName" -> dto.setRequesterLastName(entity.getRequesterLastName());
+                case "requesterName" -> dto.setRequesterName(entity.getRequesterName());
+                case "requesterEmail" -> dto.setRequesterEmail(entity.getRequesterEmail());
+                case "requesterPhone" -> dto.setRequesterPhone(entity.getRequesterPhone());
+                case "providerId" -> dto.setProviderId(entity.getProviderId());
+                case "providerName" -> dto.setProviderName(entity.getProviderName());
+                case "providerEmail" -> dto.setProviderEmail(entity.getProviderEmail());
+                case "providerPhone" -> dto.setProviderPhone(entity.getProviderPhone());
+                case "bookingDate" -> dto.setBookingDate(entity.getBookingDate());
+                case "moveInDate" -> dto.setMoveInDate(entity.getMoveInDate());
+                case "moveOutDate" -> dto.setMoveOutDate(entity.getMoveOutDate());
+                case "bookingDurationMonths" -> dto.setBookingDurationMonths(entity.getBookingDurationMonths());
+                case "totalAmount" -> dto.setTotalAmount(entity.getTotalAmount());
+                case "depositAmount" -> dto.setDepositAmount(entity.getDepositAmount());
+                case "monthlyRent" -> dto.setMonthlyRent(entity.getMonthlyRent());
+                case "paidAmount" -> dto.setPaidAmount(entity.getPaidAmount());
+                case "status" -> dto.setStatus(entity.getStatus());
+                case "notes" -> dto.setNotes(entity.getNotes());
+                case "paymentDeadline" -> dto.setPaymentDeadline(entity.getPaymentDeadline());
+                case "paymentStatus" -> dto.setPaymentStatus(entity.getPaymentStatus());
+                case "paymentMethod" -> dto.setPaymentMethod(entity.getPaymentMethod());
+                case "paymentType" -> dto.setPaymentType(entity.getPaymentType());
+                case "contractSigned" -> dto.setContractSigned(entity.getContractSigned());
+                case "contractUrl" -> dto.setContractUrl(entity.getContractUrl());
+                case "createdAt" -> dto.setCreatedAt(entity.getCreatedAt());
+                case "updatedAt" -> dto.setUpdatedAt(entity.getUpdatedAt());
+                default -> {
+                    // Unknown names are rejected by BookingFields.parse before reaching the mapper
+                }
+            }
+        }
+        return dto;
+    }
+
     public BookingEntity toEntity(BookingDto dto) {
         if (dto == null) {
             return null;
@@ -191,6 +261,15 @@ public class BookingMapper {
                 .collect(Collectors.toList());
     }
 
+    public List<BookingDto> toDtoList(List<BookingEntity> bookings, Set<String> fields) {
+        if (bookings == null) {
+            return null;
+        }
+        return bookings.stream()
+                .map(booking -> toDto(booking, fields))
+                .collect(Collectors.toList());
+    }
+
     public void updateBookingFromDto(BookingDto dto, BookingEntity entity) {
         if (dto == null || entity == null) {
             return;
@@ -284,6 +363,7 @@ public class BookingMapper {
                 .bookingDurationMonths(entity.getBookingDurationMonths())
                 .status(entity.getStatus() != null ? entity.getStatus().toString() : null)
                 .notes(entity.getNotes())
+                .version(entity.getVersion())
 
                 // Financial details
                 .totalAmount(entity.getTotalAmount())
@@ -323,5 +403,24 @@ public class BookingMapper {
                 .contractUrl(entity.getContractUrl())
 
                 .build();
-}
+    }
+
+    /**
+     * Delta event for a status transition, entity is the booking after the change
+     */
+    public BookingStatusChangedEvent toStatusChangedEvent(BookingEntity entity,
+                                                          BookingStatus oldStatus,
+                                                          Map<String, Object> changedFields) {
+        if (entity == null) {
+            return null;
+        }
+
+        return BookingStatusChangedEvent.builder()
+                .bookingId(entity.getId())
+                .oldStatus(oldStatus != null ? oldStatus.toString() : null)
+                .newStatus(entity.getStatus() != null ? entity.getStatus().toString() : null)
+                .changedFields(changedFields)
+                .version(entity.getVersion())
+                .build();
+    }
 }
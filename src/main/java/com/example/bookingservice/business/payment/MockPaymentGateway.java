@@ -0,0 +1,75 @@
+package com.example.bookingservice.business.payment;
+
+import com.example.bookingservice.persistence.model.PaymentEntity;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local gateway for development and offline load tests
+ * Completes each payment after a configurable latency on a small scheduler, no thread is held while waiting
+ */
+@Slf4j
+@Component
+public class MockPaymentGateway implements PaymentGateway {
+
+    private final Duration latency;
+    private final double failureRate;
+    private final ScheduledExecutorService scheduler;
+    // Runs the completion callbacks, which write to Mongo, off the scheduler threads when virtual threads are on
+    private final Executor completionExecutor;
+
+    public MockPaymentGateway(
+            @Value("${booking.payment.mock-gateway.latency:1s}") Duration latency,
+            @Value("${booking.payment.mock-gateway.failure-rate:0.0}") double failureRate,
+            @Value("${booking.payment.mock-gateway.threads:2}") int threads,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mock-payment-gateway-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.completionExecutor = virtualThreads ? new VirtualThreadTaskExecutor("mock-payment-") : Runnable::run;
+        log.info("💳 Mock payment gateway: latency={}, failureRate={}", latency, failureRate);
+    }
+
+    @Override
+    public String name() {
+        return "MOCK_GATEWAY";
+    }
+
+    @Override
+    public CompletableFuture<PaymentGatewayResult> submit(PaymentEntity payment) {
+        CompletableFuture<PaymentGatewayResult> result = new CompletableFuture<>();
+        scheduler.schedule(() -> completionExecutor.execute(() -> result.complete(authorize(payment))),
+                latency.toMillis(), TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    private PaymentGatewayResult authorize(PaymentEntity payment) {
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            return PaymentGatewayResult.failure("Payment declined by mock gateway");
+        }
+        return PaymentGatewayResult.success("https://receipts.example.com/" + payment.getTransactionId());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bookingservice.business.payment;
+
+import com.example.bookingservice.persistence.model.PaymentEntity;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Payment provider abstraction
+ * submit must not block the caller, the outcome is delivered through the returned future
+ */
+public interface PaymentGateway {
+
+    /**
+     * Name stored on PaymentEntity.paymentGateway
+     */
+    String name();
+
+    /**
+     * Submit a PROCESSING payment to the provider
+     * A payment whose outcome was lost is submitted again by the StalePaymentRecovery,
+     * providers must treat its transactionId as the idempotency key
+     *
+     * @return future completed with the provider outcome, or exceptionally when the provider cannot be reached
+     */
+    CompletableFuture<PaymentGatewayResult> submit(PaymentEntity payment);
+}
@@ -0,0 +1,34 @@
+package com.example.bookingservice.business.payment;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome reported by a PaymentGateway
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentGatewayResult {
+
+    private boolean success;
+    private String receiptUrl;
+    private String failureReason;
+
+    public static PaymentGatewayResult success(String receiptUrl) {
+        return PaymentGatewayResult.builder()
+                .success(true)
+                .receiptUrl(receiptUrl)
+                .build();
+    }
+
+    public static PaymentGatewayResult failure(String failureReason) {
+        return PaymentGatewayResult.builder()
+                .success(false)
+                .failureReason(failureReason)
+                .build();
+    }
+}
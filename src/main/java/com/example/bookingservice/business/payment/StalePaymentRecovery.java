@@ -0,0 +1,97 @@
+package com.example.bookingservice.business.payment;
+
+import com.example.bookingservice.business.interfaces.BookingService;
+import com.example.bookingservice.persistence.model.PaymentEntity;
+import com.example.bookingservice.persistence.model.PaymentStatus;
+import com.example.bookingservice.persistence.respository.PaymentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Recovers payments left PROCESSING, e.g. after a pod crashed while the gateway call was in flight
+ * Without it the booking keeps refusing new payments with "Payment already in progress".
+ * Each stale payment is claimed by moving its updatedAt forward, so one replica recovers it
+ * and the next attempt only comes after another stale-after period.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.payment.recovery.enabled", havingValue = "true", matchIfMissing = true)
+public class StalePaymentRecovery {
+
+    private final PaymentRepository paymentRepository;
+    private final BookingService bookingService;
+    private final MeterRegistry meterRegistry;
+    private final Duration staleAfter;
+    private final int pageSize;
+
+    public StalePaymentRecovery(PaymentRepository paymentRepository,
+                                BookingService bookingService,
+                                MeterRegistry meterRegistry,
+                                @Value("${booking.payment.recovery.stale-after:5m}") Duration staleAfter,
+                                @Value("${booking.payment.recovery.page-size:100}") int pageSize) {
+        this.paymentRepository = paymentRepository;
+        this.bookingService = bookingService;
+        this.meterRegistry = meterRegistry;
+        this.staleAfter = staleAfter;
+        this.pageSize = pageSize;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.payment.recovery.interval-ms:60000}",
+            initialDelayString = "${booking.payment.recovery.initial-delay-ms:60000}")
+    public void sweep() {
+        try {
+            int recovered = recoverStale(LocalDateTime.now().minus(staleAfter));
+            if (recovered > 0) {
+                log.info("🩺 Payment recovery resumed {} stale payments", recovered);
+            }
+        } catch (Exception e) {
+            log.error("❌ Payment recovery sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Every payment read is claimed or was claimed by another replica, either way it leaves the stale set
+     */
+    int recoverStale(LocalDateTime cutoff) {
+        PageRequest page = PageRequest.of(0, pageSize, Sort.by(Sort.Direction.ASC, "updatedAt"));
+        int recovered = 0;
+        List<PaymentEntity> stale;
+        do {
+            stale = paymentRepository.findByStatusAndUpdatedAtBefore(PaymentStatus.PROCESSING, cutoff, page);
+            for (PaymentEntity payment : stale) {
+                if (claimAndResume(payment.getId(), cutoff)) {
+                    recovered++;
+                }
+            }
+        } while (stale.size() == pageSize);
+        return recovered;
+    }
+
+    private boolean claimAndResume(String paymentId, LocalDateTime cutoff) {
+        Criteria stale = Criteria.where("status").is(PaymentStatus.PROCESSING).and("updatedAt").lt(cutoff);
+        if (paymentRepository.updateIfMatches(paymentId, stale, new Update()).isEmpty()) {
+            return false;
+        }
+        try {
+            bookingService.resumePayment(paymentId);
+            meterRegistry.counter("booking.payment.recovered", "outcome", "resumed").increment();
+            return true;
+        } catch (Exception e) {
+            log.error("❌ Failed to recover payment {}: {}", paymentId, e.getMessage(), e);
+            meterRegistry.counter("booking.payment.recovered", "outcome", "failed").increment();
+            return false;
+        }
+    }
+}
@@ -3,13 +3,16 @@ package com.example.bookingservice.business.saga;
 import com.example.bookingservice.business.interfaces.BookingService;
 import com.example.bookingservice.domain.dto.BookingDto;
 import com.example.bookingservice.domain.request.CreateBookingRequest;
+import com.example.bookingservice.persistence.model.SagaPayload;
 import com.example.bookingservice.persistence.model.SagaState;
 import com.example.bookingservice.persistence.model.SagaStatus;
+import com.example.bookingservice.persistence.model.SagaStep;
 import com.example.bookingservice.persistence.respository.SagaStateRepository;
 import com.example.bookingservice.producer.BookingEventProducer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,16 +31,12 @@ public class BookingSagaOrchestrator {
     private final SagaStateRepository sagaStateRepository;
     private final BookingEventProducer bookingEventProducer;
     private final SagaCompensationService compensationService;
+    private final SagaRetryBackoff retryBackoff;
 
     // ✅ FIXED: Use @Lazy to break circular dependency
     private final BookingService bookingService;
 
     private static final String SAGA_TYPE = "BOOKING_SAGA";
-    private static final String STEP_APPOINTMENT_CONFIRMED = "APPOINTMENT_CONFIRMED";
-    private static final String STEP_BOOKING_CREATED = "BOOKING_CREATED";
-    private static final String STEP_PAYMENT_COMPLETED = "PAYMENT_COMPLETED";
-    private static final String STEP_PROPERTY_UPDATED = "PROPERTY_UPDATED";
-    private static final String STEP_COMPLETED = "COMPLETED";
 
     // ✅ Constructor injection with @Lazy on BookingService
     @Autowired
@@ -45,10 +44,12 @@ public class BookingSagaOrchestrator {
             SagaStateRepository sagaStateRepository,
             BookingEventProducer bookingEventProducer,
             SagaCompensationService compensationService,
+            SagaRetryBackoff retryBackoff,
             @Lazy BookingService bookingService) {
         this.sagaStateRepository = sagaStateRepository;
         this.bookingEventProducer = bookingEventProducer;
         this.compensationService = compensationService;
+        this.retryBackoff = retryBackoff;
         this.bookingService = bookingService;
     }
 
@@ -73,7 +74,7 @@ public class BookingSagaOrchestrator {
                     .id(UUID.randomUUID().toString())
                     .sagaType(SAGA_TYPE)
                     .appointmentId(appointmentId)
-                    .currentStep(STEP_BOOKING_CREATED) // Booking already created at this point
+                    .currentStep(SagaStep.BOOKING_CREATED) // Booking already created at this point
                     .status(SagaStatus.PROCESSING)
                     .startedAt(LocalDateTime.now())
                     .lastUpdatedAt(LocalDateTime.now())
@@ -83,12 +84,11 @@ public class BookingSagaOrchestrator {
                     .build();
 
             // Store booking request data
-            saga.putSagaData("bookingRequest", bookingRequest);
-            saga.putSagaData("appointmentId", appointmentId);
-            saga.addCompletedStep(STEP_APPOINTMENT_CONFIRMED);
-            saga.addCompletedStep(STEP_BOOKING_CREATED);
+            saga.setPayload(toPayload(bookingRequest));
+            saga.addCompletedStep(SagaStep.APPOINTMENT_CONFIRMED);
+            saga.addCompletedStep(SagaStep.BOOKING_CREATED);
 
-            saga = sagaStateRepository.save(saga);
+            saga = sagaStateRepository.insert(saga);
             log.info("✅ SAGA created with ID: {}", saga.getId());
 
             return saga;
@@ -110,8 +110,12 @@ public class BookingSagaOrchestrator {
         try {
             // Update saga status
             saga.setStatus(SagaStatus.PROCESSING);
-            saga.setCurrentStep(STEP_BOOKING_CREATED);
-            sagaStateRepository.save(saga);
+            saga.setCurrentStep(SagaStep.BOOKING_CREATED);
+            saga.setNextRetryAt(null);
+            sagaStateRepository.updateFields(saga.getId(), new Update()
+                    .set("status", SagaStatus.PROCESSING)
+                    .set("currentStep", SagaStep.BOOKING_CREATED)
+                    .unset("nextRetryAt"));
 
             // Check if booking already exists
             String appointmentId = saga.getAppointmentId();
@@ -132,16 +136,19 @@ public class BookingSagaOrchestrator {
             saga.setPropertyId(booking.getPropertyId());
             saga.setRequesterId(booking.getRequesterId());
             saga.setProviderId(booking.getProviderId());
-            saga.addCompletedStep(STEP_BOOKING_CREATED);
-            saga.putSagaData("bookingId", booking.getId());
+            saga.addCompletedStep(SagaStep.BOOKING_CREATED);
 
-            sagaStateRepository.save(saga);
+            sagaStateRepository.updateFields(saga.getId(), completedStep(SagaStep.BOOKING_CREATED)
+                    .set("bookingId", booking.getId())
+                    .set("propertyId", booking.getPropertyId())
+                    .set("requesterId", booking.getRequesterId())
+                    .set("providerId", booking.getProviderId()));
 
             log.info("✅ SAGA STEP COMPLETED: Booking ready with ID: {}", booking.getId());
 
         } catch (Exception e) {
             log.error("❌ SAGA STEP FAILED: {}", e.getMessage(), e);
-            handleSagaFailure(saga, STEP_BOOKING_CREATED, e);
+            handleSagaFailure(saga, SagaStep.BOOKING_CREATED, e);
         }
     }
 
@@ -156,12 +163,16 @@ public class BookingSagaOrchestrator {
             SagaState saga = sagaStateRepository.findByBookingId(bookingId)
                     .orElseThrow(() -> new RuntimeException("Saga not found for booking: " + bookingId));
 
-            saga.setCurrentStep(STEP_PAYMENT_COMPLETED);
-            saga.addCompletedStep(STEP_PAYMENT_COMPLETED);
-            saga.putSagaData("transactionId", transactionId);
-            saga.putSagaData("paymentCompletedAt", LocalDateTime.now());
+            LocalDateTime paidAt = LocalDateTime.now();
+            saga.setCurrentStep(SagaStep.PAYMENT_COMPLETED);
+            saga.addCompletedStep(SagaStep.PAYMENT_COMPLETED);
+            saga.payload().setTransactionId(transactionId);
+            saga.payload().setPaymentCompletedAt(paidAt);
 
-            sagaStateRepository.save(saga);
+            sagaStateRepository.updateFields(saga.getId(), completedStep(SagaStep.PAYMENT_COMPLETED)
+                    .set("currentStep", SagaStep.PAYMENT_COMPLETED)
+                    .set("payload.transactionId", transactionId)
+                    .set("payload.paymentCompletedAt", paidAt));
 
             log.info("✅ SAGA: Payment completed for booking: {}", bookingId);
 
@@ -181,11 +192,14 @@ public class BookingSagaOrchestrator {
         log.info("🎉 Completing SAGA: {}", saga.getId());
 
         saga.setStatus(SagaStatus.COMPLETED);
-        saga.setCurrentStep(STEP_COMPLETED);
+        saga.setCurrentStep(SagaStep.COMPLETED);
         saga.setCompletedAt(LocalDateTime.now());
         saga.setLastUpdatedAt(LocalDateTime.now());
 
-        sagaStateRepository.save(saga);
+        sagaStateRepository.updateFields(saga.getId(), new Update()
+                .set("status", SagaStatus.COMPLETED)
+                .set("currentStep", SagaStep.COMPLETED)
+                .set("completedAt", saga.getCompletedAt()));
 
         log.info("✅ SAGA COMPLETED successfully: {}", saga.getId());
     }
@@ -194,12 +208,14 @@ public class BookingSagaOrchestrator {
      * Handle saga failure and trigger compensation
      */
     @Transactional
-    public void handleSagaFailure(SagaState saga, String failedStep, Exception exception) {
+    public void handleSagaFailure(SagaState saga, SagaStep failedStep, Exception exception) {
         log.error("❌ SAGA FAILED at step: {} - {}", failedStep, exception.getMessage());
 
         saga.setStatus(SagaStatus.FAILED);
         saga.setCurrentStep(failedStep);
-        saga.addFailedStep(failedStep);
+        if (failedStep != null) {
+            saga.addFailedStep(failedStep);
+        }
         saga.setErrorMessage(exception.getMessage());
         saga.setCompensationRequired(true);
         saga.setLastUpdatedAt(LocalDateTime.now());
@@ -208,10 +224,23 @@ public class BookingSagaOrchestrator {
         if (saga.canRetry()) {
             saga.incrementRetryCount();
             saga.setStatus(SagaStatus.RETRYING);
-            log.warn("🔄 SAGA will be retried. Attempt: {}/{}", saga.getRetryCount(), saga.getMaxRetries());
+            saga.setNextRetryAt(retryBackoff.nextRetryAt(saga.getRetryCount()));
+            log.warn("🔄 SAGA will be retried at {}. Attempt: {}/{}",
+                    saga.getNextRetryAt(), saga.getRetryCount(), saga.getMaxRetries());
+        } else {
+            saga.setNextRetryAt(null);
         }
 
-        sagaStateRepository.save(saga);
+        Update update = new Update()
+                .set("status", saga.getStatus())
+                .set("errorMessage", saga.getErrorMessage())
+                .set("compensationRequired", true)
+                .set("retryCount", saga.getRetryCount())
+                .set("nextRetryAt", saga.getNextRetryAt());
+        if (failedStep != null) {
+            update.set("currentStep", failedStep).bitwise("failedStepMask").or(failedStep.bit());
+        }
+        sagaStateRepository.updateFields(saga.getId(), update);
 
         // Trigger compensation
         if (saga.getStatus() == SagaStatus.FAILED) {
@@ -232,14 +261,17 @@ public class BookingSagaOrchestrator {
 
         if (!saga.canRetry()) {
             log.error("❌ SAGA cannot be retried. Max retries reached: {}", saga.getMaxRetries());
+            // Fail for good so it is compensated instead of staying RETRYING
+            handleSagaFailure(saga, saga.getCurrentStep(), new IllegalStateException("Max retries reached"));
             return;
         }
 
-        String failedStep = saga.getCurrentStep();
-        CreateBookingRequest bookingRequest = (CreateBookingRequest) saga.getSagaData().get("bookingRequest");
+        SagaStep failedStep = saga.getCurrentStep();
 
-        if (STEP_BOOKING_CREATED.equals(failedStep)) {
-            executeCreateBookingStep(saga, bookingRequest);
+        if (failedStep == SagaStep.BOOKING_CREATED && saga.getPayload() != null && saga.getPayload().hasBookingRequest()) {
+            executeCreateBookingStep(saga, toBookingRequest(saga));
+        } else {
+            handleSagaFailure(saga, failedStep, new IllegalStateException("No retry handler for step " + failedStep));
         }
     }
 
@@ -274,7 +306,10 @@ public class BookingSagaOrchestrator {
         saga.setLastUpdatedAt(LocalDateTime.now());
         saga.setCompensationRequired(true);
 
-        sagaStateRepository.save(saga);
+        sagaStateRepository.updateFields(saga.getId(), new Update()
+                .set("status", SagaStatus.CANCELLED)
+                .set("errorMessage", saga.getErrorMessage())
+                .set("compensationRequired", true));
 
         // Trigger compensation
         log.info("🔄 Triggering SAGA COMPENSATION for cancelled saga: {}", saga.getId());
@@ -283,6 +318,24 @@ public class BookingSagaOrchestrator {
         log.info("✅ SAGA cancelled successfully: {}", sagaId);
     }
 
+    /**
+     * Close a saga whose booking already ended (cancelled or expired), nothing is left to compensate
+     */
+    @Transactional
+    public void closeSaga(SagaState saga, String reason) {
+        log.info("🚪 Closing SAGA: {} - Reason: {}", saga.getId(), reason);
+
+        saga.setStatus(SagaStatus.CANCELLED);
+        saga.setErrorMessage(reason);
+        saga.setCompensationRequired(false);
+        saga.setLastUpdatedAt(LocalDateTime.now());
+
+        sagaStateRepository.updateFields(saga.getId(), new Update()
+                .set("status", SagaStatus.CANCELLED)
+                .set("errorMessage", reason)
+                .set("compensationRequired", false));
+    }
+
     /**
      * Get all sagas by status
      */
@@ -294,10 +347,36 @@ public class BookingSagaOrchestrator {
      * Get all failed sagas that can be retried
      */
     public java.util.List<SagaState> getRetryableSagas() {
-        java.util.List<SagaState> allSagas = sagaStateRepository.findAll();
-        return allSagas.stream()
-                .filter(saga -> saga.getStatus() == SagaStatus.FAILED || saga.getStatus() == SagaStatus.RETRYING)
+        // Indexed on status, reads only failed and retrying sagas instead of the whole history
+        return sagaStateRepository.findByStatusIn(List.of(SagaStatus.FAILED, SagaStatus.RETRYING)).stream()
                 .filter(SagaState::canRetry)
                 .toList();
     }
-}
\ No newline at end of file
+
+    /**
+     * Sets the step's bit in completedStepMask, other completed steps are left untouched
+     */
+    private static Update completedStep(SagaStep step) {
+        return new Update().bitwise("completedStepMask").or(step.bit());
+    }
+
+    static SagaPayload toPayload(CreateBookingRequest request) {
+        return SagaPayload.builder()
+                .moveInDate(request.getMoveInDate())
+                .moveOutDate(request.getMoveOutDate())
+                .bookingDurationMonths(request.getBookingDurationMonths())
+                .notes(request.getNotes())
+                .build();
+    }
+
+    static CreateBookingRequest toBookingRequest(SagaState saga) {
+        SagaPayload payload = saga.getPayload();
+        return CreateBookingRequest.builder()
+                .appointmentId(saga.getAppointmentId())
+                .moveInDate(payload.getMoveInDate())
+                .moveOutDate(payload.getMoveOutDate())
+                .bookingDurationMonths(payload.getBookingDurationMonths())
+                .notes(payload.getNotes())
+                .build();
+    }
+}
@@ -2,13 +2,18 @@ package com.example.bookingservice.business.saga;
 
 import com.example.bookingservice.business.interfaces.BookingService;
 import com.example.bookingservice.event.BookingEvent;
+import com.example.bookingservice.exception.InvalidBookingException;
+import com.example.bookingservice.persistence.model.BookingStatus;
 import com.example.bookingservice.persistence.model.SagaState;
 import com.example.bookingservice.persistence.model.SagaStatus;
+import com.example.bookingservice.persistence.model.SagaStep;
 import com.example.bookingservice.persistence.respository.SagaStateRepository;
 import com.example.bookingservice.producer.BookingEventProducer;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,10 +37,12 @@ public class SagaCompensationService {
         try {
             saga.setStatus(SagaStatus.COMPENSATING);
             saga.setCompensationStartedAt(LocalDateTime.now());
-            sagaStateRepository.save(saga);
+            sagaStateRepository.updateFields(saga.getId(), new Update()
+                    .set("status", SagaStatus.COMPENSATING)
+                    .set("compensationStartedAt", saga.getCompensationStartedAt()));
 
             // Compensate completed steps in reverse order
-            if (saga.isStepCompleted("BOOKING_CREATED")) {
+            if (saga.isStepCompleted(SagaStep.BOOKING_CREATED)) {
                 compensateBookingCreation(saga);
             }
 
@@ -43,7 +50,9 @@ public class SagaCompensationService {
             saga.setStatus(SagaStatus.COMPENSATED);
             saga.setCompensationCompletedAt(LocalDateTime.now());
             saga.setLastUpdatedAt(LocalDateTime.now());
-            sagaStateRepository.save(saga);
+            sagaStateRepository.updateFields(saga.getId(), new Update()
+                    .set("status", SagaStatus.COMPENSATED)
+                    .set("compensationCompletedAt", saga.getCompensationCompletedAt()));
 
             log.info(" COMPENSATION COMPLETED for SAGA: {}", saga.getId());
 
@@ -53,12 +62,15 @@ public class SagaCompensationService {
             saga.setStatus(SagaStatus.COMPENSATION_FAILED);
             saga.setErrorMessage("Compensation failed: " + e.getMessage());
             saga.setLastUpdatedAt(LocalDateTime.now());
-            sagaStateRepository.save(saga);
+            sagaStateRepository.updateFields(saga.getId(), new Update()
+                    .set("status", SagaStatus.COMPENSATION_FAILED)
+                    .set("errorMessage", saga.getErrorMessage()));
         }
     }
 
     /**
      * Compensate booking creation (cancel the booking)
+     * A retried compensation finds the booking already cancelled and only publishes the event again
      */
     private void compensateBookingCreation(SagaState saga) {
         log.info(" COMPENSATING: Cancelling booking for SAGA: {}", saga.getId());
@@ -66,13 +78,19 @@ public class SagaCompensationService {
         try {
             String bookingId = saga.getBookingId();
             if (bookingId != null) {
-                // Cancel the booking
-                bookingService.cancelBooking(
-                        bookingId,
-                        "Booking cancelled due to saga failure: " + saga.getErrorMessage()
-                );
-
-                log.info(" COMPENSATION: Booking cancelled: {}", bookingId);
+                try {
+                    // Cancel the booking, its BOOKING_CANCELLED event is stored with the cancel
+                    bookingService.cancelBooking(
+                            bookingId,
+                            "Booking cancelled due to saga failure: " + saga.getErrorMessage()
+                    );
+                    log.info(" COMPENSATION: Booking cancelled: {}", bookingId);
+                } catch (InvalidBookingException e) {
+                    if (bookingService.getBookingById(bookingId).getStatus() != BookingStatus.CANCELLED) {
+                        throw e;
+                    }
+                    log.info(" COMPENSATION: Booking {} already cancelled", bookingId);
+                }
 
                 // Publish compensation event
                 publishCompensationEvent(saga, "BOOKING_CANCELLED_COMPENSATION");
@@ -92,7 +110,7 @@ public class SagaCompensationService {
 
         try {
             String bookingId = saga.getBookingId();
-            String transactionId = (String) saga.getSagaData().get("transactionId");
+            String transactionId = saga.getPayload() != null ? saga.getPayload().getTransactionId() : null;
 
             if (bookingId != null && transactionId != null) {
                 // Refund payment logic would go here
@@ -109,26 +127,30 @@ public class SagaCompensationService {
 
     /**
      * Publish compensation event
+     * The eventId is derived from the saga, a retried compensation fails on the unique outbox eventId
+     * instead of queueing the event twice. Failures fail the compensation, which is retried
      */
     private void publishCompensationEvent(SagaState saga, String eventType) {
-        try {
-            BookingEvent event = BookingEvent.builder()
-                    .eventType(eventType)
-                    .eventTimestamp(LocalDateTime.now())
-                    .bookingId(saga.getBookingId())
-                    .appointmentId(saga.getAppointmentId())
-                    .propertyId(saga.getPropertyId())
-                    .requesterId(saga.getRequesterId())
-                    .providerId(saga.getProviderId())
-                    .cancellationReason(saga.getErrorMessage())
-                    .build();
+        BookingEvent event = BookingEvent.builder()
+                .eventId(saga.getId() + ":" + eventType)
+                .eventType(eventType)
+                .eventTimestamp(LocalDateTime.now())
+                .bookingId(saga.getBookingId())
+                .appointmentId(saga.getAppointmentId())
+                .propertyId(saga.getPropertyId())
+                .requesterId(saga.getRequesterId())
+                .providerId(saga.getProviderId())
+                .cancellationReason(saga.getErrorMessage())
+                .build();
 
+        try {
             bookingEventProducer.publishBookingEvent(event);
-
             log.info(" Compensation event published: {}", eventType);
-
-        } catch (Exception e) {
-            log.error(" Failed to publish compensation event: {}", e.getMessage(), e);
+        } catch (RuntimeException e) {
+            if (!(e.getCause() instanceof DuplicateKeyException)) {
+                throw e;
+            }
+            log.info(" Compensation event {} already queued", eventType);
         }
     }
 
@@ -0,0 +1,40 @@
+package com.example.bookingservice.business.saga;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with jitter for saga retries
+ * Attempt n waits between half and all of min(initial * 2^(n-1), max), so retries of sagas
+ * that failed together (e.g. during an outage) spread out instead of firing at once.
+ */
+@Component
+public class SagaRetryBackoff {
+
+    private final long initialMillis;
+    private final long maxMillis;
+
+    public SagaRetryBackoff(@Value("${booking.saga.retry.initial-backoff:30s}") Duration initialBackoff,
+                            @Value("${booking.saga.retry.max-backoff:5m}") Duration maxBackoff) {
+        this.initialMillis = initialBackoff.toMillis();
+        this.maxMillis = maxBackoff.toMillis();
+    }
+
+    /**
+     * @param attempt retry attempt, starting at 1
+     */
+    public Duration backoff(int attempt) {
+        int exponent = Math.min(Math.max(attempt, 1) - 1, 20);
+        long ceiling = Math.min(maxMillis, initialMillis << exponent);
+        long half = ceiling / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(ceiling - half + 1));
+    }
+
+    public LocalDateTime nextRetryAt(int attempt) {
+        return LocalDateTime.now().plus(backoff(attempt));
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.bookingservice.business.saga;
+
+import com.example.bookingservice.persistence.model.SagaState;
+import com.example.bookingservice.persistence.model.SagaStatus;
+import com.example.bookingservice.persistence.respository.SagaStateRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs due saga retries
+ * Each poll claims RETRYING sagas whose nextRetryAt has passed, one findAndModify per saga and only as many
+ * as the retry executor can take. The claim pushes nextRetryAt out by the lease, so a saga whose retry
+ * dies with its pod becomes due again instead of being lost. Cost scales with due sagas, not saga history.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.saga.retry.enabled", havingValue = "true", matchIfMissing = true)
+public class SagaRetryScheduler {
+
+    private final BookingSagaOrchestrator sagaOrchestrator;
+    private final SagaStateRepository sagaStateRepository;
+    private final MongoTemplate mongoTemplate;
+    private final Duration claimLease;
+    private final int batchSize;
+    private final ThreadPoolExecutor retryExecutor;
+    private final Counter dispatchedCounter;
+    private final Counter failedCounter;
+
+    public SagaRetryScheduler(BookingSagaOrchestrator sagaOrchestrator,
+                              SagaStateRepository sagaStateRepository,
+                              MongoTemplate mongoTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${booking.saga.retry.claim-lease:2m}") Duration claimLease,
+                              @Value("${booking.saga.retry.batch-size:10}") int batchSize,
+                              @Value("${booking.saga.retry.workers:2}") int workers) {
+        this.sagaOrchestrator = sagaOrchestrator;
+        this.sagaStateRepository = sagaStateRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.claimLease = claimLease;
+        this.batchSize = batchSize;
+        this.retryExecutor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchSize), new CustomizableThreadFactory("saga-retry-"));
+
+        this.dispatchedCounter = Counter.builder("booking.saga.retries.dispatched")
+                .description("Saga retries claimed and handed to the retry executor")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("booking.saga.retries.failed")
+                .description("Saga retries that threw")
+                .register(meterRegistry);
+        Gauge.builder("booking.saga.retries.queued", retryExecutor, executor -> executor.getQueue().size())
+                .description("Claimed saga retries waiting for a retry thread")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.saga.retry.poll-interval-ms:5000}")
+    public void dispatchDueRetries() {
+        try {
+            // Claim no more than the executor can queue, the rest stays due for other replicas
+            int capacity = Math.min(batchSize, retryExecutor.getQueue().remainingCapacity());
+            int dispatched = 0;
+            while (dispatched < capacity) {
+                SagaState saga = claimNextDue();
+                if (saga == null) {
+                    break;
+                }
+                retryExecutor.execute(() -> retry(saga.getId()));
+                dispatched++;
+            }
+            if (dispatched > 0) {
+                dispatchedCounter.increment(dispatched);
+                log.info("🔄 Dispatched {} due saga retries", dispatched);
+            }
+        } catch (Exception e) {
+            log.error("❌ Saga retry dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Claim the most overdue RETRYING saga, null when none is due
+     */
+    SagaState claimNextDue() {
+        LocalDateTime now = LocalDateTime.now();
+        Query due = Query.query(Criteria.where("status").is(SagaStatus.RETRYING).and("nextRetryAt").lte(now))
+                .with(Sort.by(Sort.Direction.ASC, "nextRetryAt"));
+        Update lease = new Update().set("nextRetryAt", now.plus(claimLease));
+        return mongoTemplate.findAndModify(due, lease, FindAndModifyOptions.options().returnNew(true), SagaState.class);
+    }
+
+    void retry(String sagaId) {
+        try {
+            sagaOrchestrator.retrySaga(sagaId);
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("❌ Retry of saga {} failed: {}", sagaId, e.getMessage(), e);
+            // Count the attempt so a saga that always throws ends up FAILED and compensated
+            sagaStateRepository.findById(sagaId).ifPresent(saga ->
+                    sagaOrchestrator.handleSagaFailure(saga, saga.getCurrentStep(), e));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryExecutor.shutdown();
+    }
+}
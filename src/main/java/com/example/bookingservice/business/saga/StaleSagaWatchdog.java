@@ -0,0 +1,281 @@
+package com.example.bookingservice.business.saga;
+
+import com.example.bookingservice.persistence.lock.MongoLeaseLock;
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.BookingStatus;
+import com.example.bookingservice.persistence.model.PaymentStatus;
+import com.example.bookingservice.persistence.model.SagaState;
+import com.example.bookingservice.persistence.model.SagaStatus;
+import com.example.bookingservice.persistence.respository.BookingRepository;
+import com.example.bookingservice.persistence.respository.SagaStateRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recovers sagas stuck in PROCESSING or RETRYING, e.g. after a pod crashed mid-step
+ * Stale sagas are scanned in pages, each one is claimed with a lease on the saga document
+ * so every replica can run the watchdog without processing a saga twice.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "booking.saga.watchdog.enabled", havingValue = "true", matchIfMissing = true)
+public class StaleSagaWatchdog {
+
+    static final List<SagaStatus> WATCHED = List.of(SagaStatus.PROCESSING, SagaStatus.RETRYING);
+    private static final Set<BookingStatus> BOOKING_DONE =
+            Set.of(BookingStatus.CONFIRMED, BookingStatus.ACTIVE, BookingStatus.COMPLETED);
+    private static final Set<BookingStatus> BOOKING_ENDED = Set.of(BookingStatus.CANCELLED, BookingStatus.EXPIRED);
+
+    enum Outcome { COMPLETED, RESUMED, COMPENSATED, CLOSED, WAITING, FAILED }
+
+    private final SagaStateRepository sagaStateRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingSagaOrchestrator sagaOrchestrator;
+    private final MongoTemplate mongoTemplate;
+    private final String ownerId;
+    private final MeterRegistry meterRegistry;
+    private final Duration staleAfter;
+    private final Duration claimLease;
+    private final int pageSize;
+    private final ThreadPoolExecutor workers;
+
+    private final Map<SagaStatus, AtomicLong> stuckCounts = new EnumMap<>(SagaStatus.class);
+    private final AtomicLong oldestStuckMillis = new AtomicLong();
+    private final Timer recoveryLatency;
+
+    public StaleSagaWatchdog(SagaStateRepository sagaStateRepository,
+                             BookingRepository bookingRepository,
+                             BookingSagaOrchestrator sagaOrchestrator,
+                             MongoTemplate mongoTemplate,
+                             MongoLeaseLock leaseLock,
+                             MeterRegistry meterRegistry,
+                             @Value("${booking.saga.watchdog.stale-after:10m}") Duration staleAfter,
+                             @Value("${booking.saga.watchdog.claim-lease:2m}") Duration claimLease,
+                             @Value("${booking.saga.watchdog.page-size:100}") int pageSize,
+                             @Value("${booking.saga.watchdog.workers:4}") int workers) {
+        this.sagaStateRepository = sagaStateRepository;
+        this.bookingRepository = bookingRepository;
+        this.sagaOrchestrator = sagaOrchestrator;
+        this.mongoTemplate = mongoTemplate;
+        this.ownerId = leaseLock.getOwnerId();
+        this.meterRegistry = meterRegistry;
+        this.staleAfter = staleAfter;
+        this.claimLease = claimLease;
+        this.pageSize = pageSize;
+        // Bounded pool and queue, a full queue makes the scanning thread run the recovery itself
+        this.workers = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(pageSize), new CustomizableThreadFactory("saga-watchdog-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        for (SagaStatus status : WATCHED) {
+            AtomicLong count = new AtomicLong();
+            stuckCounts.put(status, count);
+            Gauge.builder("booking.saga.stuck", count, AtomicLong::get)
+                    .description("Sagas without progress for longer than the stale threshold")
+                    .tag("status", status.name())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("booking.saga.stuck.oldest", oldestStuckMillis, age -> age.get() / 1000.0)
+                .description("Time since the oldest stuck saga last progressed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.recoveryLatency = Timer.builder("booking.saga.recovery.latency")
+                .description("Time from a saga's last progress to its recovery by the watchdog")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.saga.watchdog.interval-ms:60000}",
+            initialDelayString = "${booking.saga.watchdog.initial-delay-ms:60000}")
+    public void sweep() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(staleAfter);
+            refreshMetrics(cutoff);
+            for (SagaStatus status : WATCHED) {
+                int recovered = recoverStale(status, cutoff);
+                if (recovered > 0) {
+                    log.info("🩺 Saga watchdog recovered {} {} sagas", recovered, status);
+                }
+            }
+        } catch (Exception e) {
+            log.error("❌ Saga watchdog sweep failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Walk stale sagas newest first, keyset on lastUpdatedAt, and wait for each page before reading the next
+     */
+    int recoverStale(SagaStatus status, LocalDateTime cutoff) {
+        PageRequest page = PageRequest.of(0, pageSize, Sort.by(Sort.Direction.DESC, "lastUpdatedAt"));
+        LocalDateTime before = cutoff;
+        int recovered = 0;
+        while (true) {
+            List<SagaState> stale = sagaStateRepository.findByStatusAndLastUpdatedAtBefore(status, before, page);
+            if (stale.isEmpty()) {
+                break;
+            }
+
+            List<CompletableFuture<Outcome>> results = new ArrayList<>();
+            for (SagaState saga : stale) {
+                results.add(CompletableFuture.supplyAsync(() -> claimAndRecover(saga.getId(), status, cutoff), workers));
+            }
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+            recovered += (int) results.stream()
+                    .map(CompletableFuture::join)
+                    .filter(outcome -> outcome != null && outcome != Outcome.FAILED && outcome != Outcome.WAITING)
+                    .count();
+
+            if (stale.size() < pageSize) {
+                break;
+            }
+            before = stale.get(stale.size() - 1).getLastUpdatedAt();
+        }
+        return recovered;
+    }
+
+    /**
+     * @return outcome of the recovery, null when another replica holds the saga or it progressed meanwhile
+     */
+    Outcome claimAndRecover(String sagaId, SagaStatus status, LocalDateTime cutoff) {
+        SagaState saga = claim(sagaId, status, cutoff);
+        if (saga == null) {
+            return null;
+        }
+        Duration stuckFor = Duration.between(saga.getLastUpdatedAt(), LocalDateTime.now());
+        Outcome outcome;
+        try {
+            outcome = recover(saga);
+        } catch (Exception e) {
+            log.error("❌ Failed to recover saga {}: {}", sagaId, e.getMessage(), e);
+            outcome = Outcome.FAILED;
+        } finally {
+            release(sagaId);
+        }
+        if (outcome != Outcome.WAITING && outcome != Outcome.FAILED) {
+            recoveryLatency.record(stuckFor);
+        }
+        meterRegistry.counter("booking.saga.recovered", "outcome", outcome.name()).increment();
+        return outcome;
+    }
+
+    private Outcome recover(SagaState saga) {
+        if (saga.getStatus() == SagaStatus.RETRYING) {
+            // Retries belong to the SagaRetryScheduler, make this one due now
+            mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(saga.getId())),
+                    new Update().set("nextRetryAt", LocalDateTime.now()).set("lastUpdatedAt", LocalDateTime.now()),
+                    SagaState.class);
+            return Outcome.RESUMED;
+        }
+
+        BookingEntity booking = resolveBooking(saga);
+
+        if (booking == null) {
+            // Crashed before the booking step finished, run it again or give up and compensate
+            if (saga.canRetry() && saga.getPayload() != null && saga.getPayload().hasBookingRequest()) {
+                sagaOrchestrator.retrySaga(saga.getId());
+                return Outcome.RESUMED;
+            }
+            sagaOrchestrator.handleSagaFailure(saga, saga.getCurrentStep(),
+                    new IllegalStateException("Saga stalled without a booking"));
+            return Outcome.COMPENSATED;
+        }
+
+        if (saga.getBookingId() == null) {
+            // Resolved through the appointment, link it so later lookups by booking find the saga
+            saga.setBookingId(booking.getId());
+            sagaStateRepository.updateFields(saga.getId(), new Update().set("bookingId", booking.getId()));
+        }
+        if (booking.getPaymentStatus() == PaymentStatus.COMPLETED || BOOKING_DONE.contains(booking.getStatus())) {
+            // The payment completion event was lost
+            sagaOrchestrator.completeSaga(saga);
+            return Outcome.COMPLETED;
+        }
+        if (BOOKING_ENDED.contains(booking.getStatus())) {
+            sagaOrchestrator.closeSaga(saga, "Booking " + booking.getStatus());
+            return Outcome.CLOSED;
+        }
+
+        // Booking is still waiting for its payment, the lifecycle engine expires it after the deadline
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(saga.getId())),
+                new Update().set("lastUpdatedAt", LocalDateTime.now()), SagaState.class);
+        return Outcome.WAITING;
+    }
+
+    private BookingEntity resolveBooking(SagaState saga) {
+        if (saga.getBookingId() != null) {
+            return bookingRepository.findById(saga.getBookingId()).orElse(null);
+        }
+        return bookingRepository.findByAppointmentId(saga.getAppointmentId()).stream().findFirst().orElse(null);
+    }
+
+    /**
+     * Claim the saga if it is still stale and no other replica holds an unexpired claim
+     */
+    private SagaState claim(String sagaId, SagaStatus status, LocalDateTime cutoff) {
+        LocalDateTime now = LocalDateTime.now();
+        Query claimable = Query.query(Criteria.where("id").is(sagaId)
+                .and("status").is(status)
+                .and("lastUpdatedAt").lt(cutoff)
+                .orOperator(
+                        Criteria.where("claimExpiresAt").is(null),
+                        Criteria.where("claimExpiresAt").lt(now)
+                ));
+        Update update = new Update()
+                .set("claimedBy", ownerId)
+                .set("claimExpiresAt", now.plus(claimLease));
+        return mongoTemplate.findAndModify(claimable, update,
+                FindAndModifyOptions.options().returnNew(true), SagaState.class);
+    }
+
+    private void release(String sagaId) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(sagaId).and("claimedBy").is(ownerId)),
+                new Update().unset("claimedBy").unset("claimExpiresAt"),
+                SagaState.class);
+    }
+
+    private void refreshMetrics(LocalDateTime cutoff) {
+        LocalDateTime oldest = null;
+        for (SagaStatus status : WATCHED) {
+            stuckCounts.get(status).set(sagaStateRepository.countByStatusAndLastUpdatedAtBefore(status, cutoff));
+            List<SagaState> first = sagaStateRepository.findByStatusAndLastUpdatedAtBefore(status, cutoff,
+                    PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "lastUpdatedAt")));
+            if (!first.isEmpty() && (oldest == null || first.get(0).getLastUpdatedAt().isBefore(oldest))) {
+                oldest = first.get(0).getLastUpdatedAt();
+            }
+        }
+        oldestStuckMillis.set(oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+}
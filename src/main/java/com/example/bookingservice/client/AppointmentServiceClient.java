@@ -17,6 +17,13 @@ public interface AppointmentServiceClient {
     @GetExchange("/api/v1/appointments/{id}")
 
     AppointmentResponse getAppointmentById(@PathVariable("id") String appointmentId);
+
+    /**
+     * Drop what is known locally about the appointment, called when appointment-service reports a change
+     * Nothing to drop for the plain HTTP client, see CachingAppointmentServiceClient
+     */
+    default void evict(String appointmentId) {
+    }
 }
 
 
@@ -0,0 +1,140 @@
+package com.example.bookingservice.client;
+
+import com.example.bookingservice.domain.response.AppointmentResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Size-bounded, TTL-based cache in front of appointment-service
+ * Only successful lookups are cached, entries are evicted by appointment change events.
+ * Concurrent misses for the same appointment share one outbound call (single flight).
+ * Lookups are made with the caller's JWT, so entries and in-flight calls are keyed by the caller
+ * and one user never gets a response appointment-service authorized for another.
+ * The trade-off: only requests of the same user are coalesced, different users booking the same popular
+ * appointment at once still make one call each. Authorization lives in appointment-service, this client
+ * cannot check a shared response against another caller's rights.
+ */
+@Slf4j
+public class CachingAppointmentServiceClient implements AppointmentServiceClient {
+
+    public static final String CACHE_NAME = "appointments";
+
+    private final AppointmentServiceClient delegate;
+    private final Cache<Key, AppointmentResponse> cache;
+    private final ConcurrentMap<Key, CompletableFuture<AppointmentResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalescedCounter;
+
+    public CachingAppointmentServiceClient(AppointmentServiceClient delegate,
+                                           long maximumSize,
+                                           Duration ttl,
+                                           MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        // cache.gets{result=hit|miss}, cache.evictions, cache.size ... tagged cache=appointments
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        this.coalescedCounter = Counter.builder("booking.appointment.lookups.coalesced")
+                .description("Appointment lookups served by an in-flight request of the same principal, "
+                        + "lookups of different principals are not coalesced")
+                .register(meterRegistry);
+        Gauge.builder("booking.appointment.lookups.inflight", inFlight, ConcurrentMap::size)
+                .description("Outbound appointment lookups in progress")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public AppointmentResponse getAppointmentById(String appointmentId) {
+        Key key = new Key(caller(), appointmentId);
+        AppointmentResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            log.debug("📦 Appointment cache hit: {}", appointmentId);
+            return cached;
+        }
+
+        CompletableFuture<AppointmentResponse> call = new CompletableFuture<>();
+        CompletableFuture<AppointmentResponse> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            coalescedCounter.increment();
+            log.debug("🔗 Joining in-flight appointment lookup: {}", appointmentId);
+            return await(existing);
+        }
+
+        // The leading caller makes the request on its own thread, so its JWT is forwarded
+        try {
+            AppointmentResponse response = delegate.getAppointmentById(appointmentId);
+            // Errors are never cached, nor results of a lookup that was evicted while in flight
+            if (response != null && response.isSuccess() && response.getAppointment() != null
+                    && inFlight.get(key) == call) {
+                cache.put(key, response);
+            }
+            call.complete(response);
+            return response;
+        } catch (Throwable e) {
+            // Errors included, otherwise the callers joined on this lookup would wait forever
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /**
+     * Wait for another caller's lookup, its failure is rethrown as is
+     */
+    private AppointmentResponse await(CompletableFuture<AppointmentResponse> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drop the appointment cached for every caller
+     */
+    @Override
+    public void evict(String appointmentId) {
+        if (appointmentId == null) {
+            return;
+        }
+        cache.asMap().keySet().removeIf(key -> appointmentId.equals(key.appointmentId()));
+        // Callers arriving after the change start a fresh lookup
+        inFlight.keySet().removeIf(key -> appointmentId.equals(key.appointmentId()));
+        log.debug("🗑️ Evicted appointment from cache: {}", appointmentId);
+    }
+
+    /**
+     * Principal whose JWT the lookup is forwarded with, null for unauthenticated calls
+     */
+    private static String caller() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private record Key(String principal, String appointmentId) {
+    }
+}
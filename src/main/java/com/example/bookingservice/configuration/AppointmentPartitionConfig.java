@@ -0,0 +1,133 @@
+package com.example.bookingservice.configuration;
+
+import com.example.bookingservice.consumer.AppointmentEventConsumer;
+import com.example.bookingservice.event.AppointmentEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Partitioned, order-preserving consumption of appointment events (booking.consumer.partitions.enabled)
+ * app-exchange/appointment.key is forwarded to a consistent-hash exchange keyed by the appointmentId header,
+ * which spreads events over N partition queues. Each queue has a single active consumer across all replicas
+ * and its own one-thread container, so events of one appointment are handled in order while partitions run in parallel.
+ * Needs the rabbitmq_consistent_hash_exchange plugin, and appointment-service setting the appointmentId header
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(
+        name = {"spring.rabbitmq.enabled", "booking.consumer.partitions.enabled"},
+        havingValue = "true",
+        matchIfMissing = false
+)
+public class AppointmentPartitionConfig {
+
+    public static final String PARTITION_EXCHANGE = "appointment-partitions";
+    public static final String PARTITION_QUEUE_PREFIX = RabbitMQConfig.APPOINTMENT_QUEUE + ".p";
+
+    private final AmqpAdmin amqpAdmin;
+    private final int partitions;
+    private final String hashHeader;
+
+    public AppointmentPartitionConfig(AmqpAdmin amqpAdmin,
+                                      @Value("${booking.consumer.partitions.count:4}") int partitions,
+                                      @Value("${booking.consumer.partitions.hash-header:appointmentId}") String hashHeader) {
+        this.amqpAdmin = amqpAdmin;
+        this.partitions = partitions;
+        this.hashHeader = hashHeader;
+    }
+
+    /**
+     * Consistent-hash exchange, partition queues and their bindings
+     */
+    @Bean
+    public Declarables appointmentPartitions(DirectExchange appExchange) {
+        log.info("Creating {} appointment partitions on {} (hash-header={})", partitions, PARTITION_EXCHANGE, hashHeader);
+        CustomExchange hashExchange = new CustomExchange(PARTITION_EXCHANGE, "x-consistent-hash", true, false,
+                Map.of("hash-header", hashHeader));
+
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(hashExchange);
+        declarables.add(BindingBuilder.bind(hashExchange).to(appExchange).with(RabbitMQConfig.APPOINTMENT_ROUTING_KEY));
+        for (int partition = 0; partition < partitions; partition++) {
+            Queue queue = QueueBuilder.durable(partitionQueue(partition))
+                    .singleActiveConsumer()
+                    .build();
+            declarables.add(queue);
+            // With a consistent-hash exchange the routing key is the partition's weight
+            declarables.add(BindingBuilder.bind(queue).to(hashExchange).with("1").noargs());
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * One container with a single consumer per partition queue
+     */
+    @Bean
+    public RabbitListenerConfigurer appointmentPartitionListeners(
+            AppointmentEventConsumer consumer,
+            MessageConverter messageConverter,
+            @Qualifier("rabbitListenerContainerFactory") SimpleRabbitListenerContainerFactory containerFactory) {
+        return registrar -> registerPartitionListeners(registrar, consumer, messageConverter, containerFactory);
+    }
+
+    private void registerPartitionListeners(RabbitListenerEndpointRegistrar registrar,
+                                            AppointmentEventConsumer consumer,
+                                            MessageConverter messageConverter,
+                                            SimpleRabbitListenerContainerFactory containerFactory) {
+        for (int partition = 0; partition < partitions; partition++) {
+            SimpleRabbitListenerEndpoint endpoint = new SimpleRabbitListenerEndpoint();
+            endpoint.setId("appointmentPartitionListener-" + partition);
+            endpoint.setQueueNames(partitionQueue(partition));
+            endpoint.setConcurrency("1");
+            endpoint.setMessageListener(message -> {
+                // The __TypeId__ header names appointment-service's class, decode into ours as @RabbitListener does
+                message.getMessageProperties().setInferredArgumentType(AppointmentEvent.class);
+                consumer.consumeAppointmentEvent((AppointmentEvent) messageConverter.fromMessage(message));
+            });
+            registrar.registerEndpoint(endpoint, containerFactory);
+        }
+    }
+
+    /**
+     * Stop routing into appointment-queue, its listener only drains what was queued before the switch
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void unbindAppointmentQueue() {
+        try {
+            amqpAdmin.removeBinding(new Binding(RabbitMQConfig.APPOINTMENT_QUEUE, Binding.DestinationType.QUEUE,
+                    RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.APPOINTMENT_ROUTING_KEY, null));
+            log.info("Removed binding {} -> {} [{}], appointment events are partitioned",
+                    RabbitMQConfig.APPOINTMENT_QUEUE, RabbitMQConfig.EXCHANGE_NAME, RabbitMQConfig.APPOINTMENT_ROUTING_KEY);
+        } catch (Exception e) {
+            log.warn("⚠️ Could not remove the appointment-queue binding: {}", e.getMessage());
+        }
+    }
+
+    static String partitionQueue(int partition) {
+        return PARTITION_QUEUE_PREFIX + partition;
+    }
+}
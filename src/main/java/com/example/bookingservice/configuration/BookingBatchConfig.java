@@ -0,0 +1,31 @@
+package com.example.bookingservice.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutorService;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor for the appointment lookups of batch booking creation
+ */
+@Configuration
+public class BookingBatchConfig {
+
+    public static final String BATCH_EXECUTOR = "bookingBatchExecutor";
+
+    /**
+     * Fixed pool, its size caps the parallel calls to appointment-service across all batches.
+     * Tasks run with the submitting request's security context so the caller's JWT is forwarded.
+     */
+    @Bean(name = BATCH_EXECUTOR)
+    public ExecutorService bookingBatchExecutor(
+            @Value("${booking.batch.fetch-concurrency:16}") int fetchConcurrency) {
+        ExecutorService pool = Executors.newFixedThreadPool(fetchConcurrency,
+                new CustomizableThreadFactory("booking-batch-"));
+        return new DelegatingSecurityContextExecutorService(pool);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.bookingservice.configuration;
+
+import com.example.bookingservice.controller.BookingExportController;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Async timeout of the NDJSON exports
+ * Exports of large result sets outlive spring.mvc.async.request-timeout, which stays the default
+ * for every other async response. The export timeout is applied to BookingExportController requests only,
+ * before the StreamingResponseBody starts.
+ */
+@Configuration
+public class BookingExportAsyncConfig implements WebMvcConfigurer {
+
+    private final Duration exportTimeout;
+
+    public BookingExportAsyncConfig(@Value("${booking.export.async-timeout:30m}") Duration exportTimeout) {
+        this.exportTimeout = exportTimeout;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest && isExport(request)) {
+                    asyncRequest.setTimeout(exportTimeout.toMillis());
+                }
+            }
+        });
+    }
+
+    private static boolean isExport(NativeWebRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return handler instanceof HandlerMethod method
+                && BookingExportController.class.isAssignableFrom(method.getBeanType());
+    }
+}
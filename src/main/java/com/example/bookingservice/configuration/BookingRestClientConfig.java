@@ -80,10 +80,13 @@
 package com.example.bookingservice.configuration;
 
 import com.example.bookingservice.client.AppointmentServiceClient;
+import com.example.bookingservice.client.CachingAppointmentServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -92,6 +95,9 @@ import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+
 @Slf4j
 @Configuration
 public class BookingRestClientConfig {
@@ -100,6 +106,26 @@ public class BookingRestClientConfig {
     @Value("${microservices.appointment-service.url:http://localhost:8083}")
     private String appointmentServiceUrl;
 
+    @Value("${booking.appointment-cache.maximum-size:10000}")
+    private long appointmentCacheMaximumSize;
+
+    @Value("${booking.appointment-cache.ttl:5m}")
+    private Duration appointmentCacheTtl;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    /**
+     * JDK HttpClient, its internal async work runs on virtual threads in the virtual-threads profile
+     */
+    private HttpClient createHttpClient() {
+        HttpClient.Builder builder = HttpClient.newBuilder();
+        if (virtualThreadsEnabled) {
+            builder.executor(new VirtualThreadTaskExecutor("appointment-client-"));
+        }
+        return builder.build();
+    }
+
     /**
      * Create RestClient with JWT token forwarding interceptor
      */
@@ -108,7 +134,7 @@ public class BookingRestClientConfig {
 
         return RestClient.builder()
                 .baseUrl(baseUrl)
-                .requestFactory(new JdkClientHttpRequestFactory())
+                .requestFactory(new JdkClientHttpRequestFactory(createHttpClient()))
                 .requestInterceptor((request, body, execution) -> {
                     // Extract JWT token from SecurityContext
                     Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -132,10 +158,10 @@ public class BookingRestClientConfig {
     }
 
     /**
-     * Appointment Service Client Bean
+     * Appointment Service Client Bean, wrapped in a bounded cache
      */
     @Bean
-    public AppointmentServiceClient appointmentServiceClient() {
+    public AppointmentServiceClient appointmentServiceClient(MeterRegistry meterRegistry) {
         log.info("🚀 Creating AppointmentServiceClient with base URL: {}", appointmentServiceUrl);
 
         // Create RestClient with JWT forwarding
@@ -149,7 +175,10 @@ public class BookingRestClientConfig {
                 .builderFor(adapter)
                 .build();
 
-        // Create and return the client proxy
-        return factory.createClient(AppointmentServiceClient.class);
+        // Create the client proxy and put the cache in front of it
+        AppointmentServiceClient client = factory.createClient(AppointmentServiceClient.class);
+        log.info("📦 Appointment cache: maximumSize={}, ttl={}", appointmentCacheMaximumSize, appointmentCacheTtl);
+        return new CachingAppointmentServiceClient(
+                client, appointmentCacheMaximumSize, appointmentCacheTtl, meterRegistry);
     }
 }
\ No newline at end of file
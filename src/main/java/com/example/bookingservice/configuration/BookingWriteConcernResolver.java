@@ -0,0 +1,32 @@
+package com.example.bookingservice.configuration;
+
+import com.example.bookingservice.persistence.model.OutboxEvent;
+import com.example.bookingservice.persistence.model.PaymentEntity;
+import com.example.bookingservice.persistence.model.SagaState;
+import com.mongodb.WriteConcern;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+
+import java.util.Set;
+
+/**
+ * Picks the write concern per entity type
+ * Payments, saga state and outbox events wait for a journaled majority, other writes only for the primary
+ */
+public class BookingWriteConcernResolver implements WriteConcernResolver {
+
+    private static final Set<Class<?>> CRITICAL = Set.of(PaymentEntity.class, SagaState.class, OutboxEvent.class);
+
+    private final WriteConcern critical;
+    private final WriteConcern standard;
+
+    public BookingWriteConcernResolver(WriteConcern critical, WriteConcern standard) {
+        this.critical = critical;
+        this.standard = standard;
+    }
+
+    @Override
+    public WriteConcern resolve(MongoAction action) {
+        return CRITICAL.contains(action.getEntityType()) ? critical : standard;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.bookingservice.configuration;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.postprocessor.DelegatingDecompressingPostProcessor;
+import org.springframework.amqp.support.postprocessor.GZipPostProcessor;
+
+/**
+ * Gzips encoded bodies of at least thresholdBytes (content-encoding gzip:&lt;original&gt;)
+ * Compressed messages are always accepted, a negative threshold only disables compressing
+ */
+public class CompressingMessageConverter implements MessageConverter {
+
+    private final MessageConverter delegate;
+    private final int thresholdBytes;
+    private final GZipPostProcessor gzip = new GZipPostProcessor();
+    private final DelegatingDecompressingPostProcessor decompress = new DelegatingDecompressingPostProcessor();
+
+    public CompressingMessageConverter(MessageConverter delegate, int thresholdBytes) {
+        this.delegate = delegate;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) throws MessageConversionException {
+        Message message = delegate.toMessage(object, messageProperties);
+        if (thresholdBytes < 0 || message.getBody().length < thresholdBytes) {
+            return message;
+        }
+        return gzip.postProcessMessage(message);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        return delegate.fromMessage(decompress.postProcessMessage(message));
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bookingservice.configuration;
+
+import com.example.bookingservice.business.mapper.BookingFields;
+import com.example.bookingservice.domain.dto.BookingDto;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Defaults of the application ObjectMapper
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * BookingDto is serialized with all its properties unless a response applies a sparse fieldset,
+     * see BookingFieldsResponseAdvice
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer bookingFieldsFilter() {
+        return builder -> builder
+                .mixIn(BookingDto.class, BookingFields.MixIn.class)
+                .filters(BookingFields.filter(null));
+    }
+}
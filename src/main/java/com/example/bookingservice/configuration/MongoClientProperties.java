@@ -0,0 +1,116 @@
+package com.example.bookingservice.configuration;
+
+import com.mongodb.WriteConcern;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MongoClient tuning, applied on top of spring.data.mongodb.uri
+ */
+@Data
+@ConfigurationProperties(prefix = "booking.mongo.client")
+public class MongoClientProperties {
+
+    private Pool pool = new Pool();
+
+    /** TCP connect timeout */
+    private Duration connectTimeout = Duration.ofSeconds(10);
+
+    /** Socket read timeout, zero waits forever */
+    private Duration readTimeout = Duration.ZERO;
+
+    /** How long an operation waits for a suitable server, e.g. during a primary election */
+    private Duration serverSelectionTimeout = Duration.ofSeconds(30);
+
+    /** Wire compressors in order of preference: zstd, snappy, zlib. The server picks the first it supports */
+    private List<String> compressors = new ArrayList<>();
+
+    private WriteConcerns writeConcern = new WriteConcerns();
+
+    private Analytics analytics = new Analytics();
+
+    @Data
+    public static class Pool {
+
+        private int maxSize = 100;
+
+        private int minSize = 0;
+
+        /** Connections being established concurrently per server */
+        private int maxConnecting = 2;
+
+        /** How long a checkout waits for a free connection before failing */
+        private Duration maxWaitTime = Duration.ofMinutes(2);
+
+        /** Zero keeps idle connections open */
+        private Duration maxIdleTime = Duration.ZERO;
+    }
+
+    @Data
+    public static class Analytics {
+
+        /** Exports use their own client when enabled, otherwise they share the primary one */
+        private boolean enabled = false;
+
+        /** Defaults to spring.data.mongodb.uri */
+        private String uri;
+
+        /** Kept small, reporting throughput is bounded rather than starving request traffic */
+        private int poolMaxSize = 10;
+
+        /** secondary never touches the primary, secondaryPreferred falls back to it when no secondary is up */
+        private String readPreference = "secondary";
+
+        /** Replica set member tags as key:value, members without them are used when none match */
+        private List<String> tags = new ArrayList<>();
+
+        private Duration maxStaleness = Duration.ofSeconds(120);
+    }
+
+    @Data
+    public static class WriteConcerns {
+
+        /** Payments, sagas and the outbox, which must survive a failover */
+        private Level critical = new Level("majority", true, Duration.ofSeconds(5));
+
+        /** Everything else, e.g. booking field updates, locks and read-model refreshes */
+        private Level standard = new Level("1", false, null);
+    }
+
+    @Data
+    public static class Level {
+
+        /** Acknowledgement: "majority" or a number of members */
+        private String w;
+
+        private boolean journal;
+
+        /** Gives up waiting for the acknowledgement, the write itself is not undone */
+        private Duration timeout;
+
+        public Level() {
+        }
+
+        public Level(String w, boolean journal, Duration timeout) {
+            this.w = w;
+            this.journal = journal;
+            this.timeout = timeout;
+        }
+
+        public WriteConcern toWriteConcern() {
+            WriteConcern concern = "majority".equalsIgnoreCase(w)
+                    ? WriteConcern.MAJORITY
+                    : new WriteConcern(Integer.parseInt(w));
+            concern = concern.withJournal(journal);
+            if (timeout != null && !timeout.isZero()) {
+                concern = concern.withWTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return concern;
+        }
+    }
+}
@@ -2,19 +2,36 @@ package com.example.bookingservice.configuration;
 
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.Tag;
+import com.mongodb.TagSet;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import com.example.bookingservice.persistence.routing.AnalyticsMongo;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @Profile("!test") // Don't load this configuration in test profile
+@EnableConfigurationProperties(MongoClientProperties.class)
 public class MongoConfig {
 
     @Value("${spring.data.mongodb.uri}")
@@ -22,12 +39,58 @@ public class MongoConfig {
 
     @Bean
     @ConditionalOnMissingBean
-    public MongoClient mongoClient() {
+    public MongoClient mongoClient(MongoClientProperties properties,
+                                   ObjectProvider<MongoClientSettingsBuilderCustomizer> customizers,
+                                   MeterRegistry meterRegistry) {
         ConnectionString connectionString = new ConnectionString(mongoUri);
-        MongoClientSettings mongoClientSettings = MongoClientSettings.builder()
-                .applyConnectionString(connectionString)
-                .build();
-        return MongoClients.create(mongoClientSettings);
+        MongoClientProperties.Pool pool = properties.getPool();
+
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
+                .applyConnectionString(connectionString);
+
+        // Boot's customizers are only applied to its own client, they bring the pool and command metrics.
+        // The standard customizer re-applies spring.data.mongodb.uri, so they run before the explicit properties.
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+
+        // Explicit properties win over options in the URI
+        builder.applyToConnectionPoolSettings(settings -> settings
+                        .maxSize(pool.getMaxSize())
+                        .minSize(pool.getMinSize())
+                        .maxConnecting(pool.getMaxConnecting())
+                        .maxWaitTime(pool.getMaxWaitTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .maxConnectionIdleTime(pool.getMaxIdleTime().toMillis(), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(new MongoPoolMetricsListener(meterRegistry)))
+                .applyToSocketSettings(settings -> settings
+                        .connectTimeout((int) properties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                        .readTimeout((int) properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .applyToClusterSettings(settings -> settings
+                        .serverSelectionTimeout(properties.getServerSelectionTimeout().toMillis(), TimeUnit.MILLISECONDS))
+                .writeConcern(properties.getWriteConcern().getStandard().toWriteConcern());
+
+        List<MongoCompressor> compressors = toCompressors(properties.getCompressors());
+        if (!compressors.isEmpty()) {
+            builder.compressorList(compressors);
+        }
+
+        return MongoClients.create(builder.build());
+    }
+
+    private static List<MongoCompressor> toCompressors(List<String> names) {
+        return names.stream()
+                .map(name -> switch (name.trim().toLowerCase()) {
+                    case "zstd" -> MongoCompressor.createZstdCompressor();
+                    case "snappy" -> MongoCompressor.createSnappyCompressor();
+                    case "zlib" -> MongoCompressor.createZlibCompressor();
+                    default -> throw new IllegalArgumentException("Unknown Mongo compressor: " + name);
+                })
+                .toList();
+    }
+
+    @Bean
+    public WriteConcernResolver writeConcernResolver(MongoClientProperties properties) {
+        return new BookingWriteConcernResolver(
+                properties.getWriteConcern().getCritical().toWriteConcern(),
+                properties.getWriteConcern().getStandard().toWriteConcern());
     }
 
     @Bean
@@ -37,8 +100,47 @@ public class MongoConfig {
     }
 
     @Bean
+    @Primary
     @ConditionalOnMissingBean
-    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory) {
-        return new MongoTemplate(mongoDatabaseFactory);
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory,
+                                       WriteConcernResolver writeConcernResolver) {
+        MongoTemplate mongoTemplate = new MongoTemplate(mongoDatabaseFactory);
+        mongoTemplate.setWriteConcernResolver(writeConcernResolver);
+        return mongoTemplate;
+    }
+
+    /**
+     * Reporting client with its own small pool, reads go to (tagged) secondaries
+     */
+    @Bean
+    @ConditionalOnProperty(name = "booking.mongo.client.analytics.enabled", havingValue = "true")
+    public AnalyticsMongo analyticsMongo(MongoClientProperties properties) {
+        MongoClientProperties.Analytics analytics = properties.getAnalytics();
+        ConnectionString connectionString = new ConnectionString(
+                analytics.getUri() != null ? analytics.getUri() : mongoUri);
+
+        List<TagSet> tagSets = new ArrayList<>();
+        if (!analytics.getTags().isEmpty()) {
+            tagSets.add(new TagSet(analytics.getTags().stream()
+                    .map(tag -> tag.split(":", 2))
+                    .map(pair -> new Tag(pair[0].trim(), pair[1].trim()))
+                    .toList()));
+            // An empty tag set matches any member, used when no tagged one is available
+            tagSets.add(new TagSet());
+        }
+        ReadPreference readPreference = ReadPreference.valueOf(analytics.getReadPreference(), tagSets,
+                analytics.getMaxStaleness().toSeconds(), TimeUnit.SECONDS);
+
+        MongoClient client = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(connectionString)
+                .applicationName("booking-service-analytics")
+                .readPreference(readPreference)
+                .applyToConnectionPoolSettings(settings -> settings.maxSize(analytics.getPoolMaxSize()))
+                .compressorList(toCompressors(properties.getCompressors()))
+                .build());
+        String database = connectionString.getDatabase() != null ? connectionString.getDatabase() : "booking-service";
+        MongoTemplate template = new MongoTemplate(new SimpleMongoClientDatabaseFactory(client, database));
+        template.setReadPreference(readPreference);
+        return new AnalyticsMongo(client, template);
     }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.bookingservice.configuration;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time spent waiting for a pooled connection
+ * Pool size, checked out and wait queue gauges come from Micrometer's MongoMetricsConnectionPoolListener,
+ * a rising checkout time with a full pool means the pool is too small for the request concurrency
+ */
+public class MongoPoolMetricsListener implements ConnectionPoolListener {
+
+    private final MeterRegistry meterRegistry;
+    private final Timer checkedOut;
+
+    public MongoPoolMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.checkedOut = checkoutTimer("success", "none");
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        checkedOut.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        checkoutTimer("failed", event.getReason().name())
+                .record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer checkoutTimer(String result, String reason) {
+        return Timer.builder("booking.mongo.pool.checkout")
+                .description("Wait for a connection from the Mongo pool")
+                .tag("result", result)
+                .tag("reason", reason)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
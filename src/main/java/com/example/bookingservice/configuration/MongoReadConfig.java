@@ -0,0 +1,19 @@
+package com.example.bookingservice.configuration;
+
+import com.example.bookingservice.persistence.routing.CausalTokenCommandListener;
+import com.example.bookingservice.persistence.routing.CausalTokenStore;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Write tracking for causally consistent secondary reads, applies to whichever MongoClient is in use
+ */
+@Configuration
+public class MongoReadConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer causalTokenCustomizer(CausalTokenStore causalTokenStore) {
+        return builder -> builder.addCommandListener(new CausalTokenCommandListener(causalTokenStore));
+    }
+}
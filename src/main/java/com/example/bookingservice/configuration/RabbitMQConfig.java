@@ -1,16 +1,23 @@
 package com.example.bookingservice.configuration;
 
+import com.example.bookingservice.producer.PublisherConfirmTracker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 
 
 
@@ -34,6 +41,10 @@ public class RabbitMQConfig {
     public static final String APPOINTMENT_ROUTING_KEY = "appointment.key";
     public static final String BOOKING_ROUTING_KEY = "booking.key";
 
+    // Topic exchange for booking events, routing key per event type (booking.created, booking.payment.completed, ...)
+    public static final String BOOKING_EVENTS_EXCHANGE = "booking-events";
+    public static final String BOOKING_EVENTS_PATTERN = "booking.#";
+
     /**
      * Create the main application exchange (Direct Exchange)
      * Durable = survives broker restart
@@ -47,6 +58,18 @@ public class RabbitMQConfig {
                 .build();
     }
 
+    /**
+     * Topic exchange for booking events, consumers bind only the event types they need
+     */
+    @Bean
+    public TopicExchange bookingEventsExchange() {
+        log.info("Creating TopicExchange: {}", BOOKING_EVENTS_EXCHANGE);
+        return ExchangeBuilder
+                .topicExchange(BOOKING_EVENTS_EXCHANGE)
+                .durable(true)
+                .build();
+    }
+
     /**
      * Queue for appointment events (consumed by Booking Service)
      */
@@ -71,7 +94,9 @@ public class RabbitMQConfig {
 
 
     // Bind appointment queue to exchange with appointment routing key
+    // In partitioned mode appointment events go to the partition queues instead, see AppointmentPartitionConfig
     @Bean
+    @ConditionalOnProperty(name = "booking.consumer.partitions.enabled", havingValue = "false", matchIfMissing = true)
     public Binding appointmentBinding(Queue appointmentQueue, DirectExchange appExchange) {
         log.info("Binding {} to {} with routing key: {}",
                 APPOINTMENT_QUEUE, EXCHANGE_NAME, APPOINTMENT_ROUTING_KEY);
@@ -92,13 +117,65 @@ public class RabbitMQConfig {
                 .with(BOOKING_ROUTING_KEY);
     }
 
+    // Existing booking-queue consumers keep receiving every booking event from the topic exchange
+    @Bean
+    public Binding bookingEventsBinding(Queue bookingQueue, TopicExchange bookingEventsExchange) {
+        log.info("Binding {} to {} with routing key: {}",
+                BOOKING_QUEUE, BOOKING_EVENTS_EXCHANGE, BOOKING_EVENTS_PATTERN);
+        return BindingBuilder
+                .bind(bookingQueue)
+                .to(bookingEventsExchange)
+                .with(BOOKING_EVENTS_PATTERN);
+    }
+
+    /**
+     * Stop routing into the partition queues when partitioned consumption is switched off
+     * The app-exchange -> appointment-partitions binding outlives AppointmentPartitionConfig on the broker,
+     * without this every appointment event is also copied to partition queues nobody consumes
+     */
+    @Configuration
+    @ConditionalOnProperty(name = "booking.consumer.partitions.enabled", havingValue = "false", matchIfMissing = true)
+    static class UnpartitionedAppointments {
+
+        private final AmqpAdmin amqpAdmin;
+
+        UnpartitionedAppointments(AmqpAdmin amqpAdmin) {
+            this.amqpAdmin = amqpAdmin;
+        }
+
+        @EventListener(ApplicationReadyEvent.class)
+        public void unbindPartitionExchange() {
+            try {
+                amqpAdmin.removeBinding(new Binding(AppointmentPartitionConfig.PARTITION_EXCHANGE,
+                        Binding.DestinationType.EXCHANGE, EXCHANGE_NAME, APPOINTMENT_ROUTING_KEY, null));
+                log.info("Removed binding {} -> {} [{}], appointment events are not partitioned",
+                        AppointmentPartitionConfig.PARTITION_EXCHANGE, EXCHANGE_NAME, APPOINTMENT_ROUTING_KEY);
+            } catch (Exception e) {
+                // The exchange does not exist when partitions were never enabled
+                log.warn("⚠️ Could not remove the {} binding: {}", AppointmentPartitionConfig.PARTITION_EXCHANGE, e.getMessage());
+            }
+        }
+    }
+
     /**
-     * JSON message converter for serializing/deserializing events
+     * Message converter for serializing/deserializing events
+     * Publishes in booking.messaging.encoding (json or cbor), decodes either by the content-type header
+     * and gzipped bodies by content-encoding
      */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        log.info("Configuring Jackson2JsonMessageConverter");
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter messageConverter(
+            @Value("${booking.messaging.encoding:json}") String encoding,
+            @Value("${booking.messaging.compression.enabled:false}") boolean compress,
+            @Value("${booking.messaging.compression.threshold-bytes:2048}") int thresholdBytes) {
+        log.info("Configuring message converter: encoding={}, compression={} (>= {} bytes)", encoding, compress, thresholdBytes);
+        MessageConverter json = new Jackson2JsonMessageConverter();
+        MessageConverter cbor = new Jackson2CborMessageConverter();
+
+        ContentTypeDelegatingMessageConverter byContentType =
+                new ContentTypeDelegatingMessageConverter("cbor".equalsIgnoreCase(encoding) ? cbor : json);
+        byContentType.addDelegate(MessageProperties.CONTENT_TYPE_JSON, json);
+        byContentType.addDelegate(Jackson2CborMessageConverter.CONTENT_TYPE, cbor);
+        return new CompressingMessageConverter(byContentType, compress ? thresholdBytes : -1);
     }
 
 
@@ -112,15 +189,43 @@ public class RabbitMQConfig {
 
     /**
      * RabbitTemplate for sending messages
+     * Mandatory publishes with correlated confirms, outcomes are tracked per eventId by the PublisherConfirmTracker
      */
     @Bean
-    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
+    public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory,
+                                         MessageConverter messageConverter,
+                                         PublisherConfirmTracker confirmTracker) {
         log.info("Configuring RabbitTemplate");
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMessageConverter(jsonMessageConverter());
+        template.setMessageConverter(messageConverter);
+        template.setMandatory(true);
+        template.setConfirmCallback(confirmTracker);
+        template.setReturnsCallback(confirmTracker);
         return template;
     }
 
+    /**
+     * Batch listener container for appointment events (booking.consumer.batch.enabled)
+     * A batch is delivered when batchSize messages arrived or receiveTimeout passed, and acked as one
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory appointmentBatchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${booking.consumer.batch.size:50}") int batchSize,
+            @Value("${booking.consumer.batch.receive-timeout-ms:200}") long receiveTimeout) {
+        log.info("Configuring batch listener container: batchSize={}, receiveTimeout={}ms", batchSize, receiveTimeout);
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeout);
+        // prefetch=1 would never fill a batch
+        factory.setPrefetchCount(batchSize);
+        return factory;
+    }
+
     //  Initialize RabbitMQ infrastructure on application startup
     // This ensures all exchanges, queues, and bindings are created
 //    @Bean
@@ -40,6 +40,8 @@ public class SecurityConfig {
                                 "/actuator/health/**",  // CRITICAL: Added for /actuator/health/liveness and /actuator/health/readiness
                                 "/actuator/info"
                         ).permitAll()
+                        // Query plan advisor runs explain against the database, admins only
+                        .requestMatchers("/actuator/queryplans").hasRole("ADMIN")
                         // Other public endpoints
                         .requestMatchers(
                                 "/api-docs/**",
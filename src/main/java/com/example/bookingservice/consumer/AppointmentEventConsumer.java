@@ -2,6 +2,7 @@ package com.example.bookingservice.consumer;
 
 
 import com.example.bookingservice.business.saga.BookingSagaOrchestrator;
+import com.example.bookingservice.client.AppointmentServiceClient;
 import com.example.bookingservice.domain.request.CreateBookingRequest;
 import com.example.bookingservice.event.AppointmentEvent;
 import lombok.RequiredArgsConstructor;
@@ -12,12 +13,16 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * ⭐ THIS IS THE MISSING CONSUMER! ⭐
  *
  * Consumes appointment events from RabbitMQ
  * Triggers booking saga when appointment is confirmed
+ *
+ * With booking.consumer.batch.enabled the batch listener runs instead of the single-message one,
+ * a batch is acked as one delivery and its events are handled in arrival order
  */
 @Slf4j
 @Component
@@ -30,38 +35,69 @@ import java.time.LocalDateTime;
 public class AppointmentEventConsumer {
 
     private final BookingSagaOrchestrator sagaOrchestrator;
+    private final AppointmentServiceClient appointmentServiceClient;
 
     /**
      * 🎯 Listen to APPOINTMENT_CONFIRMED events
      * This is the trigger for the booking saga
      */
-    @RabbitListener(queues = "${rabbitmq.queue.appointment:appointment-queue}", id = "appointmentQueueListener")
+    @RabbitListener(
+            queues = "${rabbitmq.queue.appointment:appointment-queue}",
+            id = "appointmentQueueListener",
+            autoStartup = "#{!${booking.consumer.batch.enabled:false}}"
+    )
     @Transactional
     public void consumeAppointmentEvent(AppointmentEvent event) {
         log.info("📥 Received appointment event: {} for appointment: {}",
                 event.getEventType(), event.getAppointmentId());
 
-        try {
-            switch (event.getEventType()) {
-                case "APPOINTMENT_CONFIRMED":
-                    handleAppointmentConfirmed(event);
-                    break;
+        processEvents(List.of(event));
+    }
 
-                case "APPOINTMENT_CANCELLED":
-                    handleAppointmentCancelled(event);
-                    break;
+    /**
+     * Batch mode, one delivery of up to booking.consumer.batch.size events
+     */
+    @RabbitListener(
+            queues = "${rabbitmq.queue.appointment:appointment-queue}",
+            id = "appointmentQueueBatchListener",
+            containerFactory = "appointmentBatchListenerContainerFactory",
+            autoStartup = "${booking.consumer.batch.enabled:false}"
+    )
+    @Transactional
+    public void consumeAppointmentEvents(List<AppointmentEvent> events) {
+        log.info("📥 Received batch of {} appointment events", events.size());
 
-                case "APPOINTMENT_RESCHEDULED":
-                    handleAppointmentRescheduled(event);
-                    break;
+        processEvents(events);
+    }
 
-                default:
-                    log.debug("📌 Event type {} not handled by booking service", event.getEventType());
+    /**
+     * Handle events one by one in the order they arrived, so the events of one appointment
+     * (e.g. RESCHEDULED then CANCELLED) are applied in sequence
+     */
+    private void processEvents(List<AppointmentEvent> events) {
+        for (AppointmentEvent event : events) {
+            try {
+                switch (String.valueOf(event.getEventType())) {
+                    case "APPOINTMENT_CONFIRMED":
+                        handleAppointmentConfirmed(event);
+                        break;
+
+                    case "APPOINTMENT_CANCELLED":
+                        handleAppointmentCancelled(event);
+                        break;
+
+                    case "APPOINTMENT_RESCHEDULED":
+                        handleAppointmentRescheduled(event);
+                        break;
+
+                    default:
+                        log.debug("📌 Event type {} not handled by booking service", event.getEventType());
+                }
+
+            } catch (Exception e) {
+                log.error(" Failed to process appointment event: {}", e.getMessage(), e);
+                // In production, this would go to a Dead Letter Queue for retry
             }
-
-        } catch (Exception e) {
-            log.error(" Failed to process appointment event: {}", e.getMessage(), e);
-            // In production, this would go to a Dead Letter Queue for retry
         }
     }
 
@@ -137,6 +173,7 @@ public class AppointmentEventConsumer {
     private void handleAppointmentCancelled(AppointmentEvent event) {
         log.info("❌ APPOINTMENT_CANCELLED received for: {}", event.getAppointmentId());
         log.info("   Reason: {}", event.getCancellationReason());
+        appointmentServiceClient.evict(event.getAppointmentId());
 
         try {
             // Check if booking exists for this appointment
@@ -159,6 +196,7 @@ public class AppointmentEventConsumer {
         log.info("📅 APPOINTMENT_RESCHEDULED received for: {}", event.getAppointmentId());
         log.info("   Previous: {} → New: {}",
                 event.getPreviousDateTime(), event.getAppointmentDateTime());
+        appointmentServiceClient.evict(event.getAppointmentId());
 
         try {
             // Update booking dates if booking exists
@@ -1,13 +1,18 @@
 package com.example.bookingservice.controller;
 
 import com.example.bookingservice.business.interfaces.BookingService;
+import com.example.bookingservice.domain.dto.BookingBatchItemDto;
 import com.example.bookingservice.domain.dto.BookingDto;
+import com.example.bookingservice.domain.dto.BookingPageDto;
 import com.example.bookingservice.domain.dto.PaymentDto;
+import com.example.bookingservice.domain.request.CreateBookingBatchRequest;
 import com.example.bookingservice.domain.request.CreateBookingRequest;
 import com.example.bookingservice.domain.request.ProcessPaymentRequest;
+import com.example.bookingservice.domain.response.BookingBatchResponse;
 import com.example.bookingservice.domain.response.BookingListResponse;
 import com.example.bookingservice.domain.response.BookingResponse;
 import com.example.bookingservice.domain.response.PaymentResponse;
+import com.example.bookingservice.event.BookingEvent;
 import com.example.bookingservice.persistence.model.BookingStatus;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +25,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.net.URI;
 import java.util.List;
 
 @Slf4j
@@ -45,59 +51,107 @@ public class BookingController {
                 .body(BookingResponse.success("Booking created successfully", booking));
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'AGENCY')")
+    @Operation(summary = "Create bookings in batch",
+            description = "Creates up to 500 bookings at once, the response reports the result of every item")
+    public ResponseEntity<BookingBatchResponse> createBookings(
+            @Valid @RequestBody CreateBookingBatchRequest request
+    ) {
+        log.info("REST request to create batch of {} bookings", request.getBookings().size());
+        List<BookingBatchItemDto> results = bookingService.createBookings(request.getBookings());
+        return ResponseEntity.ok(BookingBatchResponse.of(results));
+    }
+
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
-    @Operation(summary = "Get booking by ID")
-    public ResponseEntity<BookingResponse> getBookingById(@PathVariable String id) {
+    @Operation(summary = "Get booking by ID", description = "Optional fields=a,b,c returns only those properties")
+    public ResponseEntity<BookingResponse> getBookingById(
+            @PathVariable String id,
+            @RequestParam(required = false) String fields
+    ) {
         log.info("REST request to get booking: {}", id);
-        BookingDto booking = bookingService.getBookingById(id);
+        BookingDto booking = bookingService.getBookingById(id, fields);
         return ResponseEntity.ok(BookingResponse.success("Booking retrieved successfully", booking));
     }
 
+    @GetMapping("/{id}/snapshot")
+    @PreAuthorize("hasRole('STUDENT') or hasRole('ADMIN')")
+    @Operation(summary = "Get booking snapshot",
+            description = "Full booking in BookingEvent form, for consumers of BOOKING_STATUS_CHANGED deltas")
+    public ResponseEntity<BookingEvent> getBookingSnapshot(@PathVariable String id) {
+        log.info("REST request to get booking snapshot: {}", id);
+        return ResponseEntity.ok(bookingService.getBookingSnapshot(id));
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'LANDLORD', 'PROPERTY_MANAGER')")
-    @Operation(summary = "Get all bookings", description = "Admin/Landlord only")
-    public ResponseEntity<BookingListResponse> getAllBookings() {
+    @Operation(summary = "Get all bookings", description = "Admin/Landlord only. Cursor-paginated, newest first")
+    public ResponseEntity<BookingListResponse> getAllBookings(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields
+    ) {
         log.info("REST request to get all bookings");
-        List<BookingDto> bookings = bookingService.getAllBookings();
-        return ResponseEntity.ok(BookingListResponse.success("Bookings retrieved successfully", bookings));
+        BookingPageDto page = bookingService.getAllBookings(cursor, size, fields);
+        return ResponseEntity.ok(BookingListResponse.success("Bookings retrieved successfully", page));
     }
 
     @GetMapping("/requester/{requesterId}")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get bookings by requester ID")
-    public ResponseEntity<BookingListResponse> getBookingsByRequester(@PathVariable Long requesterId) {
+    public ResponseEntity<BookingListResponse> getBookingsByRequester(
+            @PathVariable Long requesterId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields
+    ) {
         log.info("REST request to get bookings for requester: {}", requesterId);
-        List<BookingDto> bookings = bookingService.getBookingsByRequesterId(requesterId);
-        return ResponseEntity.ok(BookingListResponse.success("Bookings retrieved successfully", bookings));
+        BookingPageDto page = bookingService.getBookingsByRequesterId(requesterId, cursor, size, fields);
+        return ResponseEntity.ok(BookingListResponse.success("Bookings retrieved successfully", page));
     }
 
     @GetMapping("/provider/{providerId}")
     @PreAuthorize("hasAnyRole('ADMIN', 'LANDLORD')")
     @Operation(summary = "Get bookings by provider ID")
-    public ResponseEntity<BookingListResponse> getBookingsByProvider(@PathVariable Long providerId) {
+    public ResponseEntity<BookingListResponse> getBookingsByProvider(
+            @PathVariable Long providerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields
+    ) {
         log.info("REST request to get bookings for provider: {}", providerId);
-        List<BookingDto> bookings = bookingService.getBookingsByProviderId(providerId);
-        return ResponseEntity.ok(BookingListResponse.success("Bookings retrieved successfully", bookings));
+        BookingPageDto page = bookingService.getBookingsByProviderId(providerId, cursor, size, fields);
+        return ResponseEntity.ok(BookingListResponse.success("Bookings retrieved successfully", page));
     }
 
     @GetMapping("/property/{propertyId}")
     @PreAuthorize("isAuthenticated()")
     @Operation(summary = "Get bookings by property ID")
-    public ResponseEntity<BookingListResponse> getBookingsByProperty(@PathVariable Long propertyId) {
+    public ResponseEntity<BookingListResponse> getBookingsByProperty(
+            @PathVariable Long propertyId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields
+    ) {
         log.info("REST request to get bookings for property: {}", propertyId);
-        List<BookingDto> bookings = bookingService.getBookingsByPropertyId(propertyId);
-        return ResponseEntity.ok(BookingListResponse.success("Bookings retrieved successfully", bookings));
+        BookingPageDto page = bookingService.getBookingsByPropertyId(propertyId, cursor, size, fields);
+        return ResponseEntity.ok(BookingListResponse.success("Bookings retrieved successfully", page));
     }
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasAnyRole('ADMIN', 'LANDLORD')")
     @Operation(summary = "Get bookings by status")
-    public ResponseEntity<BookingListResponse> getBookingsByStatus(@PathVariable BookingStatus status) {
+    public ResponseEntity<BookingListResponse> getBookingsByStatus(
+            @PathVariable BookingStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields
+    ) {
         log.info("REST request to get bookings with status: {}", status);
-        List<BookingDto> bookings = bookingService.getBookingsByStatus(status);
-        return ResponseEntity.ok(BookingListResponse.success("Bookings retrieved successfully", bookings));
+        BookingPageDto page = bookingService.getBookingsByStatus(status, cursor, size, fields);
+        return ResponseEntity.ok(BookingListResponse.success("Bookings retrieved successfully", page));
     }
 
     // ========== UPDATE BOOKING ==========
@@ -148,13 +202,25 @@ public class BookingController {
     // ========== PAYMENT OPERATIONS ==========
     @PostMapping("/payments")
     @PreAuthorize("hasAnyRole('STUDENT', 'TENANT')")
-    @Operation(summary = "Process payment for booking")
+    @Operation(summary = "Process payment for booking",
+            description = "Returns 202 with the PROCESSING payment, poll GET /payments/{paymentId} for the outcome")
     public ResponseEntity<PaymentResponse> processPayment(
             @Valid @RequestBody ProcessPaymentRequest request
     ) {
         log.info("REST request to process payment for booking: {}", request.getBookingId());
         PaymentDto payment = bookingService.processPayment(request);
-        return ResponseEntity.ok(PaymentResponse.success("Payment processed successfully", payment));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/bookings/payments/" + payment.getId()))
+                .body(PaymentResponse.success("Payment accepted for processing", payment));
+    }
+
+    @GetMapping("/payments/{paymentId}")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get payment by ID")
+    public ResponseEntity<PaymentResponse> getPaymentById(@PathVariable String paymentId) {
+        log.info("REST request to get payment: {}", paymentId);
+        PaymentDto payment = bookingService.getPaymentById(paymentId);
+        return ResponseEntity.ok(PaymentResponse.success("Payment retrieved successfully", payment));
     }
 
     @GetMapping("/payments/booking/{bookingId}")
@@ -0,0 +1,68 @@
+package com.example.bookingservice.controller;
+
+import com.example.bookingservice.business.interfaces.BookingExportService;
+import com.example.bookingservice.persistence.model.BookingStatus;
+import com.example.bookingservice.persistence.model.PaymentStatus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+
+/**
+ * Controller for bulk exports
+ * Responses are newline-delimited JSON written while the Mongo cursor is read
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/bookings/export")
+@RequiredArgsConstructor
+@Tag(name = "Booking Export", description = "Streaming NDJSON exports of bookings and payments")
+@SecurityRequirement(name = "bearer-jwt")
+public class BookingExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final BookingExportService bookingExportService;
+
+    @GetMapping("/bookings")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export bookings as NDJSON", description = "Admin only. Date range applies to createdAt")
+    public ResponseEntity<StreamingResponseBody> exportBookings(
+            @RequestParam(required = false) BookingStatus status,
+            @RequestParam(required = false) Long providerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        log.info("REST request to export bookings");
+        StreamingResponseBody body = out ->
+                bookingExportService.exportBookings(status, providerId, from, to, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    @GetMapping("/payments")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Export payments as NDJSON", description = "Admin only. Date range applies to createdAt")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) Long payerId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        log.info("REST request to export payments");
+        StreamingResponseBody body = out ->
+                bookingExportService.exportPayments(status, payerId, from, to, out);
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.bookingservice.controller;
+
+import com.example.bookingservice.business.mapper.BookingFields;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies the fields=a,b,c sparse fieldset of booking reads when the response is written
+ * Only the requested BookingDto properties are serialized, without the parameter every property is,
+ * nulls included
+ */
+@RestControllerAdvice(assignableTypes = BookingController.class)
+public class BookingFieldsResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer,
+                                           MediaType contentType,
+                                           MethodParameter returnType,
+                                           ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            String fields = servletRequest.getServletRequest().getParameter("fields");
+            bodyContainer.setFilters(BookingFields.filter(BookingFields.parse(fields)));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.bookingservice.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one booking of a batch, index is its position in the request
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingBatchItemDto {
+
+    private Integer index;
+    private String appointmentId;
+    private Boolean success;
+    private BookingDto booking;
+    private String errorCode;
+    private String message;
+
+    public static BookingBatchItemDto created(int index, BookingDto booking) {
+        return BookingBatchItemDto.builder()
+                .index(index)
+                .appointmentId(booking.getAppointmentId())
+                .success(true)
+                .booking(booking)
+                .build();
+    }
+
+    public static BookingBatchItemDto failed(int index, String appointmentId, String errorCode, String message) {
+        return BookingBatchItemDto.builder()
+                .index(index)
+                .appointmentId(appointmentId)
+                .success(false)
+                .errorCode(errorCode)
+                .message(message)
+                .build();
+    }
+}
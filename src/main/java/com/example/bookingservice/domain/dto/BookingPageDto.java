@@ -0,0 +1,24 @@
+package com.example.bookingservice.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of bookings
+ * nextCursor is null when there are no more bookings
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingPageDto {
+
+    private List<BookingDto> bookings;
+    private String nextCursor;
+    private Integer pageSize;
+    private Boolean hasMore;
+}
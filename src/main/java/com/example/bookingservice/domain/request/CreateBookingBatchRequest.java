@@ -0,0 +1,27 @@
+package com.example.bookingservice.domain.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Batch of bookings created in one request, e.g. a partner agency onboarding a cohort
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateBookingBatchRequest {
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    @NotEmpty(message = "At least one booking is required")
+    @Size(max = MAX_BATCH_SIZE, message = "A batch can contain at most " + MAX_BATCH_SIZE + " bookings")
+    private List<@Valid CreateBookingRequest> bookings;
+}
@@ -0,0 +1,46 @@
+package com.example.bookingservice.domain.response;
+
+import com.example.bookingservice.domain.dto.BookingBatchItemDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Booking Batch Response
+ * Per-item results of a batch create, success is true only when every booking was created
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingBatchResponse {
+
+    private Boolean success;
+    private String message;
+    private Integer total;
+    private Integer created;
+    private Integer failed;
+    private List<BookingBatchItemDto> results;
+    private LocalDateTime timestamp;
+
+    /**
+     * Create response from the per-item results
+     */
+    public static BookingBatchResponse of(List<BookingBatchItemDto> results) {
+        int created = (int) results.stream().filter(r -> Boolean.TRUE.equals(r.getSuccess())).count();
+        int failed = results.size() - created;
+        return BookingBatchResponse.builder()
+                .success(failed == 0)
+                .message(created + " of " + results.size() + " bookings created")
+                .total(results.size())
+                .created(created)
+                .failed(failed)
+                .results(results)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.bookingservice.domain.response;
 
 
 import com.example.bookingservice.domain.dto.BookingDto;
+import com.example.bookingservice.domain.dto.BookingPageDto;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,6 +25,12 @@ public class BookingListResponse {
     private String message;
     private List<BookingDto> bookings;
     private Integer count;
+
+    // Keyset pagination
+    private String nextCursor;
+    private Integer pageSize;
+    private Boolean hasMore;
+
     private String errorCode;
     private LocalDateTime timestamp;
 
@@ -40,6 +47,22 @@ public class BookingListResponse {
                 .build();
     }
 
+    /**
+     * Create success response with one page of bookings
+     */
+    public static BookingListResponse success(String message, BookingPageDto page) {
+        return BookingListResponse.builder()
+                .success(true)
+                .message(message)
+                .bookings(page.getBookings())
+                .count(page.getBookings() != null ? page.getBookings().size() : 0)
+                .nextCursor(page.getNextCursor())
+                .pageSize(page.getPageSize())
+                .hasMore(page.getHasMore())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
     /**
      * Create error response
      */
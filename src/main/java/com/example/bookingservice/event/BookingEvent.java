@@ -34,6 +34,7 @@ public class BookingEvent implements Serializable {
     private Integer bookingDurationMonths;
     private String status;
     private String notes;
+    private Long version;
 
     // Financial details
     private BigDecimal totalAmount;
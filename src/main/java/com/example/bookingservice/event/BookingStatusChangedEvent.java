@@ -0,0 +1,39 @@
+package com.example.bookingservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Slim event for a booking status transition, published instead of the full BookingEvent
+ * when booking.events.status-change-mode=delta. The full booking is served by GET /api/bookings/{id}/snapshot
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingStatusChangedEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String EVENT_TYPE = "BOOKING_STATUS_CHANGED";
+
+    // Event metadata
+    private String eventType;
+    private LocalDateTime eventTimestamp;
+    private String eventId;
+
+    // Transition
+    private String bookingId;
+    private String oldStatus;
+    private String newStatus;
+    private Map<String, Object> changedFields;   // Other fields written with the transition
+
+    // Booking version after the change, consumers drop older or duplicate deltas
+    private Long version;
+}
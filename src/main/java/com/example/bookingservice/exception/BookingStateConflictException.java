@@ -0,0 +1,11 @@
+package com.example.bookingservice.exception;
+
+/**
+ * The booking changed between reading and updating it, e.g. a concurrent cancel and confirm
+ */
+public class BookingStateConflictException extends RuntimeException {
+
+    public BookingStateConflictException(String message) {
+        super(message);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.bookingservice.exception;
 
 import com.example.bookingservice.business.impl.BookingPersistenceException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -22,6 +23,12 @@ public class GlobalExceptionHandler {
         return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    @ExceptionHandler({BookingStateConflictException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<Map<String, String>> handleStateConflict(RuntimeException ex) {
+        log.warn("Booking state conflict: {}", ex.getMessage());
+        return buildResponse(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
     @ExceptionHandler({BookingNotFoundException.class, AppointmentNotFoundException.class})
     public ResponseEntity<Map<String, String>> handleNotFound(RuntimeException ex) {
         log.warn("Not found: {}", ex.getMessage());
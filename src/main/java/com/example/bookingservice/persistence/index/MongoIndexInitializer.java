@@ -0,0 +1,96 @@
+package com.example.bookingservice.persistence.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Predicate;
+
+/**
+ * Creates the indexes declared on @Document entities once the application is ready
+ * Replaces spring.data.mongodb.auto-index-creation, which builds them synchronously during startup
+ * Unique indexes enforce invariants (one booking per appointment, one outbox row per event), they are built
+ * before the application reports ready and a failure aborts startup. The other indexes build in the background.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "spring.data.mongodb.auto-index-creation", havingValue = "false", matchIfMissing = true)
+public class MongoIndexInitializer {
+
+    public enum State { PENDING, BUILDING, READY, FAILED }
+
+    private final MongoTemplate mongoTemplate;
+    private volatile State state = State.PENDING;
+
+    /**
+     * Runs before readiness flips to ACCEPTING_TRAFFIC, which Spring Boot publishes after the ApplicationReadyEvent listeners
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndexes() {
+        state = State.BUILDING;
+        try {
+            ensureIndexes(MongoIndexInitializer::isUnique);
+        } catch (Exception e) {
+            state = State.FAILED;
+            throw new IllegalStateException("Unique Mongo indexes could not be created", e);
+        }
+
+        Thread builder = new Thread(this::ensureRemainingIndexes, "mongo-index-build");
+        builder.setDaemon(true);
+        builder.start();
+    }
+
+    void ensureRemainingIndexes() {
+        long start = System.currentTimeMillis();
+        try {
+            ensureIndexes(definition -> !isUnique(definition));
+            state = State.READY;
+            log.info("✅ Mongo indexes ready in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            state = State.FAILED;
+            log.error("❌ Mongo index build failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Idempotent, existing indexes with the same definition are left as is
+     */
+    void ensureIndexes(Predicate<IndexDefinition> selected) {
+        MongoMappingContext mappingContext = (MongoMappingContext) mongoTemplate.getConverter().getMappingContext();
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+
+        mappingContext.getPersistentEntities().stream()
+                .filter(entity -> entity.isAnnotationPresent(Document.class))
+                .forEach(entity -> {
+                    IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+                    resolver.resolveIndexFor(entity.getTypeInformation()).forEach(definition -> {
+                        if (selected.test(definition)) {
+                            indexOps.ensureIndex(definition);
+                        }
+                    });
+                    log.info("🗂️ Ensured indexes for collection {}", entity.getCollection());
+                });
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    private static boolean isUnique(IndexDefinition definition) {
+        return Boolean.TRUE.equals(definition.getIndexOptions().get("unique"));
+    }
+}
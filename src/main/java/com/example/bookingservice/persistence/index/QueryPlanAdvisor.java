@@ -0,0 +1,223 @@
+package com.example.bookingservice.persistence.index;
+
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.respository.BookingRepository;
+import com.example.bookingservice.persistence.respository.OutboxEventRepository;
+import com.example.bookingservice.persistence.respository.PaymentRepository;
+import com.example.bookingservice.persistence.respository.SagaStateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs explain for the query shapes of the repositories and flags COLLSCAN and in-memory SORT plans
+ * Derived queries are rebuilt from their method names, values are placeholders since plans depend on the shape only
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QueryPlanAdvisor {
+
+    private static final List<Class<?>> REPOSITORIES = List.of(
+            BookingRepository.class,
+            PaymentRepository.class,
+            SagaStateRepository.class,
+            OutboxEventRepository.class
+    );
+
+    // Keyset pages of BookingRepositoryCustom.findPage, per filter used by BookingServiceImpl
+    private static final Sort PAGE_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final List<String> PAGE_FILTERS = List.of("requesterId", "providerId", "propertyId", "status");
+
+    private final MongoTemplate mongoTemplate;
+
+    public List<QueryPlanReport> explainAll() {
+        List<QueryShape> shapes = new ArrayList<>();
+        for (Class<?> repository : REPOSITORIES) {
+            shapes.addAll(derivedQueryShapes(repository));
+        }
+        shapes.addAll(pageQueryShapes());
+        return shapes.stream().map(this::explain).toList();
+    }
+
+    private List<QueryShape> derivedQueryShapes(Class<?> repository) {
+        Class<?> domainType = AbstractRepositoryMetadata.getMetadata(repository).getDomainType();
+        List<QueryShape> shapes = new ArrayList<>();
+        Arrays.stream(repository.getDeclaredMethods())
+                .filter(method -> !method.isDefault() && !Modifier.isStatic(method.getModifiers()))
+                .sorted(Comparator.comparing(Method::getName))
+                .forEach(method -> {
+                    PartTree tree;
+                    try {
+                        tree = new PartTree(method.getName(), domainType);
+                    } catch (RuntimeException e) {
+                        log.debug("Skipping non-derived query {}.{}", repository.getSimpleName(), method.getName());
+                        return;
+                    }
+                    List<Criteria> ors = new ArrayList<>();
+                    for (PartTree.OrPart orPart : tree) {
+                        List<Criteria> ands = new ArrayList<>();
+                        orPart.forEach(part -> ands.add(criteriaFor(part)));
+                        ors.add(ands.size() == 1 ? ands.get(0) : new Criteria().andOperator(ands));
+                    }
+                    Criteria criteria = ors.size() == 1 ? ors.get(0) : new Criteria().orOperator(ors);
+                    shapes.add(new QueryShape(repository.getSimpleName(), method.getName(), domainType,
+                            criteria, tree.getSort()));
+                });
+        return shapes;
+    }
+
+    private List<QueryShape> pageQueryShapes() {
+        List<QueryShape> shapes = new ArrayList<>();
+        shapes.add(new QueryShape("BookingRepositoryCustom", "findPage", BookingEntity.class,
+                new Criteria(), PAGE_SORT));
+        for (String property : PAGE_FILTERS) {
+            Class<?> type = mongoTemplate.getConverter().getMappingContext()
+                    .getRequiredPersistentEntity(BookingEntity.class)
+                    .getRequiredPersistentProperty(property).getType();
+            shapes.add(new QueryShape("BookingRepositoryCustom", "findPage(" + property + ")", BookingEntity.class,
+                    Criteria.where(property).is(sampleValue(type)), PAGE_SORT));
+        }
+        return shapes;
+    }
+
+    private QueryPlanReport explain(QueryShape shape) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(shape.domainType());
+        QueryMapper queryMapper = new QueryMapper(mongoTemplate.getConverter());
+        Document filter = queryMapper.getMappedObject(shape.criteria().getCriteriaObject(), entity);
+        Document sort = new Document();
+        shape.sort().forEach(order -> sort.append(order.getProperty(), order.isAscending() ? 1 : -1));
+        Document mappedSort = queryMapper.getMappedSort(sort, entity);
+
+        QueryPlanReport.QueryPlanReportBuilder report = QueryPlanReport.builder()
+                .repository(shape.repository())
+                .method(shape.method())
+                .collection(entity.getCollection())
+                .filter(filter.toJson())
+                .sort(mappedSort.isEmpty() ? null : mappedSort.toJson());
+
+        try {
+            Document find = new Document("find", entity.getCollection()).append("filter", filter);
+            if (!mappedSort.isEmpty()) {
+                find.append("sort", mappedSort);
+            }
+            Document result = mongoTemplate.getDb().runCommand(
+                    new Document("explain", find).append("verbosity", "queryPlanner"));
+            Document winningPlan = result.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+
+            List<String> stages = new ArrayList<>();
+            Set<String> indexes = new LinkedHashSet<>();
+            collectStages(winningPlan, stages, indexes);
+            boolean collectionScan = stages.contains("COLLSCAN");
+            boolean inMemorySort = stages.contains("SORT");
+            if (collectionScan || inMemorySort) {
+                log.warn("⚠️ Query plan of {}.{} uses {}", shape.repository(), shape.method(), stages);
+            }
+            return report.stages(stages)
+                    .indexes(new ArrayList<>(indexes))
+                    .collectionScan(collectionScan)
+                    .inMemorySort(inMemorySort)
+                    .flagged(collectionScan || inMemorySort)
+                    .build();
+        } catch (Exception e) {
+            log.error("❌ Explain failed for {}.{}: {}", shape.repository(), shape.method(), e.getMessage());
+            return report.error(e.getMessage()).build();
+        }
+    }
+
+    /**
+     * Stages of the plan tree, classic and slot based engine layouts
+     */
+    static void collectStages(Document plan, List<String> stages, Set<String> indexes) {
+        if (plan == null) {
+            return;
+        }
+        if (plan.getString("stage") != null) {
+            stages.add(plan.getString("stage"));
+        }
+        if (plan.getString("indexName") != null) {
+            indexes.add(plan.getString("indexName"));
+        }
+        for (String key : List.of("queryPlan", "inputStage", "outerStage", "innerStage")) {
+            if (plan.get(key) instanceof Document child) {
+                collectStages(child, stages, indexes);
+            }
+        }
+        if (plan.get("inputStages") instanceof List<?> children) {
+            children.stream()
+                    .filter(Document.class::isInstance)
+                    .forEach(child -> collectStages((Document) child, stages, indexes));
+        }
+    }
+
+    private Criteria criteriaFor(Part part) {
+        String property = part.getProperty().toDotPath();
+        Object value = sampleValue(part.getProperty().getLeafType());
+        Criteria criteria = Criteria.where(property);
+        return switch (part.getType()) {
+            case NEGATING_SIMPLE_PROPERTY -> criteria.ne(value);
+            case BEFORE, LESS_THAN -> criteria.lt(value);
+            case LESS_THAN_EQUAL -> criteria.lte(value);
+            case AFTER, GREATER_THAN -> criteria.gt(value);
+            case GREATER_THAN_EQUAL -> criteria.gte(value);
+            case BETWEEN -> criteria.gt(value).lt(value);
+            case IN -> criteria.in(List.of(value));
+            case NOT_IN -> criteria.nin(List.of(value));
+            case TRUE -> criteria.is(true);
+            case FALSE -> criteria.is(false);
+            case IS_NULL -> criteria.is(null);
+            case IS_NOT_NULL -> criteria.ne(null);
+            default -> criteria.is(value);
+        };
+    }
+
+    private static Object sampleValue(Class<?> type) {
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        if (type == Boolean.class || type == boolean.class) {
+            return true;
+        }
+        if (type == Long.class || type == long.class) {
+            return 0L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 0;
+        }
+        if (type == BigDecimal.class) {
+            return BigDecimal.ZERO;
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now();
+        }
+        if (type == LocalDate.class) {
+            return LocalDate.now();
+        }
+        return "explain";
+    }
+
+    private record QueryShape(String repository, String method, Class<?> domainType, Criteria criteria, Sort sort) {
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.bookingservice.persistence.index;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin actuator endpoint /actuator/queryplans
+ * Explains every repository query shape against the live database, flagged entries need an index
+ */
+@Component
+@Endpoint(id = "queryplans")
+@RequiredArgsConstructor
+public class QueryPlanEndpoint {
+
+    private final QueryPlanAdvisor queryPlanAdvisor;
+    private final ObjectProvider<MongoIndexInitializer> indexInitializer;
+
+    @ReadOperation
+    public Map<String, Object> queryPlans() {
+        List<QueryPlanReport> reports = queryPlanAdvisor.explainAll();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        MongoIndexInitializer initializer = indexInitializer.getIfAvailable();
+        body.put("indexBuild", initializer != null ? initializer.getState() : "AUTO_INDEX_CREATION");
+        body.put("queries", reports.size());
+        body.put("flagged", reports.stream().filter(r -> Boolean.TRUE.equals(r.getFlagged())).count());
+        body.put("plans", reports);
+        return body;
+    }
+}
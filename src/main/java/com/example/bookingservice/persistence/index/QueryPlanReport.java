@@ -0,0 +1,33 @@
+package com.example.bookingservice.persistence.index;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Winning plan of one repository query shape
+ * flagged is true when the plan scans the whole collection or sorts in memory
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QueryPlanReport {
+
+    private String repository;
+    private String method;
+    private String collection;
+    private String filter;
+    private String sort;
+    private List<String> stages;
+    private List<String> indexes;
+    private Boolean collectionScan;
+    private Boolean inMemorySort;
+    private Boolean flagged;
+    private String error;
+}
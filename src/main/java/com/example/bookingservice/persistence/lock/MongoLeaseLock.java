@@ -0,0 +1,83 @@
+package com.example.bookingservice.persistence.lock;
+
+import com.example.bookingservice.persistence.model.LeaseLock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Leader election on a lease document in the locks collection
+ * Acquiring is a single findAndModify that only matches a free, expired or own lease,
+ * so at most one replica holds a lock at a time and a crashed holder is replaced after the lease runs out
+ */
+@Slf4j
+@Component
+public class MongoLeaseLock {
+
+    private final MongoTemplate mongoTemplate;
+    private final String ownerId;
+
+    public MongoLeaseLock(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.ownerId = hostName() + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * Acquire or renew the lock for the given lease
+     *
+     * @return true when this replica holds the lock until now + lease
+     */
+    public boolean tryAcquire(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        Query claimable = Query.query(Criteria.where("id").is(name)
+                .orOperator(
+                        Criteria.where("expiresAt").lt(now),
+                        Criteria.where("owner").is(ownerId)
+                ));
+        Update update = new Update()
+                .set("owner", ownerId)
+                .set("acquiredAt", now)
+                .set("expiresAt", now.plus(lease));
+        try {
+            LeaseLock lock = mongoTemplate.findAndModify(claimable, update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), LeaseLock.class);
+            return lock != null && ownerId.equals(lock.getOwner());
+        } catch (DuplicateKeyException e) {
+            // Lock document exists and is held by another replica, the upsert collided on _id
+            log.debug("🔒 Lock {} is held by another replica", name);
+            return false;
+        }
+    }
+
+    /**
+     * Give up the lock early, a no-op if another replica holds it
+     */
+    public void release(String name) {
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("id").is(name).and("owner").is(ownerId)),
+                new Update().set("expiresAt", LocalDateTime.now()),
+                LeaseLock.class);
+    }
+
+    public String getOwnerId() {
+        return ownerId;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "booking-service";
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.bookingservice.persistence.migration;
+
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Gives bookings written before the version field existed a starting version
+ * Without it save() takes them for new documents and fails on the duplicate _id
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "booking.mongo.version-backfill.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingVersionBackfill {
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            UpdateResult result = mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("version").exists(false)),
+                    new Update().set("version", 0L),
+                    BookingEntity.class);
+            if (result.getModifiedCount() > 0) {
+                log.info("🔢 Initialized version of {} bookings", result.getModifiedCount());
+            }
+        } catch (Exception e) {
+            log.error("❌ Booking version backfill failed: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bookingservice.persistence.migration;
+
+import com.example.bookingservice.persistence.model.SagaPayload;
+import com.example.bookingservice.persistence.model.SagaState;
+import com.example.bookingservice.persistence.model.SagaStep;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Rewrites sagas stored with step name lists and the untyped sagaData map
+ * into step bitmasks and a typed SagaPayload
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "booking.mongo.saga-migration.enabled", havingValue = "true", matchIfMissing = true)
+public class SagaStateMigration {
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        Query legacy = Query.query(new Criteria().orOperator(
+                Criteria.where("sagaData").exists(true),
+                Criteria.where("completedSteps").exists(true),
+                Criteria.where("failedSteps").exists(true)));
+
+        int migrated = 0;
+        try (Stream<Document> sagas = mongoTemplate.stream(legacy, Document.class,
+                mongoTemplate.getCollectionName(SagaState.class))) {
+            for (Document saga : (Iterable<Document>) sagas::iterator) {
+                migrate(saga);
+                migrated++;
+            }
+        } catch (Exception e) {
+            log.error("❌ Saga state migration failed after {} sagas: {}", migrated, e.getMessage(), e);
+            return;
+        }
+        if (migrated > 0) {
+            log.info("🔢 Migrated {} sagas to step bitmasks and typed payloads", migrated);
+        }
+    }
+
+    void migrate(Document saga) {
+        Update update = new Update()
+                .set("completedStepMask", mask(saga.getList("completedSteps", String.class)))
+                .set("failedStepMask", mask(saga.getList("failedSteps", String.class)))
+                .unset("completedSteps")
+                .unset("failedSteps")
+                .unset("sagaData");
+
+        Document sagaData = saga.get("sagaData", Document.class);
+        if (sagaData != null) {
+            // Booking request fields and the payment fields share the payload's field names
+            Document fields = new Document();
+            Document bookingRequest = sagaData.get("bookingRequest", Document.class);
+            if (bookingRequest != null) {
+                fields.putAll(bookingRequest);
+            }
+            fields.put("transactionId", sagaData.get("transactionId"));
+            fields.put("paymentCompletedAt", sagaData.get("paymentCompletedAt"));
+            fields.remove("_class");
+
+            SagaPayload payload = mongoTemplate.getConverter().read(SagaPayload.class, fields);
+            payload.setVersion(SagaPayload.CURRENT_VERSION);
+            update.set("payload", payload);
+        }
+
+        mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(saga.get("_id"))), update, SagaState.class);
+    }
+
+    private static int mask(List<String> stepNames) {
+        int mask = 0;
+        if (stepNames == null) {
+            return mask;
+        }
+        for (String name : stepNames) {
+            try {
+                mask |= SagaStep.valueOf(name).bit();
+            } catch (IllegalArgumentException e) {
+                log.warn("⚠️ Dropping unknown saga step {}", name);
+            }
+        }
+        return mask;
+    }
+}
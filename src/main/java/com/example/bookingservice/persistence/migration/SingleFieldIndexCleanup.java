@@ -0,0 +1,57 @@
+package com.example.bookingservice.persistence.migration;
+
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.PaymentEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Drops the single-field @Indexed indexes replaced by compound indexes with the same leading field
+ * Index builds never remove indexes, without this they stay on existing databases and keep costing writes
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "booking.mongo.index-cleanup.enabled", havingValue = "true", matchIfMissing = true)
+public class SingleFieldIndexCleanup {
+
+    // @Indexed names its index after the field
+    static final Map<Class<?>, List<String>> REPLACED_INDEXES = Map.of(
+            BookingEntity.class, List.of("requesterId", "providerId", "propertyId", "status", "createdAt"),
+            PaymentEntity.class, List.of("bookingId", "payerId")
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void dropReplacedIndexes() {
+        REPLACED_INDEXES.forEach((entityClass, indexNames) -> {
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(entityClass);
+                Set<String> existing = indexOps.getIndexInfo().stream()
+                        .map(IndexInfo::getName)
+                        .collect(Collectors.toSet());
+                indexNames.stream()
+                        .filter(existing::contains)
+                        .forEach(indexName -> {
+                            indexOps.dropIndex(indexName);
+                            log.info("🗑️ Dropped index {} on {}", indexName, mongoTemplate.getCollectionName(entityClass));
+                        });
+            } catch (Exception e) {
+                log.error("❌ Index cleanup failed for {}: {}", entityClass.getSimpleName(), e.getMessage(), e);
+            }
+        });
+    }
+}
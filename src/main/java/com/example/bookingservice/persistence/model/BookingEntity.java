@@ -6,6 +6,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -15,15 +18,34 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "bookings")
+@CompoundIndexes({
+        // Keyset pagination: (createdAt, _id) descending, optionally behind an equality filter
+        @CompoundIndex(name = "created_page_idx", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "requester_page_idx", def = "{'requesterId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "provider_page_idx", def = "{'providerId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "property_page_idx", def = "{'propertyId': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "status_page_idx", def = "{'status': 1, 'createdAt': -1, '_id': -1}"),
+        // Overdue scan: deadline range, then the status exclusion
+        @CompoundIndex(name = "deadline_status_idx", def = "{'paymentDeadline': 1, 'status': 1}"),
+        // Lifecycle sweeps: CONFIRMED -> ACTIVE on move-in, ACTIVE -> COMPLETED on move-out
+        @CompoundIndex(name = "status_move_in_idx", def = "{'status': 1, 'moveInDate': 1}"),
+        @CompoundIndex(name = "status_move_out_idx", def = "{'status': 1, 'moveOutDate': 1}"),
+        // OutboxRelay: bookings with events still to move to the outbox
+        @CompoundIndex(name = "pending_events_idx", def = "{'pendingEvents.eventId': 1}", sparse = true)
+})
 public class BookingEntity {
 
     @Id
     private String id;
 
+    // Bumped by every write, save() of a stale copy fails instead of overwriting a newer one
+    @Version
+    private Long version;
+
     // ========== APPOINTMENT REFERENCE ==========
     @Indexed(unique = true)
     private String appointmentId;
@@ -31,7 +53,6 @@ public class BookingEntity {
     private LocalDateTime appointmentDateTime;
 
     // ========== PROPERTY DETAILS ==========
-    @Indexed
     private Long propertyId;
     private String propertyTitle;
     private String propertyAddress;
@@ -44,7 +65,6 @@ public class BookingEntity {
     private String propertyDescription;
 
     // ========== REQUESTER (TENANT) DETAILS ==========
-    @Indexed
     private Long requesterId;
     private String requesterUsername;
     private String requesterName;
@@ -55,7 +75,6 @@ public class BookingEntity {
     private String requesterProfileImage;
 
     // ========== PROVIDER (LANDLORD) DETAILS ==========
-    @Indexed
     private Long providerId;
     private String providerUsername;
     private String providerName;
@@ -82,7 +101,6 @@ public class BookingEntity {
     private BigDecimal remainingAmount;
 
     // ========== STATUS ==========
-    @Indexed
     private BookingStatus status;
     private String notes;
     private PaymentStatus paymentStatus;
@@ -110,13 +128,17 @@ public class BookingEntity {
     private LocalDateTime contractSignedDate;
     private String contractNumber;
 
+    // ========== OUTBOX ==========
+    // Events written in the same update as the change that raised them, moved to the outbox by the OutboxRelay
+    private List<PendingEvent> pendingEvents;
+
     // ========== TIMESTAMPS ==========
-    @Indexed
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
     // ========== ADDITIONAL INFO ==========
     private Boolean emailNotificationSent;
+    @Indexed(unique = true, sparse = true)
     private String confirmationToken;
     private Boolean isActive;
     private Boolean requiresApproval;
@@ -0,0 +1,29 @@
+package com.example.bookingservice.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lease Lock
+ * Named lock held by one replica until expiresAt, the holder renews it by acquiring again
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "locks")
+public class LeaseLock {
+
+    @Id
+    private String id;                  // Lock name
+
+    private String owner;               // Replica holding the lease
+    private LocalDateTime acquiredAt;
+    private LocalDateTime expiresAt;
+}
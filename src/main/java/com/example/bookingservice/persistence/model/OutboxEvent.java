@@ -0,0 +1,53 @@
+package com.example.bookingservice.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox Entity
+ * Event written next to the booking/payment/saga change and published to RabbitMQ by the OutboxRelay
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "outbox")
+@CompoundIndex(name = "status_created_idx", def = "{'status': 1, 'createdAt': 1}")
+public class OutboxEvent {
+
+    @Id
+    private String id;
+
+    // ========== EVENT ==========
+    @Indexed(unique = true)
+    private String eventId;
+    private String eventType;
+    private String aggregateId;         // Booking ID
+
+    // ========== ROUTING ==========
+    private String exchange;
+    private String routingKey;
+    private Object payload;             // Sent through the RabbitTemplate message converter
+
+    // ========== RELAY STATE ==========
+    private OutboxStatus status;
+    private Integer attempts;
+    private String lastError;
+    private LocalDateTime nextAttemptAt;  // Set after a nack/return, the relay skips the event until then
+    private String claimedBy;               // Relay replica publishing the event, others skip it
+    private LocalDateTime claimExpiresAt;   // until the claim runs out, e.g. after a crash
+
+    // ========== TIMESTAMPS ==========
+    private LocalDateTime createdAt;
+
+    @Indexed(expireAfter = "7d")        // Sent events are kept a week for troubleshooting
+    private LocalDateTime sentAt;
+}
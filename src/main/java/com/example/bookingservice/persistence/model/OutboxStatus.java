@@ -0,0 +1,6 @@
+package com.example.bookingservice.persistence.model;
+
+public enum OutboxStatus {
+
+    PENDING, SENT
+}
@@ -6,6 +6,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
@@ -21,13 +23,19 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "payments")
+@CompoundIndexes({
+        // findByBookingIdAndStatus / countByBookingIdAndStatus, the bookingId prefix serves findByBookingId
+        @CompoundIndex(name = "booking_status_idx", def = "{'bookingId': 1, 'status': 1}"),
+        @CompoundIndex(name = "payer_date_idx", def = "{'payerId': 1, 'paymentDate': -1}"),
+        // Stale payment recovery, findByStatusAndUpdatedAtBefore
+        @CompoundIndex(name = "status_updated_idx", def = "{'status': 1, 'updatedAt': 1}")
+})
 public class PaymentEntity {
 
     @Id
     private String id;
 
     // ========== RELATIONSHIP ==========
-    @Indexed
     private String bookingId;           // FK to Booking (Many-to-One)
 
     // ========== PAYMENT DETAILS ==========
@@ -40,7 +48,6 @@ public class PaymentEntity {
     private PaymentStatus status;       // PENDING, COMPLETED, FAILED
 
     // ========== PAYER INFO ==========
-    @Indexed
     private Long payerId;
     private String payerName;
     private String payerEmail;
@@ -0,0 +1,30 @@
+package com.example.bookingservice.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Event embedded in BookingEntity.pendingEvents
+ * Written in the same update as the booking change, so both are stored or neither is,
+ * the OutboxRelay copies it into the outbox collection and removes it from the booking
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingEvent {
+
+    private String eventId;
+    private String eventType;
+
+    // ========== ROUTING ==========
+    private String exchange;
+    private String routingKey;
+    private Object payload;
+
+    private LocalDateTime createdAt;
+}
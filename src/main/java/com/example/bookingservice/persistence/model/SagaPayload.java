@@ -0,0 +1,46 @@
+package com.example.bookingservice.persistence.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data the saga needs to retry or compensate its steps
+ * Embedded in SagaState with a concrete type, so it is stored without type hints
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SagaPayload {
+
+    public static final int CURRENT_VERSION = 1;
+
+    /**
+     * Schema version, bumped when fields change meaning so old sagas can still be read
+     */
+    @Builder.Default
+    private int version = CURRENT_VERSION;
+
+    /**
+     * Booking request, replayed when the booking step is retried
+     * The appointment id is the saga's own appointmentId
+     */
+    private LocalDateTime moveInDate;
+    private LocalDateTime moveOutDate;
+    private Integer bookingDurationMonths;
+    private String notes;
+
+    /**
+     * Payment step
+     */
+    private String transactionId;
+    private LocalDateTime paymentCompletedAt;
+
+    public boolean hasBookingRequest() {
+        return moveInDate != null && moveOutDate != null && bookingDurationMonths != null;
+    }
+}
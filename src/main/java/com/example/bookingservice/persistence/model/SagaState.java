@@ -5,13 +5,12 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  * SAGA State Entity
@@ -22,6 +21,13 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "saga_state")
+@CompoundIndexes({
+        // findByStatus and the stale saga scan findByStatusAndLastUpdatedAtBefore
+        @CompoundIndex(name = "status_updated_idx", def = "{'status': 1, 'lastUpdatedAt': 1}"),
+        @CompoundIndex(name = "compensation_status_idx", def = "{'compensationRequired': 1, 'status': 1}"),
+        // Due retries, claimed by the SagaRetryScheduler
+        @CompoundIndex(name = "retry_due_idx", def = "{'status': 1, 'nextRetryAt': 1}")
+})
 public class SagaState {
 
     @Id
@@ -35,7 +41,9 @@ public class SagaState {
     /**
      * Related business entity IDs
      */
+    @Indexed
     private String bookingId;
+    @Indexed
     private String appointmentId;
     private Long propertyId;
     private Long requesterId;
@@ -43,9 +51,8 @@ public class SagaState {
 
     /**
      * Current step in the saga
-     * e.g., "APPOINTMENT_CONFIRMED", "BOOKING_CREATED", "PAYMENT_COMPLETED"
      */
-    private String currentStep;
+    private SagaStep currentStep;
 
     /**
      * Status of the saga
@@ -53,22 +60,19 @@ public class SagaState {
     private SagaStatus status;
 
     /**
-     * Steps that have been successfully completed
+     * Steps that have been successfully completed, SagaStep bitmask
      */
-    @Builder.Default
-    private List<String> completedSteps = new ArrayList<>();
+    private int completedStepMask;
 
     /**
-     * Steps that failed and need compensation
+     * Steps that failed and need compensation, SagaStep bitmask
      */
-    @Builder.Default
-    private List<String> failedSteps = new ArrayList<>();
+    private int failedStepMask;
 
     /**
-     * Arbitrary data needed for saga execution
+     * Data needed for saga execution
      */
-    @Builder.Default
-    private Map<String, Object> sagaData = new HashMap<>();
+    private SagaPayload payload;
 
     /**
      * Error information if saga failed
@@ -92,6 +96,12 @@ public class SagaState {
     @Builder.Default
     private Integer maxRetries = 3;
 
+    /**
+     * When a RETRYING saga is due, null when no retry is scheduled
+     * Pushed out by the claim lease while a retry runs
+     */
+    private LocalDateTime nextRetryAt;
+
     /**
      * Compensation tracking
      */
@@ -99,48 +109,43 @@ public class SagaState {
     private LocalDateTime compensationStartedAt;
     private LocalDateTime compensationCompletedAt;
 
+    /**
+     * Watchdog claim, the replica recovering a stale saga holds it until claimExpiresAt
+     */
+    private String claimedBy;
+    private LocalDateTime claimExpiresAt;
+
     /**
      * Helper method to add completed step
      */
-    public void addCompletedStep(String step) {
-        if (completedSteps == null) {
-            completedSteps = new ArrayList<>();
-        }
-        if (!completedSteps.contains(step)) {
-            completedSteps.add(step);
-        }
+    public void addCompletedStep(SagaStep step) {
+        completedStepMask |= step.bit();
         this.lastUpdatedAt = LocalDateTime.now();
     }
 
     /**
      * Helper method to add failed step
      */
-    public void addFailedStep(String step) {
-        if (failedSteps == null) {
-            failedSteps = new ArrayList<>();
-        }
-        if (!failedSteps.contains(step)) {
-            failedSteps.add(step);
-        }
+    public void addFailedStep(SagaStep step) {
+        failedStepMask |= step.bit();
         this.lastUpdatedAt = LocalDateTime.now();
     }
 
     /**
-     * Helper method to update saga data
+     * Helper method to check if step was completed
      */
-    public void putSagaData(String key, Object value) {
-        if (sagaData == null) {
-            sagaData = new HashMap<>();
-        }
-        sagaData.put(key, value);
-        this.lastUpdatedAt = LocalDateTime.now();
+    public boolean isStepCompleted(SagaStep step) {
+        return step.isIn(completedStepMask);
     }
 
     /**
-     * Helper method to check if step was completed
+     * Helper method to get the payload, created on first use
      */
-    public boolean isStepCompleted(String step) {
-        return completedSteps != null && completedSteps.contains(step);
+    public SagaPayload payload() {
+        if (payload == null) {
+            payload = new SagaPayload();
+        }
+        return payload;
     }
 
     /**
@@ -0,0 +1,43 @@
+package com.example.bookingservice.persistence.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Steps of the booking saga
+ * Completed and failed steps are stored as bitmasks of 1 << ordinal, so new steps are appended and never reordered
+ */
+public enum SagaStep {
+
+    APPOINTMENT_CONFIRMED,
+    BOOKING_CREATED,
+    PAYMENT_COMPLETED,
+    PROPERTY_UPDATED,
+    COMPLETED;
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean isIn(int mask) {
+        return (mask & bit()) != 0;
+    }
+
+    public static int maskOf(Iterable<SagaStep> steps) {
+        int mask = 0;
+        for (SagaStep step : steps) {
+            mask |= step.bit();
+        }
+        return mask;
+    }
+
+    public static Set<SagaStep> fromMask(int mask) {
+        Set<SagaStep> steps = EnumSet.noneOf(SagaStep.class);
+        for (SagaStep step : values()) {
+            if (step.isIn(mask)) {
+                steps.add(step);
+            }
+        }
+        return steps;
+    }
+}
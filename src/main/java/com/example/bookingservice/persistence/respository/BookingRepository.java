@@ -2,16 +2,19 @@ package com.example.bookingservice.persistence.respository;
 
 import com.example.bookingservice.persistence.model.BookingEntity;
 import com.example.bookingservice.persistence.model.BookingStatus;
+import com.example.bookingservice.persistence.model.PaymentStatus;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends MongoRepository<BookingEntity, String> {
+public interface BookingRepository extends MongoRepository<BookingEntity, String>, BookingRepositoryCustom {
 
     // Find by appointment
     List<BookingEntity> findByAppointmentId(String appointmentId);
@@ -40,4 +43,13 @@ public interface BookingRepository extends MongoRepository<BookingEntity, String
     List<BookingEntity> findByPaymentDeadlineBeforeAndStatusNot(
             LocalDateTime deadline, BookingStatus status
     );
+
+    // Lifecycle sweeps, one page at a time
+    List<BookingEntity> findByPaymentDeadlineBeforeAndStatusInAndPaymentStatusNot(
+            LocalDateTime deadline, Collection<BookingStatus> statuses, PaymentStatus paymentStatus, Pageable pageable
+    );
+
+    List<BookingEntity> findByStatusAndMoveInDateBefore(BookingStatus status, LocalDateTime moveInDate, Pageable pageable);
+
+    List<BookingEntity> findByStatusAndMoveOutDateBefore(BookingStatus status, LocalDateTime moveOutDate, Pageable pageable);
 }
@@ -0,0 +1,55 @@
+package com.example.bookingservice.persistence.respository;
+
+import com.example.bookingservice.persistence.model.BookingEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Booking queries that derived finders cannot express
+ */
+public interface BookingRepositoryCustom {
+
+    /**
+     * Keyset page ordered by (createdAt, _id) descending, read from a secondary when allowed
+     *
+     * @param filter optional filter, e.g. requesterId or status
+     * @param after  cursor of the last booking of the previous page, null for the first page
+     * @param limit  maximum number of bookings to return
+     * @param fields fields to load, null loads the whole document
+     */
+    List<BookingEntity> findPage(Criteria filter, BookingCursor after, int limit, Set<String> fields);
+
+    /**
+     * All bookings matching the filter, read from a secondary when allowed
+     *
+     * @param filter optional filter, null matches every booking
+     */
+    List<BookingEntity> findMatching(Criteria filter);
+
+    /**
+     * Load a booking with only the given fields, null loads the whole document
+     */
+    Optional<BookingEntity> findProjectedById(String id, Set<String> fields);
+
+    /**
+     * Unordered bulk insert, every booking is attempted even when others fail
+     *
+     * @return Mongo error code by position in the given list for the bookings that were not inserted
+     */
+    Map<Integer, Integer> insertUnordered(List<BookingEntity> bookings);
+
+    /**
+     * Atomic field-level update, applied only while the booking still matches the expected state
+     * Stamps updatedAt and bumps the version
+     *
+     * @param expected precondition on top of the id, e.g. the allowed source statuses, null for none
+     * @param changes  the fields to change
+     * @return the booking after the update, empty when it does not exist or no longer matches
+     */
+    Optional<BookingEntity> updateIfMatches(String id, Criteria expected, Update changes);
+}
@@ -0,0 +1,128 @@
+package com.example.bookingservice.persistence.respository;
+
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.routing.SecondaryReadRouter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+
+    private static final Sort PAGE_SORT = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    private final MongoTemplate mongoTemplate;
+    private final SecondaryReadRouter secondaryReadRouter;
+
+    @Override
+    public List<BookingEntity> findPage(Criteria filter, BookingCursor after, int limit, Set<String> fields) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (filter != null) {
+            criteria.add(filter);
+        }
+        if (after != null) {
+            criteria.add(afterCursor(after));
+        }
+
+        Query query = criteria.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(criteria));
+        query.with(PAGE_SORT).limit(limit);
+        // The next cursor is built from createdAt and _id, so they are always loaded
+        project(query, fields, "createdAt");
+
+        return secondaryReadRouter.find(query, BookingEntity.class);
+    }
+
+    @Override
+    public List<BookingEntity> findMatching(Criteria filter) {
+        Query query = filter == null ? new Query() : new Query(filter);
+        return secondaryReadRouter.find(query, BookingEntity.class);
+    }
+
+    @Override
+    public Optional<BookingEntity> findProjectedById(String id, Set<String> fields) {
+        Query query = new Query(Criteria.where("id").is(id));
+        project(query, fields);
+        return Optional.ofNullable(mongoTemplate.findOne(query, BookingEntity.class));
+    }
+
+    /**
+     * Push the field selection down to Mongo, _id is always returned
+     */
+    private void project(Query query, Set<String> fields, String... required) {
+        if (fields == null) {
+            return;
+        }
+        query.fields().include(fields.toArray(String[]::new));
+        if (required.length > 0) {
+            query.fields().include(required);
+        }
+    }
+
+    @Override
+    public Map<Integer, Integer> insertUnordered(List<BookingEntity> bookings) {
+        if (bookings.isEmpty()) {
+            return Map.of();
+        }
+        // Bulk inserts skip version initialization, later saves would otherwise treat them as new
+        bookings.stream()
+                .filter(booking -> booking.getVersion() == null)
+                .forEach(booking -> booking.setVersion(0L));
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookingEntity.class)
+                    .insert(bookings)
+                    .execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, Integer> failures = new HashMap<>();
+            e.getErrors().forEach(error -> failures.put(error.getIndex(), error.getCode()));
+            return failures;
+        }
+    }
+
+    @Override
+    public Optional<BookingEntity> updateIfMatches(String id, Criteria expected, Update changes) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (expected != null) {
+            criteria = new Criteria().andOperator(criteria, expected);
+        }
+        changes.set("updatedAt", LocalDateTime.now()).inc("version", 1);
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                new Query(criteria),
+                changes,
+                FindAndModifyOptions.options().returnNew(true),
+                BookingEntity.class));
+    }
+
+    /**
+     * (createdAt, _id) strictly after the cursor in descending order
+     */
+    private Criteria afterCursor(BookingCursor after) {
+        if (after.getCreatedAt() == null) {
+            // Missing createdAt sorts last when descending, only the _id tie-break is left
+            return Criteria.where("createdAt").is(null).and("id").lt(after.getId());
+        }
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(after.getCreatedAt()),
+                Criteria.where("createdAt").is(after.getCreatedAt()).and("id").lt(after.getId()),
+                // Bookings without createdAt come after every dated one
+                Criteria.where("createdAt").is(null)
+        );
+    }
+}
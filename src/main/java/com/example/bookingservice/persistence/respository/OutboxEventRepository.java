@@ -0,0 +1,16 @@
+package com.example.bookingservice.persistence.respository;
+
+import com.example.bookingservice.persistence.model.OutboxEvent;
+import com.example.bookingservice.persistence.model.OutboxStatus;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxEventRepository extends MongoRepository<OutboxEvent, String> {
+
+    Optional<OutboxEvent> findFirstByStatusOrderByCreatedAtAsc(OutboxStatus status);
+
+    long countByStatus(OutboxStatus status);
+}
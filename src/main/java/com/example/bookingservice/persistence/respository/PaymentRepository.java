@@ -2,14 +2,16 @@ package com.example.bookingservice.persistence.respository;
 
 import com.example.bookingservice.persistence.model.PaymentEntity;
 import com.example.bookingservice.persistence.model.PaymentStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PaymentRepository extends MongoRepository<PaymentEntity, String> {
+public interface PaymentRepository extends MongoRepository<PaymentEntity, String>, PaymentRepositoryCustom {
 
 
     // Find by booking and status
@@ -23,6 +25,7 @@ public interface PaymentRepository extends MongoRepository<PaymentEntity, String
 
 
         // ✅ CORRECT: Returns Optional<Payment>
+        // Fails once a booking has a failed attempt next to its payment, look up BookingEntity.paymentId instead
         Optional<PaymentEntity> findByBookingId(String bookingId);
 
         // For multiple payments if needed
@@ -31,4 +34,7 @@ public interface PaymentRepository extends MongoRepository<PaymentEntity, String
         List<PaymentEntity> findByPayerId(Long payerId);
         Optional<PaymentEntity> findByTransactionId(String transactionId);
         List<PaymentEntity> findByStatus(PaymentStatus status);
+
+        // Payments stuck in a status since before the cutoff, oldest first
+        List<PaymentEntity> findByStatusAndUpdatedAtBefore(PaymentStatus status, LocalDateTime cutoff, Pageable pageable);
     }
@@ -0,0 +1,23 @@
+package com.example.bookingservice.persistence.respository;
+
+import com.example.bookingservice.persistence.model.PaymentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Optional;
+
+/**
+ * Conditional payment updates, the gateway completion and the stale payment recovery race on the same payment
+ */
+public interface PaymentRepositoryCustom {
+
+    /**
+     * Atomic field-level update, applied only while the payment still matches the expected state
+     * Stamps updatedAt
+     *
+     * @param expected precondition on top of the id, e.g. status PROCESSING, null for none
+     * @param changes  the fields to change
+     * @return the payment after the update, empty when it does not exist or no longer matches
+     */
+    Optional<PaymentEntity> updateIfMatches(String id, Criteria expected, Update changes);
+}
@@ -0,0 +1,33 @@
+package com.example.bookingservice.persistence.respository;
+
+import com.example.bookingservice.persistence.model.PaymentEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class PaymentRepositoryCustomImpl implements PaymentRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<PaymentEntity> updateIfMatches(String id, Criteria expected, Update changes) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (expected != null) {
+            criteria = new Criteria().andOperator(criteria, expected);
+        }
+        changes.set("updatedAt", LocalDateTime.now());
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                new Query(criteria),
+                changes,
+                FindAndModifyOptions.options().returnNew(true),
+                PaymentEntity.class));
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.bookingservice.persistence.respository;
 import com.example.bookingservice.persistence.model.SagaState;
 import com.example.bookingservice.persistence.model.SagaStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,7 +14,7 @@ import java.util.Optional;
  * Repository for SAGA State persistence
  */
 @Repository
-public interface SagaStateRepository extends MongoRepository<SagaState, String> {
+public interface SagaStateRepository extends MongoRepository<SagaState, String>, SagaStateRepositoryCustom {
 
     /**
      * Find saga by booking ID
@@ -29,6 +31,11 @@ public interface SagaStateRepository extends MongoRepository<SagaState, String>
      */
     List<SagaState> findByStatus(SagaStatus status);
 
+    /**
+     * Find sagas in any of the given statuses
+     */
+    List<SagaState> findByStatusIn(Collection<SagaStatus> statuses);
+
     /**
      * Find sagas by status and type
      */
@@ -49,6 +56,16 @@ public interface SagaStateRepository extends MongoRepository<SagaState, String>
      */
     List<SagaState> findByStatusAndLastUpdatedAtBefore(SagaStatus status, LocalDateTime before);
 
+    /**
+     * One page of stale sagas, used by the watchdog
+     */
+    List<SagaState> findByStatusAndLastUpdatedAtBefore(SagaStatus status, LocalDateTime before, Pageable pageable);
+
+    /**
+     * Count stale sagas
+     */
+    long countByStatusAndLastUpdatedAtBefore(SagaStatus status, LocalDateTime before);
+
     /**
      * Check if saga exists for booking
      */
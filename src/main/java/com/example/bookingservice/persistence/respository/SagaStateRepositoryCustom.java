@@ -0,0 +1,16 @@
+package com.example.bookingservice.persistence.respository;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Field-level saga updates, instead of rewriting the whole document on every step
+ */
+public interface SagaStateRepositoryCustom {
+
+    /**
+     * Apply the changes to one saga and stamp lastUpdatedAt
+     *
+     * @return whether the saga exists
+     */
+    boolean updateFields(String sagaId, Update changes);
+}
@@ -0,0 +1,23 @@
+package com.example.bookingservice.persistence.respository;
+
+import com.example.bookingservice.persistence.model.SagaState;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class SagaStateRepositoryCustomImpl implements SagaStateRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean updateFields(String sagaId, Update changes) {
+        changes.set("lastUpdatedAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("id").is(sagaId)), changes, SagaState.class)
+                .getMatchedCount() > 0;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.bookingservice.persistence.routing;
+
+import com.mongodb.client.MongoClient;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Separate client and pool for reporting queries, routed to tagged secondaries
+ * Kept out of the MongoClient/MongoTemplate bean types so it never replaces the primary ones
+ */
+public class AnalyticsMongo implements DisposableBean {
+
+    private final MongoClient client;
+    private final MongoTemplate template;
+
+    public AnalyticsMongo(MongoClient client, MongoTemplate template) {
+        this.client = client;
+        this.template = template;
+    }
+
+    public MongoTemplate getTemplate() {
+        return template;
+    }
+
+    @Override
+    public void destroy() {
+        client.close();
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.bookingservice.persistence.routing;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+
+import java.util.Set;
+
+/**
+ * Captures the operation time of successful writes for the user who made them
+ * The sync driver notifies on the calling thread, so the request's security context is still in place
+ */
+public class CausalTokenCommandListener implements CommandListener {
+
+    private static final Set<String> WRITE_COMMANDS = Set.of("insert", "update", "delete", "findAndModify");
+
+    private final CausalTokenStore tokenStore;
+
+    public CausalTokenCommandListener(CausalTokenStore tokenStore) {
+        this.tokenStore = tokenStore;
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        if (!WRITE_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        BsonDocument response = event.getResponse();
+        // Standalone servers return neither, reads there go to the only node anyway
+        if (response.isTimestamp("operationTime") && response.isDocument("$clusterTime")) {
+            tokenStore.record(response.getTimestamp("operationTime"), response.getDocument("$clusterTime"));
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.bookingservice.persistence.routing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Last write position per user, used to make that user's secondary reads causally consistent
+ * Entries only need to outlive max staleness: after that every eligible secondary has the write anyway
+ */
+@Component
+public class CausalTokenStore {
+
+    /**
+     * Operation and cluster time returned by a replica set for a write
+     */
+    public record CausalToken(BsonTimestamp operationTime, BsonDocument clusterTime) {
+    }
+
+    private final Cache<String, CausalToken> tokens;
+
+    public CausalTokenStore(@Value("${booking.mongo.read.max-staleness:90s}") Duration maxStaleness,
+                            @Value("${booking.mongo.read.causal-token-cache-size:100000}") long maximumSize) {
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(maxStaleness)
+                .build();
+    }
+
+    /**
+     * Remember a write made on behalf of the current user, ignored for unauthenticated or background work
+     */
+    public void record(BsonTimestamp operationTime, BsonDocument clusterTime) {
+        String user = currentUser();
+        if (user == null) {
+            return;
+        }
+        CausalToken token = new CausalToken(operationTime, clusterTime);
+        // Writes of one user can complete out of order on different threads, keep the latest
+        tokens.asMap().merge(user, token, (existing, latest) ->
+                existing.operationTime().compareTo(latest.operationTime()) >= 0 ? existing : latest);
+    }
+
+    /**
+     * Position of the current user's latest write, null when there is none within max staleness
+     */
+    public CausalToken current() {
+        String user = currentUser();
+        return user == null ? null : tokens.getIfPresent(user);
+    }
+
+    private String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
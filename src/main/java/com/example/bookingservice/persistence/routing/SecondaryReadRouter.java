@@ -0,0 +1,66 @@
+package com.example.bookingservice.persistence.routing;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends list queries that tolerate bounded staleness to secondaries
+ * A user who wrote recently reads in a causally consistent session started after that write,
+ * so the chosen secondary waits until it has replicated it and the user sees their own booking
+ */
+@Slf4j
+@Component
+public class SecondaryReadRouter {
+
+    private static final ClientSessionOptions CAUSAL = ClientSessionOptions.builder()
+            .causallyConsistent(true)
+            .build();
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoClient mongoClient;
+    private final CausalTokenStore tokenStore;
+    private final boolean enabled;
+    private final ReadPreference readPreference;
+
+    public SecondaryReadRouter(MongoTemplate mongoTemplate,
+                               MongoClient mongoClient,
+                               CausalTokenStore tokenStore,
+                               @Value("${booking.mongo.read.secondary-enabled:true}") boolean enabled,
+                               @Value("${booking.mongo.read.max-staleness:90s}") Duration maxStaleness) {
+        this.mongoTemplate = mongoTemplate;
+        this.mongoClient = mongoClient;
+        this.tokenStore = tokenStore;
+        this.enabled = enabled;
+        // The server rejects a max staleness below 90 seconds
+        this.readPreference = ReadPreference.secondaryPreferred(maxStaleness.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    public <T> List<T> find(Query query, Class<T> type) {
+        if (!enabled) {
+            return mongoTemplate.find(query, type);
+        }
+        query.withReadPreference(readPreference);
+
+        CausalTokenStore.CausalToken token = tokenStore.current();
+        if (token == null) {
+            return mongoTemplate.find(query, type);
+        }
+        try (ClientSession session = mongoClient.startSession(CAUSAL)) {
+            session.advanceClusterTime(token.clusterTime());
+            session.advanceOperationTime(token.operationTime());
+            log.debug("🔗 Causal secondary read after {}", token.operationTime());
+            return mongoTemplate.withSession(session).find(query, type);
+        }
+    }
+}
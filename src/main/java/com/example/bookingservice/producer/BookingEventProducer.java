@@ -2,22 +2,28 @@ package com.example.bookingservice.producer;
 
 import com.example.bookingservice.configuration.RabbitMQConfig;
 import com.example.bookingservice.event.BookingEvent;
-import lombok.RequiredArgsConstructor;
+import com.example.bookingservice.event.BookingStatusChangedEvent;
+import com.example.bookingservice.persistence.model.OutboxEvent;
+import com.example.bookingservice.persistence.model.OutboxStatus;
+import com.example.bookingservice.persistence.model.PendingEvent;
+import com.example.bookingservice.persistence.respository.OutboxEventRepository;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 import java.util.UUID;
 
 /**
- * Producer for sending booking events to RabbitMQ
+ * Producer for booking events
+ * Events raised by a booking change are built as PendingEvents and stored with that change,
+ * others are written to the outbox collection directly. The OutboxRelay publishes them to RabbitMQ
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 @ConditionalOnProperty(
         name = "spring.rabbitmq.enabled",
         havingValue = "true",
@@ -25,35 +31,127 @@ import java.util.UUID;
 )
 public class BookingEventProducer {
 
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final boolean statusDeltas;
+    private final boolean legacyRouting;
+
+    public BookingEventProducer(OutboxEventRepository outboxEventRepository,
+                                @Value("${booking.events.status-change-mode:full}") String statusChangeMode,
+                                @Value("${booking.messaging.legacy-routing:false}") boolean legacyRouting) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.statusDeltas = "delta".equalsIgnoreCase(statusChangeMode);
+        this.legacyRouting = legacyRouting;
+    }
+
+    /**
+     * True when status transitions go out as BookingStatusChangedEvent instead of full snapshots
+     */
+    public boolean isStatusDeltaEnabled() {
+        return statusDeltas;
+    }
 
     /**
-     * Publishes booking event to the exchange
+     * Stores the booking event in the outbox
+     * Only for events not raised by a booking write, those are stored with the write as a pendingEvent
      */
     public void publishBookingEvent(BookingEvent event) {
         try {
-            // Set event metadata if not already set
-            if (event.getEventId() == null) {
-                event.setEventId(UUID.randomUUID().toString());
-            }
-            if (event.getEventTimestamp() == null) {
-                event.setEventTimestamp(LocalDateTime.now());
-            }
-
-            log.info("Publishing booking event: {} for booking ID: {}",
+            log.info("Queueing booking event: {} for booking ID: {}",
                     event.getEventType(), event.getBookingId());
 
-            rabbitTemplate.convertAndSend(
-                    RabbitMQConfig.EXCHANGE_NAME,
-                    RabbitMQConfig.BOOKING_ROUTING_KEY,
-                    event
-            );
+            outboxEventRepository.insert(toOutboxEvent(event));
 
-            log.info("Successfully published booking event: {}", event.getEventType());
+            log.info("Successfully queued booking event: {}", event.getEventType());
         } catch (Exception e) {
-            log.error("Failed to publish booking event: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to publish event to RabbitMQ", e);
+            log.error("Failed to queue booking event: {}", e.getMessage(), e);
+            throw new RuntimeException("Failed to write event to outbox", e);
+        }
+    }
+
+    /**
+     * Booking event to store in the same update as the booking change that raised it
+     */
+    public PendingEvent pendingEvent(String eventType, BookingEvent event) {
+        event.setEventType(eventType);
+        stamp(event);
+        return pendingEvent(event.getEventId(), eventType, event);
+    }
+
+    /**
+     * Status transition delta to store in the same update as the transition
+     */
+    public PendingEvent pendingEvent(BookingStatusChangedEvent event) {
+        stamp(event);
+        return pendingEvent(event.getEventId(), event.getEventType(), event);
+    }
+
+    private PendingEvent pendingEvent(String eventId, String eventType, Object payload) {
+        return PendingEvent.builder()
+                .eventId(eventId)
+                .eventType(eventType)
+                .exchange(exchange())
+                .routingKey(routingKey(eventType))
+                .payload(payload)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private OutboxEvent toOutboxEvent(BookingEvent event) {
+        stamp(event);
+        return toOutboxEvent(event.getEventId(), event.getEventType(), event.getBookingId(), event);
+    }
+
+    private OutboxEvent toOutboxEvent(String eventId, String eventType, String bookingId, Object payload) {
+        return OutboxEvent.builder()
+                .eventId(eventId)
+                .eventType(eventType)
+                .aggregateId(bookingId)
+                .exchange(exchange())
+                .routingKey(routingKey(eventType))
+                .payload(payload)
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    // Set event metadata if not already set
+    private static void stamp(BookingEvent event) {
+        if (event.getEventId() == null) {
+            event.setEventId(UUID.randomUUID().toString());
+        }
+        if (event.getEventTimestamp() == null) {
+            event.setEventTimestamp(LocalDateTime.now());
+        }
+    }
+
+    private static void stamp(BookingStatusChangedEvent event) {
+        if (event.getEventId() == null) {
+            event.setEventId(UUID.randomUUID().toString());
+        }
+        if (event.getEventTimestamp() == null) {
+            event.setEventTimestamp(LocalDateTime.now());
+        }
+        event.setEventType(BookingStatusChangedEvent.EVENT_TYPE);
+    }
+
+    private String exchange() {
+        return legacyRouting ? RabbitMQConfig.EXCHANGE_NAME : RabbitMQConfig.BOOKING_EVENTS_EXCHANGE;
+    }
+
+    private String routingKey(String eventType) {
+        return legacyRouting ? RabbitMQConfig.BOOKING_ROUTING_KEY : routingKeyFor(eventType);
+    }
+
+    /**
+     * Topic routing key of an event type, BOOKING_PAYMENT_COMPLETED -> booking.payment.completed
+     */
+    static String routingKeyFor(String eventType) {
+        if (eventType == null || eventType.isBlank()) {
+            return "booking.event";
         }
+        String key = eventType.toLowerCase(Locale.ROOT).replace('_', '.');
+        return key.startsWith("booking.") ? key : "booking." + key;
     }
 
     /**
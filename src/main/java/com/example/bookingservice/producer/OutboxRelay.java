@@ -0,0 +1,279 @@
+package com.example.bookingservice.producer;
+
+import com.example.bookingservice.persistence.lock.MongoLeaseLock;
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.OutboxEvent;
+import com.example.bookingservice.persistence.model.OutboxStatus;
+import com.example.bookingservice.persistence.model.PendingEvent;
+import com.example.bookingservice.persistence.respository.OutboxEventRepository;
+import com.mongodb.ErrorCategory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Drains the outbox collection to RabbitMQ
+ * Events embedded in bookings (BookingEntity.pendingEvents) are first moved to the outbox collection.
+ * Each event is claimed with a lease before it is published, so replicas do not publish the same events.
+ * Events are published with correlated publisher confirms and tracked by the PublisherConfirmTracker,
+ * an event is marked SENT once acked, nacked/returned/timed out events are retried after retry-delay.
+ * Delivery is at-least-once and consumers deduplicate on eventId (AMQP messageId)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(
+        name = "spring.rabbitmq.enabled",
+        havingValue = "true",
+        matchIfMissing = false
+)
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final MongoTemplate mongoTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final PublisherConfirmTracker confirmTracker;
+    private final String ownerId;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+    private final Duration retryDelay;
+    private final Duration claimLease;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       MongoTemplate mongoTemplate,
+                       RabbitTemplate rabbitTemplate,
+                       PublisherConfirmTracker confirmTracker,
+                       MongoLeaseLock leaseLock,
+                       MeterRegistry meterRegistry,
+                       @Value("${booking.outbox.batch-size:100}") int batchSize,
+                       @Value("${booking.outbox.confirm-timeout:5s}") Duration confirmTimeout,
+                       @Value("${booking.outbox.retry-delay:5s}") Duration retryDelay,
+                       @Value("${booking.outbox.claim-lease:30s}") Duration claimLease) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.confirmTracker = confirmTracker;
+        this.ownerId = leaseLock.getOwnerId();
+        this.batchSize = batchSize;
+        this.confirmTimeout = confirmTimeout;
+        this.retryDelay = retryDelay;
+        this.claimLease = claimLease;
+
+        Gauge.builder("booking.outbox.backlog", backlog, AtomicLong::get)
+                .description("Outbox events waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("booking.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("booking.outbox.published")
+                .description("Outbox events published and confirmed by the broker")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("booking.outbox.failed")
+                .description("Outbox events nacked, returned or not confirmed in time")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.relay-interval-ms:200}")
+    public void relay() {
+        try {
+            int published;
+            do {
+                published = relayBatch();
+            } while (published == batchSize);
+        } catch (Exception e) {
+            log.error("❌ Outbox relay failed: {}", e.getMessage(), e);
+        } finally {
+            refreshMetrics();
+        }
+    }
+
+    /**
+     * Settle confirms received so far, then claim and publish pending events into the free confirm slots
+     *
+     * @return number of events published, confirms arrive asynchronously
+     */
+    int relayBatch() {
+        forwardPendingEvents();
+        settleConfirms();
+
+        int limit = Math.min(batchSize, confirmTracker.available());
+        if (limit == 0) {
+            log.debug("Outbox confirm table full, waiting for confirms");
+            return 0;
+        }
+
+        int published = 0;
+        while (published < limit) {
+            OutboxEvent event = claimNext();
+            if (event == null) {
+                break;
+            }
+            CorrelationData correlation = confirmTracker.track(event);
+            if (correlation == null) {
+                break;
+            }
+            try {
+                rabbitTemplate.convertAndSend(event.getExchange(), event.getRoutingKey(), event.getPayload(), message -> {
+                    message.getMessageProperties().setMessageId(event.getEventId());
+                    return message;
+                }, correlation);
+                published++;
+            } catch (Exception e) {
+                // Broker unreachable, the rest of the batch would fail the same way
+                confirmTracker.abandon(event, e.getMessage());
+                log.warn("⚠️ Outbox publish failed, will retry: {}", e.getMessage());
+                break;
+            }
+        }
+        log.debug("📤 Published {} outbox events", published);
+        return published;
+    }
+
+    /**
+     * Claim the oldest due event that no other replica holds an unexpired claim on
+     * A claim outlives the confirm timeout, it is cleared when the confirm is settled
+     *
+     * @return the claimed event, or null when nothing is due
+     */
+    private OutboxEvent claimNext() {
+        LocalDateTime now = LocalDateTime.now();
+        Query claimable = Query.query(Criteria.where("status").is(OutboxStatus.PENDING)
+                        .and("id").nin(confirmTracker.inFlightIds())
+                        .andOperator(
+                                new Criteria().orOperator(Criteria.where("nextAttemptAt").is(null),
+                                        Criteria.where("nextAttemptAt").lte(now)),
+                                new Criteria().orOperator(Criteria.where("claimExpiresAt").is(null),
+                                        Criteria.where("claimExpiresAt").lt(now))))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+        Update claim = new Update()
+                .set("claimedBy", ownerId)
+                .set("claimExpiresAt", now.plus(claimLease));
+        return mongoTemplate.findAndModify(claimable, claim,
+                FindAndModifyOptions.options().returnNew(true), OutboxEvent.class);
+    }
+
+    /**
+     * Move events embedded in bookings to the outbox collection, then remove them from the bookings
+     * Events forwarded before, by another replica or before a crash, fail the insert on the unique eventId
+     * and are only removed, so an event reaches the outbox once
+     *
+     * @return number of bookings whose events were forwarded
+     */
+    int forwardPendingEvents() {
+        Query withEvents = Query.query(Criteria.where("pendingEvents.eventId").exists(true)).limit(batchSize);
+        withEvents.fields().include("pendingEvents");
+        List<BookingEntity> bookings = mongoTemplate.find(withEvents, BookingEntity.class);
+        if (bookings.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> events = bookings.stream()
+                .flatMap(booking -> booking.getPendingEvents().stream().map(event -> toOutboxEvent(booking.getId(), event)))
+                .toList();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, OutboxEvent.class).insert(events).execute();
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream()
+                    .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+
+        BulkOperations forwarded = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookingEntity.class);
+        for (BookingEntity booking : bookings) {
+            List<String> eventIds = booking.getPendingEvents().stream().map(PendingEvent::getEventId).toList();
+            forwarded.updateOne(Query.query(Criteria.where("id").is(booking.getId())),
+                    new Update().pull("pendingEvents", new Document("eventId", new Document("$in", eventIds))));
+        }
+        forwarded.execute();
+        log.debug("📥 Forwarded {} events of {} bookings to the outbox", events.size(), bookings.size());
+        return bookings.size();
+    }
+
+    private static OutboxEvent toOutboxEvent(String bookingId, PendingEvent event) {
+        return OutboxEvent.builder()
+                .eventId(event.getEventId())
+                .eventType(event.getEventType())
+                .aggregateId(bookingId)
+                .exchange(event.getExchange())
+                .routingKey(event.getRoutingKey())
+                .payload(event.getPayload())
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .createdAt(event.getCreatedAt())
+                .build();
+    }
+
+    /**
+     * Write confirm outcomes back to the outbox
+     * If this update is lost the events stay PENDING and are published again
+     */
+    void settleConfirms() {
+        confirmTracker.expire(confirmTimeout);
+
+        List<String> acked = confirmTracker.drainAcked();
+        if (!acked.isEmpty()) {
+            mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(acked)),
+                    new Update().set("status", OutboxStatus.SENT).set("sentAt", LocalDateTime.now())
+                            .unset("claimedBy").unset("claimExpiresAt"),
+                    OutboxEvent.class);
+            publishedCounter.increment(acked.size());
+        }
+
+        List<PublisherConfirmTracker.Failure> failed = confirmTracker.drainFailed();
+        if (failed.isEmpty()) {
+            return;
+        }
+        failedCounter.increment(failed.size());
+        LocalDateTime nextAttemptAt = LocalDateTime.now().plus(retryDelay);
+        failed.stream()
+                .collect(Collectors.groupingBy(PublisherConfirmTracker.Failure::reason,
+                        Collectors.mapping(PublisherConfirmTracker.Failure::outboxId, Collectors.toList())))
+                .forEach((reason, ids) -> {
+                    log.warn("⚠️ {} outbox events not confirmed ({}), retrying at {}", ids.size(), reason, nextAttemptAt);
+                    mongoTemplate.updateMulti(Query.query(Criteria.where("id").in(ids)),
+                            new Update().inc("attempts", 1).set("lastError", reason).set("nextAttemptAt", nextAttemptAt)
+                                    .unset("claimedBy").unset("claimExpiresAt"),
+                            OutboxEvent.class);
+                });
+    }
+
+    private void refreshMetrics() {
+        try {
+            backlog.set(outboxEventRepository.countByStatus(OutboxStatus.PENDING));
+            lagMillis.set(outboxEventRepository.findFirstByStatusOrderByCreatedAtAsc(OutboxStatus.PENDING)
+                    .map(oldest -> Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toMillis())
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.debug("Failed to refresh outbox metrics: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.bookingservice.producer;
+
+import com.example.bookingservice.persistence.model.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded table of outbox events published but not yet confirmed by the broker, keyed by eventId
+ * Confirm and return callbacks run on AMQP connection threads, so they only record the outcome,
+ * the OutboxRelay drains acked and failed events and writes them to Mongo
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(
+        name = "spring.rabbitmq.enabled",
+        havingValue = "true",
+        matchIfMissing = false
+)
+public class PublisherConfirmTracker implements RabbitTemplate.ConfirmCallback, RabbitTemplate.ReturnsCallback {
+
+    private final int maxInFlight;
+    private final ConcurrentMap<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Queue<String> acked = new ConcurrentLinkedQueue<>();
+    private final Queue<Failure> failed = new ConcurrentLinkedQueue<>();
+
+    private final Timer confirmLatency;
+    private final Counter ackCounter;
+    private final Counter nackCounter;
+    private final Counter returnedCounter;
+    private final Counter timeoutCounter;
+
+    public PublisherConfirmTracker(MeterRegistry meterRegistry,
+                                   @Value("${booking.outbox.max-in-flight:1000}") int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+
+        Gauge.builder("booking.outbox.confirms.inflight", pending, Map::size)
+                .description("Published outbox events waiting for a broker confirm")
+                .register(meterRegistry);
+        this.confirmLatency = Timer.builder("booking.outbox.confirm.latency")
+                .description("Time from publish to broker confirm")
+                .register(meterRegistry);
+        this.ackCounter = confirms(meterRegistry, "ack");
+        this.nackCounter = confirms(meterRegistry, "nack");
+        this.returnedCounter = confirms(meterRegistry, "returned");
+        this.timeoutCounter = confirms(meterRegistry, "timeout");
+    }
+
+    private static Counter confirms(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("booking.outbox.confirms")
+                .description("Broker confirms for published outbox events")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Free slots in the pending-confirm table
+     */
+    public int available() {
+        return Math.max(0, maxInFlight - pending.size());
+    }
+
+    /**
+     * Outbox ids published and not yet confirmed, the relay must not publish them again
+     */
+    public Collection<String> inFlightIds() {
+        return pending.values().stream().map(Pending::outboxId).toList();
+    }
+
+    /**
+     * Register an event before it is published
+     *
+     * @return correlation to publish the event with, or null when the table is full
+     */
+    public CorrelationData track(OutboxEvent event) {
+        if (pending.size() >= maxInFlight) {
+            return null;
+        }
+        pending.put(event.getEventId(), new Pending(event.getId(), System.nanoTime()));
+        return new CorrelationData(event.getEventId());
+    }
+
+    /**
+     * The publish itself failed, the event goes back to the retry path without waiting for a confirm
+     */
+    public void abandon(OutboxEvent event, String reason) {
+        if (pending.remove(event.getEventId()) != null) {
+            failed.add(new Failure(event.getId(), reason));
+        }
+    }
+
+    @Override
+    public void confirm(CorrelationData correlationData, boolean ack, String cause) {
+        if (correlationData == null) {
+            return;
+        }
+        Pending entry = pending.remove(correlationData.getId());
+        if (entry == null) {
+            // Already timed out, the event is republished and consumers dedupe on eventId
+            log.debug("Late publisher confirm for event {}", correlationData.getId());
+            return;
+        }
+        confirmLatency.record(System.nanoTime() - entry.publishedAt(), TimeUnit.NANOSECONDS);
+
+        if (!ack) {
+            nackCounter.increment();
+            failed.add(new Failure(entry.outboxId(), "nack: " + cause));
+        } else if (correlationData.getReturned() != null) {
+            // Unroutable messages are acked after being returned
+            returnedCounter.increment();
+            failed.add(new Failure(entry.outboxId(), "returned: " + correlationData.getReturned().getReplyText()));
+        } else {
+            ackCounter.increment();
+            acked.add(entry.outboxId());
+        }
+    }
+
+    @Override
+    public void returnedMessage(ReturnedMessage returned) {
+        // The outcome is settled by the confirm that follows, see confirm()
+        log.warn("⚠️ Event {} returned by broker: {} {} (exchange={}, routingKey={})",
+                returned.getMessage().getMessageProperties().getMessageId(),
+                returned.getReplyCode(), returned.getReplyText(),
+                returned.getExchange(), returned.getRoutingKey());
+    }
+
+    /**
+     * Fail events whose confirm did not arrive within the timeout
+     */
+    public void expire(Duration timeout) {
+        long cutoff = System.nanoTime() - timeout.toNanos();
+        pending.forEach((eventId, entry) -> {
+            if (entry.publishedAt() - cutoff <= 0 && pending.remove(eventId, entry)) {
+                timeoutCounter.increment();
+                failed.add(new Failure(entry.outboxId(), "confirm timeout"));
+            }
+        });
+    }
+
+    /**
+     * Outbox ids confirmed since the last call
+     */
+    public List<String> drainAcked() {
+        return drain(acked);
+    }
+
+    /**
+     * Events nacked, returned or timed out since the last call
+     */
+    public List<Failure> drainFailed() {
+        return drain(failed);
+    }
+
+    private static <T> List<T> drain(Queue<T> queue) {
+        List<T> drained = new ArrayList<>();
+        T next;
+        while ((next = queue.poll()) != null) {
+            drained.add(next);
+        }
+        return drained;
+    }
+
+    private record Pending(String outboxId, long publishedAt) {
+    }
+
+    public record Failure(String outboxId, String reason) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.bookingservice.business.impl;
+
+import com.example.bookingservice.business.mapper.BookingMapper;
+import com.example.bookingservice.configuration.JacksonConfig;
+import com.example.bookingservice.domain.dto.BookingDto;
+import com.example.bookingservice.domain.dto.PaymentDto;
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.BookingStatus;
+import com.example.bookingservice.persistence.model.PaymentEntity;
+import com.example.bookingservice.persistence.model.PaymentStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingExportServiceImplTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BookingMapper bookingMapper;
+
+    private BookingExportServiceImpl exportService;
+
+    @BeforeEach
+    void setUp() {
+        // The application ObjectMapper, with the BookingDto fieldset filter registered by JacksonConfig
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new JacksonConfig().bookingFieldsFilter().customize(builder);
+        ObjectMapper objectMapper = builder.build();
+        exportService = new BookingExportServiceImpl(mongoTemplate, bookingMapper, objectMapper);
+    }
+
+    @Test
+    void exportBookings_WritesOneJsonDocumentPerLine() throws Exception {
+        BookingEntity first = BookingEntity.builder().id("booking-1").build();
+        BookingEntity second = BookingEntity.builder().id("booking-2").build();
+
+        when(mongoTemplate.stream(any(Query.class), eq(BookingEntity.class)))
+                .thenReturn(Stream.of(first, second));
+        when(bookingMapper.toDto(any(BookingEntity.class))).thenAnswer(invocation -> {
+            BookingEntity entity = invocation.getArgument(0);
+            return BookingDto.builder().id(entity.getId()).status(BookingStatus.CONFIRMED).build();
+        });
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportBookings(null, null, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"id\":\"booking-1\""));
+        assertTrue(lines[1].contains("\"id\":\"booking-2\""));
+    }
+
+    @Test
+    void exportBookings_AppliesFilters() throws Exception {
+        LocalDateTime from = LocalDateTime.now().minusDays(30);
+        LocalDateTime to = LocalDateTime.now();
+
+        when(mongoTemplate.stream(any(Query.class), eq(BookingEntity.class))).thenReturn(Stream.empty());
+
+        long count = exportService.exportBookings(BookingStatus.CONFIRMED, 200L, from, to, new ByteArrayOutputStream());
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).stream(query.capture(), eq(BookingEntity.class));
+        Document filter = query.getValue().getQueryObject();
+        assertEquals(0, count);
+        assertEquals(BookingStatus.CONFIRMED, filter.get("status"));
+        assertEquals(200L, filter.get("providerId"));
+        Document createdAt = (Document) filter.get("createdAt");
+        assertEquals(from, createdAt.get("$gte"));
+        assertEquals(to, createdAt.get("$lt"));
+    }
+
+    @Test
+    void exportPayments_WritesPayments() throws Exception {
+        PaymentEntity payment = PaymentEntity.builder().id("payment-1").build();
+
+        when(mongoTemplate.stream(any(Query.class), eq(PaymentEntity.class))).thenReturn(Stream.of(payment));
+        when(bookingMapper.toDto(any(PaymentEntity.class)))
+                .thenReturn(PaymentDto.builder().id("payment-1").status(PaymentStatus.COMPLETED).build());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.exportPayments(PaymentStatus.COMPLETED, null, null, null, out);
+
+        assertEquals(1, count);
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("\n"));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("\"status\":\"COMPLETED\""));
+    }
+}
@@ -1,34 +1,47 @@
 package com.example.bookingservice.business.impl;
 
 import com.example.bookingservice.business.mapper.BookingMapper;
+import com.example.bookingservice.business.payment.PaymentGateway;
+import com.example.bookingservice.business.payment.PaymentGatewayResult;
 import com.example.bookingservice.client.AppointmentServiceClient;
 import com.example.bookingservice.domain.dto.AppointmentDto;
+import com.example.bookingservice.domain.dto.BookingBatchItemDto;
 import com.example.bookingservice.domain.dto.BookingDto;
+import com.example.bookingservice.domain.dto.BookingPageDto;
 import com.example.bookingservice.domain.dto.PaymentDto;
 import com.example.bookingservice.domain.request.CreateBookingRequest;
 import com.example.bookingservice.domain.request.ProcessPaymentRequest;
 import com.example.bookingservice.domain.response.AppointmentResponse;
 import com.example.bookingservice.event.BookingEvent;
+import com.example.bookingservice.event.BookingStatusChangedEvent;
 import com.example.bookingservice.exception.*;
 import com.example.bookingservice.persistence.model.*;
+import com.example.bookingservice.persistence.respository.BookingCursor;
 import com.example.bookingservice.persistence.respository.BookingRepository;
 import com.example.bookingservice.persistence.respository.PaymentRepository;
 import com.example.bookingservice.producer.BookingEventProducer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -53,6 +66,9 @@ public class BookingServiceImplTest {
     @Mock
     private BookingEventProducer bookingEventProducer;
 
+    @Mock
+    private PaymentGateway paymentGateway;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -175,134 +191,203 @@ public class BookingServiceImplTest {
 
     @Test
     void createBooking_Success() {
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.insert(any(BookingEntity.class))).thenReturn(bookingEntity);
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
 
         BookingDto result = bookingService.createBooking(createBookingRequest);
 
         assertNotNull(result);
         assertEquals("booking-123", result.getId());
-        verify(bookingRepository).existsByAppointmentId("appt-123");
         verify(appointmentServiceClient).getAppointmentById("appt-123");
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository).insert(any(BookingEntity.class));
     }
 
     @Test
     void createBooking_BookingAlreadyExists() {
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(true);
+        when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
+        when(bookingRepository.insert(any(BookingEntity.class)))
+                .thenThrow(new DuplicateKeyException("E11000 duplicate key error"));
 
         assertThrows(BookingAlreadyExistsException.class, () ->
                 bookingService.createBooking(createBookingRequest));
 
-        verify(bookingRepository).existsByAppointmentId("appt-123");
-        verify(appointmentServiceClient, never()).getAppointmentById(anyString());
+        verify(bookingRepository, never()).existsByAppointmentId(anyString());
         verify(bookingRepository, never()).save(any(BookingEntity.class));
     }
 
     @Test
     void createBooking_AppointmentNotFound() {
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString()))
                 .thenThrow(new RuntimeException("Service unavailable"));
 
         assertThrows(AppointmentNotFoundException.class, () ->
                 bookingService.createBooking(createBookingRequest));
 
-        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).insert(any(BookingEntity.class));
     }
 
     @Test
     void createBooking_AppointmentResponseNotSuccessful() {
         appointmentResponse.setSuccess(false);
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
 
         assertThrows(AppointmentNotFoundException.class, () ->
                 bookingService.createBooking(createBookingRequest));
 
-        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).insert(any(BookingEntity.class));
     }
 
     @Test
     void createBooking_InvalidAppointmentStatus() {
         appointmentDto.setStatus(AppointmentStatus.CANCELLED);
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
 
         assertThrows(InvalidBookingException.class, () ->
                 bookingService.createBooking(createBookingRequest));
 
-        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).insert(any(BookingEntity.class));
     }
 
     @Test
     void createBooking_PropertyAlreadyRented() {
         appointmentDto.setPropertyIsRented(true);
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
 
         assertThrows(InvalidBookingException.class, () ->
                 bookingService.createBooking(createBookingRequest));
 
-        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).insert(any(BookingEntity.class));
     }
 
     @Test
     void createBooking_MoveInDateInPast() {
         createBookingRequest.setMoveInDate(LocalDateTime.now().minusDays(1));
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
 
         assertThrows(InvalidBookingException.class, () ->
                 bookingService.createBooking(createBookingRequest));
 
-        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).insert(any(BookingEntity.class));
+    }
+
+    @Test
+    void createBooking_InvalidDates_NoRemoteCall() {
+        createBookingRequest.setMoveInDate(LocalDateTime.now().minusDays(1));
+
+        assertThrows(InvalidBookingException.class, () ->
+                bookingService.createBooking(createBookingRequest));
+
+        verifyNoInteractions(appointmentServiceClient);
+        verify(bookingRepository, never()).insert(any(BookingEntity.class));
     }
 
     @Test
     void createBooking_MoveOutDateBeforeMoveInDate() {
         createBookingRequest.setMoveOutDate(LocalDateTime.now().plusDays(20));
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
 
         assertThrows(InvalidBookingException.class, () ->
                 bookingService.createBooking(createBookingRequest));
 
-        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).insert(any(BookingEntity.class));
     }
 
     @Test
     void createBooking_InvalidRentAmount() {
         appointmentDto.setPropertyRentAmount(BigDecimal.ZERO);
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
-        // Mock save to return null, which will cause BookingPersistenceException
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(null);
+        // Mock insert to return null, which will cause BookingPersistenceException
+        when(bookingRepository.insert(any(BookingEntity.class))).thenReturn(null);
 
-        // BookingPersistenceException is thrown because save returns null
+        // BookingPersistenceException is thrown because insert returns null
         assertThrows(BookingPersistenceException.class, () ->
                 bookingService.createBooking(createBookingRequest));
 
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository).insert(any(BookingEntity.class));
     }
 
     @Test
     void createBooking_EventPublishingFails() {
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.insert(any(BookingEntity.class))).thenReturn(bookingEntity);
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
         when(bookingMapper.toEvent(any(BookingEntity.class))).thenReturn(bookingEvent);
-        doThrow(new RuntimeException("RabbitMQ error")).when(bookingEventProducer)
-                .publishBookingCreated(any(BookingEvent.class));
+        when(bookingEventProducer.pendingEvent(eq("BOOKING_CREATED"), any(BookingEvent.class)))
+                .thenThrow(new RuntimeException("Event serialization failed"));
 
-        // Should not throw exception even if event publishing fails
-        BookingDto result = bookingService.createBooking(createBookingRequest);
+        // The booking is not written without its event
+        assertThrows(RuntimeException.class, () -> bookingService.createBooking(createBookingRequest));
 
-        assertNotNull(result);
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).insert(any(BookingEntity.class));
+    }
+
+    @Test
+    void createBooking_InsertsBookingWithItsCreatedEvent() {
+        PendingEvent created = PendingEvent.builder().eventId("event-1").eventType("BOOKING_CREATED").build();
+        when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
+        when(bookingRepository.insert(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
+        when(bookingMapper.toEvent(any(BookingEntity.class))).thenReturn(bookingEvent);
+        when(bookingEventProducer.pendingEvent("BOOKING_CREATED", bookingEvent)).thenReturn(created);
+
+        bookingService.createBooking(createBookingRequest);
+
+        ArgumentCaptor<BookingEntity> inserted = ArgumentCaptor.forClass(BookingEntity.class);
+        verify(bookingRepository).insert(inserted.capture());
+        assertNotNull(inserted.getValue().getId());
+        assertEquals(List.of(created), inserted.getValue().getPendingEvents());
+    }
+
+    // ========== BATCH CREATE TESTS ==========
+
+    @Test
+    void createBookings_ReportsPerItemResults() {
+        CreateBookingRequest invalidDates = request("appt-past", LocalDateTime.now().minusDays(1));
+        CreateBookingRequest missingAppointment = request("appt-missing", LocalDateTime.now().plusDays(30));
+        CreateBookingRequest duplicate = request("appt-dup", LocalDateTime.now().plusDays(30));
+
+        when(appointmentServiceClient.getAppointmentById("appt-123")).thenReturn(appointmentResponse);
+        when(appointmentServiceClient.getAppointmentById("appt-dup")).thenReturn(appointmentResponse);
+        when(appointmentServiceClient.getAppointmentById("appt-missing")).thenReturn(AppointmentResponse.error("not found"));
+        // Second booking handed to the bulk insert hits the unique appointmentId index
+        when(bookingRepository.insertUnordered(anyList())).thenReturn(Map.of(1, 11000));
+        when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
+
+        List<BookingBatchItemDto> results = bookingService.createBookings(
+                List.of(createBookingRequest, invalidDates, missingAppointment, duplicate));
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).getSuccess());
+        assertEquals("INVALID_BOOKING", results.get(1).getErrorCode());
+        assertEquals("APPOINTMENT_NOT_FOUND", results.get(2).getErrorCode());
+        assertEquals("BOOKING_ALREADY_EXISTS", results.get(3).getErrorCode());
+        assertEquals(3, results.get(3).getIndex());
+
+        verify(appointmentServiceClient, never()).getAppointmentById("appt-past");
+        verify(bookingRepository, times(1)).insertUnordered(argThat(bookings -> bookings.size() == 2));
+        verify(bookingRepository, never()).insert(any(BookingEntity.class));
+    }
+
+    @Test
+    void createBookings_BulkInsertFails_AllItemsFail() {
+        when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
+        when(bookingRepository.insertUnordered(anyList())).thenThrow(new RuntimeException("Mongo unavailable"));
+
+        List<BookingBatchItemDto> results = bookingService.createBookings(List.of(createBookingRequest));
+
+        assertFalse(results.get(0).getSuccess());
+        assertEquals("PERSISTENCE_ERROR", results.get(0).getErrorCode());
+        verify(bookingMapper, never()).toEvent(any(BookingEntity.class));
+    }
+
+    private CreateBookingRequest request(String appointmentId, LocalDateTime moveInDate) {
+        return CreateBookingRequest.builder()
+                .appointmentId(appointmentId)
+                .moveInDate(moveInDate)
+                .moveOutDate(moveInDate.plusMonths(12))
+                .bookingDurationMonths(12)
+                .build();
     }
 
     // ========== GET BOOKING TESTS ==========
@@ -334,14 +419,14 @@ public class BookingServiceImplTest {
         List<BookingEntity> bookings = Arrays.asList(bookingEntity);
         List<BookingDto> bookingDtos = Arrays.asList(bookingDto);
 
-        when(bookingRepository.findAll()).thenReturn(bookings);
+        when(bookingRepository.findMatching(isNull())).thenReturn(bookings);
         when(bookingMapper.toDtoList(anyList())).thenReturn(bookingDtos);
 
         List<BookingDto> result = bookingService.getAllBookings();
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookingRepository).findAll();
+        verify(bookingRepository).findMatching(isNull());
     }
 
     @Test
@@ -349,14 +434,14 @@ public class BookingServiceImplTest {
         List<BookingEntity> bookings = Arrays.asList(bookingEntity);
         List<BookingDto> bookingDtos = Arrays.asList(bookingDto);
 
-        when(bookingRepository.findByRequesterId(anyLong())).thenReturn(bookings);
+        when(bookingRepository.findMatching(any())).thenReturn(bookings);
         when(bookingMapper.toDtoList(anyList())).thenReturn(bookingDtos);
 
         List<BookingDto> result = bookingService.getBookingsByRequesterId(100L);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookingRepository).findByRequesterId(100L);
+        verify(bookingRepository).findMatching(Criteria.where("requesterId").is(100L));
     }
 
     @Test
@@ -364,14 +449,14 @@ public class BookingServiceImplTest {
         List<BookingEntity> bookings = Arrays.asList(bookingEntity);
         List<BookingDto> bookingDtos = Arrays.asList(bookingDto);
 
-        when(bookingRepository.findByProviderId(anyLong())).thenReturn(bookings);
+        when(bookingRepository.findMatching(any())).thenReturn(bookings);
         when(bookingMapper.toDtoList(anyList())).thenReturn(bookingDtos);
 
         List<BookingDto> result = bookingService.getBookingsByProviderId(200L);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookingRepository).findByProviderId(200L);
+        verify(bookingRepository).findMatching(Criteria.where("providerId").is(200L));
     }
 
     @Test
@@ -379,14 +464,14 @@ public class BookingServiceImplTest {
         List<BookingEntity> bookings = Arrays.asList(bookingEntity);
         List<BookingDto> bookingDtos = Arrays.asList(bookingDto);
 
-        when(bookingRepository.findByPropertyId(anyLong())).thenReturn(bookings);
+        when(bookingRepository.findMatching(any())).thenReturn(bookings);
         when(bookingMapper.toDtoList(anyList())).thenReturn(bookingDtos);
 
         List<BookingDto> result = bookingService.getBookingsByPropertyId(1L);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookingRepository).findByPropertyId(1L);
+        verify(bookingRepository).findMatching(Criteria.where("propertyId").is(1L));
     }
 
     @Test
@@ -394,14 +479,108 @@ public class BookingServiceImplTest {
         List<BookingEntity> bookings = Arrays.asList(bookingEntity);
         List<BookingDto> bookingDtos = Arrays.asList(bookingDto);
 
-        when(bookingRepository.findByStatus(any(BookingStatus.class))).thenReturn(bookings);
+        when(bookingRepository.findMatching(any())).thenReturn(bookings);
         when(bookingMapper.toDtoList(anyList())).thenReturn(bookingDtos);
 
         List<BookingDto> result = bookingService.getBookingsByStatus(BookingStatus.PENDING);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(bookingRepository).findByStatus(BookingStatus.PENDING);
+        verify(bookingRepository).findMatching(Criteria.where("status").is(BookingStatus.PENDING));
+    }
+
+    // ========== PAGINATED LIST TESTS ==========
+
+    @Test
+    void getAllBookingsPage_HasMore_ReturnsNextCursor() {
+        BookingEntity older = BookingEntity.builder()
+                .id("booking-122")
+                .createdAt(bookingEntity.getCreatedAt().minusMinutes(1))
+                .build();
+        List<BookingDto> bookingDtos = Arrays.asList(bookingDto);
+
+        when(bookingRepository.findPage(any(), any(), anyInt(), any()))
+                .thenReturn(Arrays.asList(bookingEntity, older));
+        when(bookingMapper.toDtoList(anyList(), any())).thenReturn(bookingDtos);
+
+        BookingPageDto result = bookingService.getAllBookings(null, 1, null);
+
+        assertTrue(result.getHasMore());
+        assertEquals(1, result.getPageSize());
+        assertNotNull(result.getNextCursor());
+        BookingCursor next = BookingCursor.decode(result.getNextCursor());
+        assertEquals("booking-123", next.getId());
+        assertEquals(bookingEntity.getCreatedAt(), next.getCreatedAt());
+        verify(bookingRepository).findPage(isNull(), isNull(), eq(2), isNull());
+        verify(bookingMapper).toDtoList(eq(Arrays.asList(bookingEntity)), isNull());
+    }
+
+    @Test
+    void getBookingsByRequesterIdPage_LastPage_NoNextCursor() {
+        String cursor = BookingCursor.of(bookingEntity).encode();
+
+        when(bookingRepository.findPage(any(), any(), anyInt(), any())).thenReturn(Arrays.asList(bookingEntity));
+        when(bookingMapper.toDtoList(anyList(), any())).thenReturn(Arrays.asList(bookingDto));
+
+        BookingPageDto result = bookingService.getBookingsByRequesterId(100L, cursor, 20, null);
+
+        assertFalse(result.getHasMore());
+        assertNull(result.getNextCursor());
+        assertEquals(1, result.getBookings().size());
+        verify(bookingRepository).findPage(any(), argThat(after -> "booking-123".equals(after.getId())), eq(21), isNull());
+    }
+
+    @Test
+    void getBookingsByStatusPage_SizeClampedToMax() {
+        when(bookingRepository.findPage(any(), any(), anyInt(), any())).thenReturn(Arrays.asList());
+        when(bookingMapper.toDtoList(anyList(), any())).thenReturn(Arrays.asList());
+
+        BookingPageDto result = bookingService.getBookingsByStatus(BookingStatus.PENDING, null, 10_000, null);
+
+        assertEquals(BookingServiceImpl.MAX_PAGE_SIZE, result.getPageSize());
+        verify(bookingRepository).findPage(any(), isNull(), eq(BookingServiceImpl.MAX_PAGE_SIZE + 1), isNull());
+    }
+
+    @Test
+    void getAllBookingsPage_InvalidCursor() {
+        assertThrows(InvalidBookingException.class, () ->
+                bookingService.getAllBookings("not-a-cursor", 20, null));
+        verify(bookingRepository, never()).findPage(any(), any(), anyInt(), any());
+    }
+
+    // ========== SPARSE FIELDSET TESTS ==========
+
+    @Test
+    void getAllBookingsPage_WithFields_ProjectsRequestedFields() {
+        Set<String> fields = Set.of("id", "status");
+
+        when(bookingRepository.findPage(any(), any(), anyInt(), any())).thenReturn(Arrays.asList(bookingEntity));
+        when(bookingMapper.toDtoList(anyList(), any())).thenReturn(Arrays.asList(bookingDto));
+
+        bookingService.getAllBookings(null, 20, "id, status");
+
+        verify(bookingRepository).findPage(isNull(), isNull(), eq(21), eq(fields));
+        verify(bookingMapper).toDtoList(anyList(), eq(fields));
+    }
+
+    @Test
+    void getBookingByIdWithFields_UsesProjection() {
+        Set<String> fields = Set.of("status", "moveInDate");
+
+        when(bookingRepository.findProjectedById("booking-123", fields)).thenReturn(Optional.of(bookingEntity));
+        when(bookingMapper.toDto(bookingEntity, fields)).thenReturn(bookingDto);
+
+        BookingDto result = bookingService.getBookingById("booking-123", "status,moveInDate");
+
+        assertNotNull(result);
+        verify(bookingRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void getBookingByIdWithFields_UnknownField() {
+        assertThrows(InvalidBookingException.class, () ->
+                bookingService.getBookingById("booking-123", "status,password"));
+        verify(bookingRepository, never()).findProjectedById(anyString(), any());
     }
 
     // ========== UPDATE BOOKING STATUS TESTS ==========
@@ -415,13 +594,13 @@ public class BookingServiceImplTest {
                 .build();
 
         when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(updatedEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(updatedEntity));
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
 
         BookingDto result = bookingService.updateBookingStatus("booking-123", BookingStatus.CONFIRMED);
 
         assertNotNull(result);
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository).updateIfMatches(eq("booking-123"), any(), any(Update.class));
     }
 
     @Test
@@ -429,12 +608,12 @@ public class BookingServiceImplTest {
         bookingEntity.setStatus(BookingStatus.CONFIRMED);
 
         when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
 
         bookingService.updateBookingStatus("booking-123", BookingStatus.COMPLETED);
 
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository).updateIfMatches(eq("booking-123"), any(), any(Update.class));
     }
 
     @Test
@@ -442,12 +621,12 @@ public class BookingServiceImplTest {
         bookingEntity.setStatus(BookingStatus.PENDING);
 
         when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
 
         bookingService.updateBookingStatus("booking-123", BookingStatus.EXPIRED);
 
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository).updateIfMatches(eq("booking-123"), any(), any(Update.class));
     }
 
     @Test
@@ -458,34 +637,66 @@ public class BookingServiceImplTest {
                 bookingService.updateBookingStatus("booking-123", BookingStatus.CONFIRMED));
     }
 
+    @Test
+    void updateBookingStatus_ConcurrentTransition_Conflict() {
+        bookingEntity.setStatus(BookingStatus.PENDING);
+        when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.empty());
+
+        assertThrows(BookingStateConflictException.class, () ->
+                bookingService.updateBookingStatus("booking-123", BookingStatus.CONFIRMED));
+    }
+
+    @Test
+    void updateBookingStatus_GuardsOnStatusAndReadVersion() {
+        bookingEntity.setStatus(BookingStatus.PENDING);
+        bookingEntity.setVersion(3L);
+        when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
+        when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
+
+        bookingService.updateBookingStatus("booking-123", BookingStatus.CONFIRMED);
+
+        ArgumentCaptor<Criteria> expected = ArgumentCaptor.forClass(Criteria.class);
+        verify(bookingRepository).updateIfMatches(eq("booking-123"), expected.capture(), any(Update.class));
+        assertEquals(3L, expected.getValue().getCriteriaObject().get("version"));
+        assertNotNull(expected.getValue().getCriteriaObject().get("status"));
+    }
+
     // ========== CANCEL BOOKING TESTS ==========
 
     @Test
     void cancelBooking_Success() {
         when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
 
         BookingDto result = bookingService.cancelBooking("booking-123", "Changed plans");
 
         assertNotNull(result);
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository).updateIfMatches(eq("booking-123"), any(), any(Update.class));
     }
 
     @Test
     void cancelBooking_WithRefund() {
         bookingEntity.setPaymentStatus(PaymentStatus.COMPLETED);
         when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(paymentRepository.findByBookingId(anyString())).thenReturn(Optional.of(paymentEntity));
+        when(paymentRepository.findByBookingIdAndStatus("booking-123", PaymentStatus.COMPLETED))
+                .thenReturn(List.of(paymentEntity));
         when(paymentRepository.save(any(PaymentEntity.class))).thenReturn(paymentEntity);
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
 
         BookingDto result = bookingService.cancelBooking("booking-123", "Refund requested");
 
         assertNotNull(result);
-        verify(paymentRepository).save(any(PaymentEntity.class));
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(paymentRepository).save(paymentEntity);
+        assertEquals(PaymentStatus.REFUNDED, paymentEntity.getStatus());
+        // The paymentStatus flips to REFUNDED in the cancel itself
+        ArgumentCaptor<Update> cancel = ArgumentCaptor.forClass(Update.class);
+        verify(bookingRepository).updateIfMatches(eq("booking-123"), any(), cancel.capture());
+        assertEquals(BookingStatus.CANCELLED, set(cancel.getValue(), "status"));
+        assertEquals(PaymentStatus.REFUNDED, set(cancel.getValue(), "paymentStatus"));
     }
 
     @Test
@@ -496,7 +707,7 @@ public class BookingServiceImplTest {
         assertThrows(InvalidBookingException.class, () ->
                 bookingService.cancelBooking("booking-123", "Reason"));
 
-        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).updateIfMatches(anyString(), any(), any(Update.class));
     }
 
     @Test
@@ -507,7 +718,7 @@ public class BookingServiceImplTest {
         assertThrows(InvalidBookingException.class, () ->
                 bookingService.cancelBooking("booking-123", "Reason"));
 
-        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).updateIfMatches(anyString(), any(), any(Update.class));
     }
 
     // ========== DELETE BOOKING TESTS ==========
@@ -536,22 +747,287 @@ public class BookingServiceImplTest {
     // ========== PAYMENT TESTS ==========
 
     @Test
-    void processPayment_Success() throws InterruptedException {
+    void processPayment_Success() {
         ProcessPaymentRequest paymentRequest = new ProcessPaymentRequest();
         paymentRequest.setBookingId("booking-123");
         paymentRequest.setPaymentMethod(PaymentMethod.CREDIT_CARD);
         paymentRequest.setPaymentReference("ref-123");
+        paymentEntity.setStatus(PaymentStatus.PROCESSING);
+        PendingEvent paid = PendingEvent.builder().eventId("event-1").eventType("BOOKING_PAYMENT_COMPLETED").build();
+
+        when(bookingRepository.findById(anyString()))
+                .thenReturn(Optional.of(bookingEntity))
+                .thenReturn(Optional.of(claimedBy("payment-123")));
+        when(paymentRepository.insert(any(PaymentEntity.class))).thenReturn(paymentEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
+        when(paymentRepository.findById("payment-123")).thenReturn(Optional.of(paymentEntity));
+        when(paymentRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(paymentEntity));
+        when(bookingMapper.toDto(any(PaymentEntity.class))).thenReturn(paymentDto);
+        when(bookingMapper.toEvent(any(BookingEntity.class))).thenReturn(bookingEvent);
+        when(bookingEventProducer.pendingEvent("BOOKING_PAYMENT_COMPLETED", bookingEvent)).thenReturn(paid);
+        when(paymentGateway.submit(any(PaymentEntity.class)))
+                .thenReturn(CompletableFuture.completedFuture(PaymentGatewayResult.success("receipt-url")));
+
+        PaymentDto result = bookingService.processPayment(paymentRequest);
+
+        assertNotNull(result);
+        ArgumentCaptor<Criteria> expected = ArgumentCaptor.forClass(Criteria.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bookingRepository, times(2)).updateIfMatches(eq("booking-123"), expected.capture(), updates.capture());
+        // The booking is claimed with the id the payment is then inserted under
+        ArgumentCaptor<PaymentEntity> inserted = ArgumentCaptor.forClass(PaymentEntity.class);
+        verify(paymentRepository).insert(inserted.capture());
+        assertNotNull(inserted.getValue().getId());
+        assertEquals(inserted.getValue().getId(), set(updates.getAllValues().get(0), "paymentId"));
+        String claimGuard = expected.getAllValues().get(0).getCriteriaObject().toString();
+        assertTrue(claimGuard.contains(BookingStatus.EXPIRED.name()));
+        assertTrue(claimGuard.contains(BookingStatus.CANCELLED.name()));
+
+        // The booking is confirmed only while it still waits for this payment
+        org.bson.Document confirmGuard = expected.getAllValues().get(1).getCriteriaObject();
+        assertEquals("payment-123", confirmGuard.get("paymentId"));
+        assertEquals(PaymentStatus.PROCESSING, confirmGuard.get("paymentStatus"));
+        assertEquals(BookingStatus.CONFIRMED, set(updates.getAllValues().get(1), "status"));
+        assertEquals(PaymentStatus.COMPLETED, set(updates.getAllValues().get(1), "paymentStatus"));
+        // The BOOKING_PAYMENT_COMPLETED event is written with the confirmation
+        assertEquals(paid, updates.getAllValues().get(1).getUpdateObject().get("$push", org.bson.Document.class)
+                .get("pendingEvents"));
+        assertEquals("txn-123", bookingEvent.getTransactionId());
+
+        ArgumentCaptor<Update> paymentUpdate = ArgumentCaptor.forClass(Update.class);
+        verify(paymentRepository).updateIfMatches(eq("payment-123"), any(), paymentUpdate.capture());
+        assertEquals(PaymentStatus.COMPLETED, set(paymentUpdate.getValue(), "status"));
+        assertEquals("receipt-url", set(paymentUpdate.getValue(), "receiptUrl"));
+        verify(bookingRepository, never()).save(any(BookingEntity.class));
+    }
+
+    @Test
+    void processPayment_ReturnsBeforeGatewayCompletes() {
+        ProcessPaymentRequest paymentRequest = new ProcessPaymentRequest();
+        paymentRequest.setBookingId("booking-123");
+        paymentRequest.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        paymentEntity.setStatus(PaymentStatus.PROCESSING);
 
         when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(paymentRepository.save(any(PaymentEntity.class))).thenReturn(paymentEntity);
+        when(paymentRepository.insert(any(PaymentEntity.class))).thenReturn(paymentEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
         when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
         when(bookingMapper.toDto(any(PaymentEntity.class))).thenReturn(paymentDto);
+        when(paymentGateway.submit(any(PaymentEntity.class))).thenReturn(new CompletableFuture<>());
 
         PaymentDto result = bookingService.processPayment(paymentRequest);
 
         assertNotNull(result);
-        verify(paymentRepository).save(any(PaymentEntity.class));
-        verify(bookingRepository).save(any(BookingEntity.class));
+        ArgumentCaptor<Update> claim = ArgumentCaptor.forClass(Update.class);
+        verify(bookingRepository).updateIfMatches(eq("booking-123"), any(), claim.capture());
+        assertEquals(PaymentStatus.PROCESSING,
+                claim.getValue().getUpdateObject().get("$set", org.bson.Document.class).get("paymentStatus"));
+        verify(paymentRepository, times(1)).insert(any(PaymentEntity.class));
+        verify(paymentRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void processPayment_GatewayDeclines() {
+        ProcessPaymentRequest paymentRequest = new ProcessPaymentRequest();
+        paymentRequest.setBookingId("booking-123");
+        paymentRequest.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        paymentEntity.setStatus(PaymentStatus.PROCESSING);
+
+        when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
+        when(paymentRepository.insert(any(PaymentEntity.class))).thenReturn(paymentEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
+        when(paymentRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(paymentEntity));
+        when(bookingMapper.toDto(any(PaymentEntity.class))).thenReturn(paymentDto);
+        when(paymentGateway.submit(any(PaymentEntity.class)))
+                .thenReturn(CompletableFuture.completedFuture(PaymentGatewayResult.failure("Card declined")));
+
+        bookingService.processPayment(paymentRequest);
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bookingRepository, times(2)).updateIfMatches(eq("booking-123"), any(), updates.capture());
+        assertEquals(PaymentStatus.FAILED, set(updates.getAllValues().get(1), "paymentStatus"));
+        assertNull(set(updates.getAllValues().get(1), "status"));
+
+        ArgumentCaptor<Update> paymentUpdate = ArgumentCaptor.forClass(Update.class);
+        verify(paymentRepository).updateIfMatches(eq("payment-123"), any(), paymentUpdate.capture());
+        assertEquals(PaymentStatus.FAILED, set(paymentUpdate.getValue(), "status"));
+        assertEquals("Card declined", set(paymentUpdate.getValue(), "failureReason"));
+        verify(bookingEventProducer, never()).pendingEvent(anyString(), any(BookingEvent.class));
+    }
+
+    @Test
+    void processPayment_BookingCancelledDuringGatewayCall_RefundsPayment() {
+        ProcessPaymentRequest paymentRequest = new ProcessPaymentRequest();
+        paymentRequest.setBookingId("booking-123");
+        paymentRequest.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        paymentEntity.setStatus(PaymentStatus.PROCESSING);
+        BookingEntity cancelled = BookingEntity.builder()
+                .id("booking-123")
+                .status(BookingStatus.CANCELLED)
+                .paymentId("payment-123")
+                .paymentStatus(PaymentStatus.PROCESSING)
+                .build();
+
+        when(bookingRepository.findById(anyString()))
+                .thenReturn(Optional.of(bookingEntity))
+                .thenReturn(Optional.of(cancelled));
+        when(paymentRepository.insert(any(PaymentEntity.class))).thenReturn(paymentEntity);
+        // The claim succeeds, the booking is cancelled before the gateway answers
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
+        when(paymentRepository.findById("payment-123")).thenReturn(Optional.of(paymentEntity));
+        when(paymentRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(paymentEntity));
+        when(bookingMapper.toDto(any(PaymentEntity.class))).thenReturn(paymentDto);
+        when(paymentGateway.submit(any(PaymentEntity.class)))
+                .thenReturn(CompletableFuture.completedFuture(PaymentGatewayResult.success("receipt-url")));
+
+        bookingService.processPayment(paymentRequest);
+
+        ArgumentCaptor<Update> paymentUpdate = ArgumentCaptor.forClass(Update.class);
+        verify(paymentRepository).updateIfMatches(eq("payment-123"), any(), paymentUpdate.capture());
+        assertEquals(PaymentStatus.REFUNDED, set(paymentUpdate.getValue(), "status"));
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bookingRepository, times(2)).updateIfMatches(eq("booking-123"), any(), updates.capture());
+        assertEquals(PaymentStatus.REFUNDED, set(updates.getAllValues().get(1), "paymentStatus"));
+        assertNull(set(updates.getAllValues().get(1), "status"));
+        verify(bookingEventProducer, never()).pendingEvent(anyString(), any(BookingEvent.class));
+    }
+
+    @Test
+    void resumePayment_BookingRecordedOutcome_SettlesPayment() {
+        paymentEntity.setStatus(PaymentStatus.PROCESSING);
+        bookingEntity.setPaymentId("payment-123");
+        bookingEntity.setPaymentStatus(PaymentStatus.COMPLETED);
+
+        when(paymentRepository.findById("payment-123")).thenReturn(Optional.of(paymentEntity));
+        when(bookingRepository.findById("booking-123")).thenReturn(Optional.of(bookingEntity));
+
+        bookingService.resumePayment("payment-123");
+
+        ArgumentCaptor<Update> paymentUpdate = ArgumentCaptor.forClass(Update.class);
+        verify(paymentRepository).updateIfMatches(eq("payment-123"), any(), paymentUpdate.capture());
+        assertEquals(PaymentStatus.COMPLETED, set(paymentUpdate.getValue(), "status"));
+        verify(paymentGateway, never()).submit(any(PaymentEntity.class));
+    }
+
+    @Test
+    void resumePayment_OutcomeLost_ResubmitsToGateway() {
+        paymentEntity.setStatus(PaymentStatus.PROCESSING);
+        bookingEntity.setPaymentId("payment-123");
+        bookingEntity.setPaymentStatus(PaymentStatus.PROCESSING);
+
+        when(paymentRepository.findById("payment-123")).thenReturn(Optional.of(paymentEntity));
+        when(bookingRepository.findById("booking-123")).thenReturn(Optional.of(bookingEntity));
+        when(paymentGateway.submit(any(PaymentEntity.class))).thenReturn(new CompletableFuture<>());
+
+        bookingService.resumePayment("payment-123");
+
+        verify(paymentGateway).submit(paymentEntity);
+        verify(paymentRepository, never()).updateIfMatches(anyString(), any(), any(Update.class));
+    }
+
+    @Test
+    void resumePayment_BookingNeverClaimed_FailsPayment() {
+        paymentEntity.setStatus(PaymentStatus.PROCESSING);
+        bookingEntity.setPaymentId(null);
+
+        when(paymentRepository.findById("payment-123")).thenReturn(Optional.of(paymentEntity));
+        when(bookingRepository.findById("booking-123")).thenReturn(Optional.of(bookingEntity));
+
+        bookingService.resumePayment("payment-123");
+
+        ArgumentCaptor<Update> paymentUpdate = ArgumentCaptor.forClass(Update.class);
+        verify(paymentRepository).updateIfMatches(eq("payment-123"), any(), paymentUpdate.capture());
+        assertEquals(PaymentStatus.FAILED, set(paymentUpdate.getValue(), "status"));
+        verify(paymentGateway, never()).submit(any(PaymentEntity.class));
+    }
+
+    @Test
+    void processPayment_AlreadyInProgress() {
+        bookingEntity.setPaymentStatus(PaymentStatus.PROCESSING);
+        ProcessPaymentRequest paymentRequest = new ProcessPaymentRequest();
+        paymentRequest.setBookingId("booking-123");
+
+        when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
+
+        assertThrows(PaymentException.class, () ->
+                bookingService.processPayment(paymentRequest));
+
+        verify(paymentGateway, never()).submit(any(PaymentEntity.class));
+    }
+
+    @Test
+    void processPayment_ConcurrentClaim_Conflict() {
+        ProcessPaymentRequest paymentRequest = new ProcessPaymentRequest();
+        paymentRequest.setBookingId("booking-123");
+        paymentRequest.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+
+        when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.empty());
+
+        assertThrows(BookingStateConflictException.class, () ->
+                bookingService.processPayment(paymentRequest));
+
+        // The losing submission never wrote a payment
+        verify(paymentRepository, never()).insert(any(PaymentEntity.class));
+        verify(paymentRepository, never()).deleteById(anyString());
+        verify(paymentGateway, never()).submit(any(PaymentEntity.class));
+    }
+
+    @Test
+    void processPayment_InsertFails_ReleasesClaim() {
+        bookingEntity.setPaymentStatus(PaymentStatus.FAILED);
+        bookingEntity.setPaymentId("payment-failed");
+        ProcessPaymentRequest paymentRequest = new ProcessPaymentRequest();
+        paymentRequest.setBookingId("booking-123");
+        paymentRequest.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+
+        when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
+        when(paymentRepository.insert(any(PaymentEntity.class))).thenThrow(new RuntimeException("Mongo unavailable"));
+
+        assertThrows(RuntimeException.class, () -> bookingService.processPayment(paymentRequest));
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bookingRepository, times(2)).updateIfMatches(eq("booking-123"), any(), updates.capture());
+        assertEquals("payment-failed", set(updates.getAllValues().get(1), "paymentId"));
+        assertEquals(PaymentStatus.FAILED, set(updates.getAllValues().get(1), "paymentStatus"));
+        verify(paymentGateway, never()).submit(any(PaymentEntity.class));
+    }
+
+    @Test
+    void processPayment_OrphanedClaim_ClaimedAgain() {
+        // A pod crashed after claiming the booking and before inserting the payment
+        bookingEntity.setPaymentStatus(PaymentStatus.PROCESSING);
+        bookingEntity.setPaymentId("payment-lost");
+        bookingEntity.setUpdatedAt(LocalDateTime.now().minusMinutes(5));
+        ProcessPaymentRequest paymentRequest = new ProcessPaymentRequest();
+        paymentRequest.setBookingId("booking-123");
+        paymentRequest.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+
+        when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
+        when(paymentRepository.existsById("payment-lost")).thenReturn(false);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
+        when(paymentRepository.insert(any(PaymentEntity.class))).thenReturn(paymentEntity);
+        when(paymentGateway.submit(any(PaymentEntity.class))).thenReturn(new CompletableFuture<>());
+        when(bookingMapper.toDto(any(PaymentEntity.class))).thenReturn(paymentDto);
+
+        bookingService.processPayment(paymentRequest);
+
+        ArgumentCaptor<Criteria> expected = ArgumentCaptor.forClass(Criteria.class);
+        verify(bookingRepository).updateIfMatches(eq("booking-123"), expected.capture(), any(Update.class));
+        assertTrue(expected.getValue().getCriteriaObject().toString().contains("payment-lost"));
+        verify(paymentGateway).submit(paymentEntity);
+    }
+
+    @Test
+    void getPaymentById_Success() {
+        when(paymentRepository.findById("payment-123")).thenReturn(Optional.of(paymentEntity));
+        when(bookingMapper.toDto(any(PaymentEntity.class))).thenReturn(paymentDto);
+
+        PaymentDto result = bookingService.getPaymentById("payment-123");
+
+        assertEquals("payment-123", result.getId());
     }
 
     @Test
@@ -565,7 +1041,7 @@ public class BookingServiceImplTest {
         assertThrows(PaymentException.class, () ->
                 bookingService.processPayment(paymentRequest));
 
-        verify(paymentRepository, never()).save(any(PaymentEntity.class));
+        verify(paymentRepository, never()).insert(any(PaymentEntity.class));
     }
 
     @Test
@@ -579,7 +1055,7 @@ public class BookingServiceImplTest {
         assertThrows(PaymentException.class, () ->
                 bookingService.processPayment(paymentRequest));
 
-        verify(paymentRepository, never()).save(any(PaymentEntity.class));
+        verify(paymentRepository, never()).insert(any(PaymentEntity.class));
     }
 
     @Test
@@ -589,28 +1065,36 @@ public class BookingServiceImplTest {
         paymentRequest.setBookingId("booking-123");
 
         when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
 
         assertThrows(PaymentException.class, () ->
                 bookingService.processPayment(paymentRequest));
 
-        verify(paymentRepository, never()).save(any(PaymentEntity.class));
+        verify(paymentRepository, never()).insert(any(PaymentEntity.class));
+        ArgumentCaptor<Criteria> expected = ArgumentCaptor.forClass(Criteria.class);
+        verify(bookingRepository).updateIfMatches(eq("booking-123"), expected.capture(), any(Update.class));
+        assertEquals(new org.bson.Document("$ne", PaymentStatus.PROCESSING),
+                expected.getValue().getCriteriaObject().get("paymentStatus"));
     }
 
     @Test
     void getPaymentByBookingId_Success() {
-        when(paymentRepository.findByBookingId(anyString())).thenReturn(Optional.of(paymentEntity));
+        bookingEntity.setPaymentId("payment-123");
+        when(bookingRepository.findById("booking-123")).thenReturn(Optional.of(bookingEntity));
+        when(paymentRepository.findById("payment-123")).thenReturn(Optional.of(paymentEntity));
         when(bookingMapper.toDto(any(PaymentEntity.class))).thenReturn(paymentDto);
 
         PaymentDto result = bookingService.getPaymentByBookingId("booking-123");
 
         assertNotNull(result);
-        verify(paymentRepository).findByBookingId("booking-123");
+        // The booking's current payment, not whichever payment of the booking comes first
+        verify(paymentRepository, never()).findByBookingId(anyString());
     }
 
     @Test
     void getPaymentByBookingId_NotFound() {
-        when(paymentRepository.findByBookingId(anyString())).thenReturn(Optional.empty());
+        bookingEntity.setPaymentId(null);
+        when(bookingRepository.findById("booking-123")).thenReturn(Optional.of(bookingEntity));
 
         assertThrows(BookingNotFoundException.class, () ->
                 bookingService.getPaymentByBookingId("booking-123"));
@@ -637,13 +1121,13 @@ public class BookingServiceImplTest {
     void confirmBooking_Success() {
         bookingEntity.setPaymentStatus(PaymentStatus.COMPLETED);
         when(bookingRepository.findByConfirmationToken(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
 
         BookingDto result = bookingService.confirmBooking("token-123");
 
         assertNotNull(result);
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository).updateIfMatches(eq("booking-123"), any(), any(Update.class));
     }
 
     @Test
@@ -654,7 +1138,19 @@ public class BookingServiceImplTest {
         assertThrows(InvalidBookingException.class, () ->
                 bookingService.confirmBooking("token-123"));
 
-        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).updateIfMatches(anyString(), any(), any(Update.class));
+    }
+
+    @Test
+    void confirmBooking_Cancelled_Rejected() {
+        bookingEntity.setPaymentStatus(PaymentStatus.COMPLETED);
+        bookingEntity.setStatus(BookingStatus.CANCELLED);
+        when(bookingRepository.findByConfirmationToken(anyString())).thenReturn(Optional.of(bookingEntity));
+
+        assertThrows(InvalidBookingException.class, () ->
+                bookingService.confirmBooking("token-123"));
+
+        verify(bookingRepository, never()).updateIfMatches(anyString(), any(), any(Update.class));
     }
 
     @Test
@@ -664,7 +1160,7 @@ public class BookingServiceImplTest {
         assertThrows(BookingNotFoundException.class, () ->
                 bookingService.confirmBooking("invalid-token"));
 
-        verify(bookingRepository, never()).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).updateIfMatches(anyString(), any(), any(Update.class));
     }
 
     // ========== CIRCUIT BREAKER TESTS ==========
@@ -684,16 +1180,15 @@ public class BookingServiceImplTest {
     @Test
     void createBooking_PropertyIsRentedNull_TreatedAsFalse() {
         appointmentDto.setPropertyIsRented(null);
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.insert(any(BookingEntity.class))).thenReturn(bookingEntity);
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
 
         // When propertyIsRented is null, it's treated as false and booking proceeds successfully
         BookingDto result = bookingService.createBooking(createBookingRequest);
 
         assertNotNull(result);
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository).insert(any(BookingEntity.class));
     }
 
 
@@ -702,36 +1197,33 @@ public class BookingServiceImplTest {
     @Test
     void createBooking_WithPendingAppointmentStatus() {
         appointmentDto.setStatus(AppointmentStatus.PENDING);
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.insert(any(BookingEntity.class))).thenReturn(bookingEntity);
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
 
         BookingDto result = bookingService.createBooking(createBookingRequest);
 
         assertNotNull(result);
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository).insert(any(BookingEntity.class));
     }
 
     @Test
     void createBooking_PropertyIsRentedNull_TreatedAsFalse_NullSafeVersion() {
         appointmentDto.setPropertyIsRented(false);
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.insert(any(BookingEntity.class))).thenReturn(bookingEntity);
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
 
         // With null-safe fix, null is treated as false (property available)
         BookingDto result = bookingService.createBooking(createBookingRequest);
 
         assertNotNull(result);
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository).insert(any(BookingEntity.class));
     }
 
     @Test
     void createBooking_NullRentAmount() {
         appointmentDto.setPropertyRentAmount(null);
-        when(bookingRepository.existsByAppointmentId(anyString())).thenReturn(false);
         when(appointmentServiceClient.getAppointmentById(anyString())).thenReturn(appointmentResponse);
 
         assertThrows(InvalidBookingException.class, () ->
@@ -742,78 +1234,121 @@ public class BookingServiceImplTest {
     void updateBookingStatus_NoStatusChange() {
         bookingEntity.setStatus(BookingStatus.PENDING);
         when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
 
         BookingDto result = bookingService.updateBookingStatus("booking-123", BookingStatus.PENDING);
 
         assertNotNull(result);
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).updateIfMatches(anyString(), any(), any(Update.class));
     }
 
     @Test
     void updateBookingStatus_EventPublishingFails() {
         bookingEntity.setStatus(BookingStatus.PENDING);
         when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
         when(bookingMapper.toEvent(any(BookingEntity.class))).thenReturn(bookingEvent);
-        doThrow(new RuntimeException("Event publishing failed"))
-                .when(bookingEventProducer).publishBookingConfirmed(any(BookingEvent.class));
+        when(bookingEventProducer.pendingEvent(eq("BOOKING_CONFIRMED"), any(BookingEvent.class)))
+                .thenThrow(new RuntimeException("Event serialization failed"));
 
-        // Should not throw exception even if event publishing fails
-        BookingDto result = bookingService.updateBookingStatus("booking-123", BookingStatus.CONFIRMED);
+        // The status is not changed without its event
+        assertThrows(RuntimeException.class, () ->
+                bookingService.updateBookingStatus("booking-123", BookingStatus.CONFIRMED));
 
-        assertNotNull(result);
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).updateIfMatches(anyString(), any(), any(Update.class));
     }
 
     @Test
     void cancelBooking_NoPaymentToRefund() {
         bookingEntity.setPaymentStatus(PaymentStatus.COMPLETED);
         when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(paymentRepository.findByBookingId(anyString())).thenReturn(Optional.empty());
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(paymentRepository.findByBookingIdAndStatus("booking-123", PaymentStatus.COMPLETED)).thenReturn(List.of());
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
 
         BookingDto result = bookingService.cancelBooking("booking-123", "Reason");
 
         assertNotNull(result);
         verify(paymentRepository, never()).save(any(PaymentEntity.class));
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository).updateIfMatches(eq("booking-123"), any(), any(Update.class));
     }
 
     @Test
     void cancelBooking_EventPublishingFails() {
         when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
         when(bookingMapper.toEvent(any(BookingEntity.class))).thenReturn(bookingEvent);
-        doThrow(new RuntimeException("Event publishing failed"))
-                .when(bookingEventProducer).publishBookingCancelled(any(BookingEvent.class));
+        when(bookingEventProducer.pendingEvent(eq("BOOKING_CANCELLED"), any(BookingEvent.class)))
+                .thenThrow(new RuntimeException("Event serialization failed"));
 
-        // Should not throw exception even if event publishing fails
-        BookingDto result = bookingService.cancelBooking("booking-123", "Reason");
+        // The booking is not cancelled without its event
+        assertThrows(RuntimeException.class, () -> bookingService.cancelBooking("booking-123", "Reason"));
 
-        assertNotNull(result);
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).updateIfMatches(anyString(), any(), any(Update.class));
+    }
+
+    @Test
+    void cancelBooking_DeltaMode_PublishesStatusChangeOnly() {
+        BookingStatus oldStatus = bookingEntity.getStatus();
+        BookingStatusChangedEvent delta = BookingStatusChangedEvent.builder().bookingId("booking-123").build();
+        when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
+        when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
+        when(bookingEventProducer.isStatusDeltaEnabled()).thenReturn(true);
+        when(bookingMapper.toStatusChangedEvent(any(BookingEntity.class), eq(oldStatus), anyMap())).thenReturn(delta);
+        PendingEvent pending = PendingEvent.builder().eventId("event-1").eventType("BOOKING_STATUS_CHANGED").build();
+        when(bookingEventProducer.pendingEvent(delta)).thenReturn(pending);
+
+        bookingService.cancelBooking("booking-123", "Reason");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> changedFields = ArgumentCaptor.forClass(Map.class);
+        ArgumentCaptor<BookingEntity> cancelled = ArgumentCaptor.forClass(BookingEntity.class);
+        verify(bookingMapper).toStatusChangedEvent(cancelled.capture(), eq(oldStatus), changedFields.capture());
+        assertEquals(BookingStatus.CANCELLED, cancelled.getValue().getStatus());
+        assertEquals("Reason", changedFields.getValue().get("cancellationReason"));
+        ArgumentCaptor<Update> cancel = ArgumentCaptor.forClass(Update.class);
+        verify(bookingRepository).updateIfMatches(eq("booking-123"), any(), cancel.capture());
+        assertEquals(pending, cancel.getValue().getUpdateObject().get("$push", org.bson.Document.class).get("pendingEvents"));
+        verify(bookingEventProducer, never()).pendingEvent(anyString(), any(BookingEvent.class));
+        verify(bookingMapper, never()).toEvent(any(BookingEntity.class));
+    }
+
+    @Test
+    void getBookingSnapshot_ReturnsFullEvent() {
+        when(bookingRepository.findById("booking-123")).thenReturn(Optional.of(bookingEntity));
+        when(bookingMapper.toEvent(bookingEntity)).thenReturn(bookingEvent);
+
+        BookingEvent snapshot = bookingService.getBookingSnapshot("booking-123");
+
+        assertSame(bookingEvent, snapshot);
+        assertEquals("BOOKING_SNAPSHOT", snapshot.getEventType());
+        assertNotNull(snapshot.getEventTimestamp());
+    }
+
+    @Test
+    void getBookingSnapshot_NotFound() {
+        when(bookingRepository.findById("missing")).thenReturn(Optional.empty());
+
+        assertThrows(BookingNotFoundException.class, () -> bookingService.getBookingSnapshot("missing"));
     }
 
     @Test
     void confirmBooking_EventPublishingFails() {
         bookingEntity.setPaymentStatus(PaymentStatus.COMPLETED);
         when(bookingRepository.findByConfirmationToken(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
         when(bookingMapper.toDto(any(BookingEntity.class))).thenReturn(bookingDto);
         when(bookingMapper.toEvent(any(BookingEntity.class))).thenReturn(bookingEvent);
-        doThrow(new RuntimeException("Event publishing failed"))
-                .when(bookingEventProducer).publishBookingConfirmed(any(BookingEvent.class));
+        when(bookingEventProducer.pendingEvent(eq("BOOKING_CONFIRMED"), any(BookingEvent.class)))
+                .thenThrow(new RuntimeException("Event serialization failed"));
 
-        // Should not throw exception even if event publishing fails
-        BookingDto result = bookingService.confirmBooking("token-123");
+        // The booking is not confirmed without its event
+        assertThrows(RuntimeException.class, () -> bookingService.confirmBooking("token-123"));
 
-        assertNotNull(result);
-        verify(bookingRepository).save(any(BookingEntity.class));
+        verify(bookingRepository, never()).updateIfMatches(anyString(), any(), any(Update.class));
     }
 
     @Test
@@ -826,89 +1361,97 @@ public class BookingServiceImplTest {
         assertThrows(BookingNotFoundException.class, () ->
                 bookingService.processPayment(paymentRequest));
 
-        verify(paymentRepository, never()).save(any(PaymentEntity.class));
+        verify(paymentRepository, never()).insert(any(PaymentEntity.class));
     }
 
     @Test
-    void processPayment_EventPublishingFails() throws InterruptedException {
+    void processPayment_EventPublishingFails() {
         ProcessPaymentRequest paymentRequest = new ProcessPaymentRequest();
         paymentRequest.setBookingId("booking-123");
         paymentRequest.setPaymentMethod(PaymentMethod.CREDIT_CARD);
         paymentRequest.setPaymentReference("ref-123");
-
-        when(bookingRepository.findById(anyString())).thenReturn(Optional.of(bookingEntity));
-        when(paymentRepository.save(any(PaymentEntity.class))).thenReturn(paymentEntity);
-        when(bookingRepository.save(any(BookingEntity.class))).thenReturn(bookingEntity);
+        paymentEntity.setStatus(PaymentStatus.PROCESSING);
+
+        when(bookingRepository.findById(anyString()))
+                .thenReturn(Optional.of(bookingEntity))
+                .thenReturn(Optional.of(claimedBy("payment-123")));
+        when(paymentRepository.insert(any(PaymentEntity.class))).thenReturn(paymentEntity);
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenReturn(Optional.of(bookingEntity));
+        when(paymentRepository.findById("payment-123")).thenReturn(Optional.of(paymentEntity));
+        when(paymentGateway.submit(any(PaymentEntity.class)))
+                .thenReturn(CompletableFuture.completedFuture(PaymentGatewayResult.success("receipt-url")));
         when(bookingMapper.toDto(any(PaymentEntity.class))).thenReturn(paymentDto);
         when(bookingMapper.toEvent(any(BookingEntity.class))).thenReturn(bookingEvent);
-        doThrow(new RuntimeException("Event publishing failed"))
-                .when(bookingEventProducer).publishBookingPaymentCompleted(any(BookingEvent.class));
+        when(bookingEventProducer.pendingEvent(eq("BOOKING_PAYMENT_COMPLETED"), any(BookingEvent.class)))
+                .thenThrow(new RuntimeException("Event serialization failed"));
 
-        // Should not throw exception even if event publishing fails
+        // The request returns once the booking is claimed, the outcome is applied after the gateway answers
         PaymentDto result = bookingService.processPayment(paymentRequest);
 
         assertNotNull(result);
-        verify(paymentRepository).save(any(PaymentEntity.class));
+        // Only the claim is written, the payment stays PROCESSING for the StalePaymentRecovery
+        verify(bookingRepository, times(1)).updateIfMatches(eq("booking-123"), any(), any(Update.class));
+        verify(paymentRepository, never()).updateIfMatches(anyString(), any(), any(Update.class));
     }
 
     @Test
     void getAllBookings_EmptyList() {
-        when(bookingRepository.findAll()).thenReturn(Arrays.asList());
+        when(bookingRepository.findMatching(isNull())).thenReturn(Arrays.asList());
         when(bookingMapper.toDtoList(anyList())).thenReturn(Arrays.asList());
 
         List<BookingDto> result = bookingService.getAllBookings();
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(bookingRepository).findAll();
+        verify(bookingRepository).findMatching(isNull());
     }
 
     @Test
     void getBookingsByRequesterId_EmptyList() {
-        when(bookingRepository.findByRequesterId(anyLong())).thenReturn(Arrays.asList());
+        when(bookingRepository.findMatching(any())).thenReturn(Arrays.asList());
         when(bookingMapper.toDtoList(anyList())).thenReturn(Arrays.asList());
 
         List<BookingDto> result = bookingService.getBookingsByRequesterId(100L);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(bookingRepository).findByRequesterId(100L);
+        verify(bookingRepository).findMatching(Criteria.where("requesterId").is(100L));
     }
 
     @Test
     void getBookingsByProviderId_EmptyList() {
-        when(bookingRepository.findByProviderId(anyLong())).thenReturn(Arrays.asList());
+        when(bookingRepository.findMatching(any())).thenReturn(Arrays.asList());
         when(bookingMapper.toDtoList(anyList())).thenReturn(Arrays.asList());
 
         List<BookingDto> result = bookingService.getBookingsByProviderId(200L);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(bookingRepository).findByProviderId(200L);
+        verify(bookingRepository).findMatching(Criteria.where("providerId").is(200L));
     }
 
     @Test
     void getBookingsByPropertyId_EmptyList() {
-        when(bookingRepository.findByPropertyId(anyLong())).thenReturn(Arrays.asList());
+        when(bookingRepository.findMatching(any())).thenReturn(Arrays.asList());
         when(bookingMapper.toDtoList(anyList())).thenReturn(Arrays.asList());
 
         List<BookingDto> result = bookingService.getBookingsByPropertyId(1L);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(bookingRepository).findByPropertyId(1L);
+        verify(bookingRepository).findMatching(Criteria.where("propertyId").is(1L));
     }
 
     @Test
     void getBookingsByStatus_EmptyList() {
-        when(bookingRepository.findByStatus(any(BookingStatus.class))).thenReturn(Arrays.asList());
+        when(bookingRepository.findMatching(any())).thenReturn(Arrays.asList());
         when(bookingMapper.toDtoList(anyList())).thenReturn(Arrays.asList());
 
         List<BookingDto> result = bookingService.getBookingsByStatus(BookingStatus.PENDING);
 
         assertNotNull(result);
         assertTrue(result.isEmpty());
-        verify(bookingRepository).findByStatus(BookingStatus.PENDING);
+        verify(bookingRepository).findMatching(Criteria.where("status").is(BookingStatus.PENDING));
     }
 
     @Test
@@ -922,4 +1465,15 @@ public class BookingServiceImplTest {
         assertTrue(result.isEmpty());
         verify(paymentRepository).findByPayerId(100L);
     }
-}
\ No newline at end of file
+
+    private BookingEntity claimedBy(String paymentId) {
+        return bookingEntity.toBuilder()
+                .paymentId(paymentId)
+                .paymentStatus(PaymentStatus.PROCESSING)
+                .build();
+    }
+
+    private static Object set(Update update, String field) {
+        return update.getUpdateObject().get("$set", org.bson.Document.class).get(field);
+    }
+}
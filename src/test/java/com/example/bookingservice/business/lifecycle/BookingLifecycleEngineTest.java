@@ -0,0 +1,141 @@
+package com.example.bookingservice.business.lifecycle;
+
+import com.example.bookingservice.business.mapper.BookingMapper;
+import com.example.bookingservice.event.BookingEvent;
+import com.example.bookingservice.persistence.lock.MongoLeaseLock;
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.BookingStatus;
+import com.example.bookingservice.persistence.model.PaymentStatus;
+import com.example.bookingservice.persistence.model.PendingEvent;
+import com.example.bookingservice.persistence.respository.BookingRepository;
+import com.example.bookingservice.producer.BookingEventProducer;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingLifecycleEngineTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BookingMapper bookingMapper;
+
+    @Mock
+    private MongoLeaseLock leaseLock;
+
+    @Mock
+    private BookingEventProducer bookingEventProducer;
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingLifecycleEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        engine = new BookingLifecycleEngine(bookingRepository, mongoTemplate, bookingMapper, leaseLock,
+                meterRegistry, 2, 10, Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(engine, "bookingEventProducer", bookingEventProducer);
+    }
+
+    @Test
+    void expireOverdue_MovesPagesWithOneBulkWriteEach() {
+        List<BookingEntity> firstPage = List.of(booking("b-1"), booking("b-2"));
+        List<BookingEntity> secondPage = List.of(booking("b-3"));
+        when(bookingRepository.findByPaymentDeadlineBeforeAndStatusInAndPaymentStatusNot(
+                any(), anyCollection(), eq(PaymentStatus.PROCESSING), any(Pageable.class)))
+                .thenReturn(firstPage, secondPage);
+        BulkOperations bulk = bulkModifying(2, 1);
+        when(bookingMapper.toEvent(any(BookingEntity.class))).thenAnswer(invocation -> BookingEvent.builder()
+                .bookingId(invocation.<BookingEntity>getArgument(0).getId()).build());
+        when(bookingEventProducer.pendingEvent(eq("BOOKING_EXPIRED"), any(BookingEvent.class)))
+                .thenReturn(PendingEvent.builder().eventId("event").eventType("BOOKING_EXPIRED").build());
+
+        int expired = engine.expireOverdue(LocalDateTime.now());
+
+        assertEquals(3, expired);
+        verify(bulk, times(2)).execute();
+        ArgumentCaptor<Query> guards = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(3)).updateOne(guards.capture(), updates.capture());
+        // A payment reaching the gateway meanwhile keeps the booking from expiring
+        assertTrue(guards.getAllValues().stream()
+                .allMatch(guard -> guard.getQueryObject().get("paymentStatus", Document.class).containsKey("$ne")));
+        // Each transition carries its event, built from the booking as the update leaves it
+        assertTrue(updates.getAllValues().stream()
+                .allMatch(update -> update.getUpdateObject().get("$push", Document.class).containsKey("pendingEvents")));
+        ArgumentCaptor<BookingEntity> moved = ArgumentCaptor.forClass(BookingEntity.class);
+        verify(bookingMapper, times(3)).toEvent(moved.capture());
+        assertTrue(moved.getAllValues().stream().allMatch(booking -> booking.getStatus() == BookingStatus.EXPIRED));
+        assertEquals(3.0, meterRegistry.get("booking.lifecycle.transitions").tag("transition", "expired").counter().count());
+    }
+
+    @Test
+    void activateMovedIn_GuardsEachUpdateOnStatusAndVersion() {
+        BookingEntity booking = booking("b-1");
+        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setVersion(4L);
+        when(bookingRepository.findByStatusAndMoveInDateBefore(eq(BookingStatus.CONFIRMED), any(), any(Pageable.class)))
+                .thenReturn(List.of(booking));
+        BulkOperations bulk = bulkModifying(0);
+
+        int activated = engine.activateMovedIn(LocalDateTime.now());
+
+        // Changed concurrently, nothing moved
+        assertEquals(0, activated);
+        ArgumentCaptor<Query> guard = ArgumentCaptor.forClass(Query.class);
+        verify(bulk).updateOne(guard.capture(), any(Update.class));
+        assertEquals(4L, guard.getValue().getQueryObject().get("version"));
+    }
+
+    @Test
+    void sweep_WithoutLease_DoesNothing() {
+        when(leaseLock.tryAcquire(eq(BookingLifecycleEngine.LOCK_NAME), any())).thenReturn(false);
+
+        engine.sweep();
+
+        verifyNoInteractions(bookingRepository, mongoTemplate, bookingEventProducer);
+    }
+
+    private BulkOperations bulkModifying(Integer... modifiedCounts) {
+        BulkOperations bulk = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(BookingEntity.class))).thenReturn(bulk);
+        when(bulk.updateOne(any(Query.class), any(Update.class))).thenReturn(bulk);
+        List<BulkWriteResult> results = Arrays.stream(modifiedCounts).map(modified -> {
+            BulkWriteResult result = mock(BulkWriteResult.class);
+            when(result.getModifiedCount()).thenReturn(modified);
+            return result;
+        }).toList();
+        when(bulk.execute()).thenReturn(results.get(0), results.subList(1, results.size()).toArray(BulkWriteResult[]::new));
+        return bulk;
+    }
+
+    private BookingEntity booking(String id) {
+        return BookingEntity.builder().id(id).status(BookingStatus.PENDING).build();
+    }
+}
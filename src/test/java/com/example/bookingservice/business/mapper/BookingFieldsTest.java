@@ -0,0 +1,72 @@
+package com.example.bookingservice.business.mapper;
+
+import com.example.bookingservice.configuration.JacksonConfig;
+import com.example.bookingservice.domain.dto.BookingDto;
+import com.example.bookingservice.exception.InvalidBookingException;
+import com.example.bookingservice.persistence.model.BookingStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingFieldsTest {
+
+    private final ObjectMapper objectMapper = applicationObjectMapper();
+
+    private static ObjectMapper applicationObjectMapper() {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        new JacksonConfig().bookingFieldsFilter().customize(builder);
+        return builder.build();
+    }
+
+    @Test
+    void filter_WithFields_WritesOnlyRequestedProperties() throws Exception {
+        BookingDto booking = BookingDto.builder().id("booking-123").status(BookingStatus.PENDING).build();
+
+        JsonNode json = objectMapper.readTree(objectMapper.writer(BookingFields.filter(Set.of("id", "notes")))
+                .writeValueAsString(booking));
+
+        assertEquals(Set.of("id", "notes"), Set.copyOf(fieldNames(json)));
+        assertTrue(json.get("notes").isNull());
+    }
+
+    @Test
+    void filter_WithoutFields_KeepsNullProperties() throws Exception {
+        BookingDto booking = BookingDto.builder().id("booking-123").build();
+
+        JsonNode json = objectMapper.readTree(objectMapper.writer(BookingFields.filter(null))
+                .writeValueAsString(booking));
+
+        assertEquals("booking-123", json.get("id").asText());
+        assertTrue(json.has("notes"));
+        assertTrue(json.get("notes").isNull());
+    }
+
+    @Test
+    void bookingDto_MapperWithoutFilterProvider_WritesAllProperties() throws Exception {
+        BookingDto booking = BookingDto.builder().id("booking-123").build();
+
+        ObjectMapper plainMapper = new ObjectMapper().findAndRegisterModules();
+        JsonNode json = plainMapper.readTree(plainMapper.writeValueAsString(booking));
+
+        assertEquals("booking-123", json.get("id").asText());
+        assertTrue(json.has("notes"));
+    }
+
+    @Test
+    void parse_UnknownField_Rejected() {
+        assertThrows(InvalidBookingException.class, () -> BookingFields.parse("id,password"));
+    }
+
+    private static List<String> fieldNames(JsonNode json) {
+        List<String> names = new ArrayList<>();
+        json.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.bookingservice.business.payment;
+
+import com.example.bookingservice.business.interfaces.BookingService;
+import com.example.bookingservice.persistence.model.PaymentEntity;
+import com.example.bookingservice.persistence.model.PaymentStatus;
+import com.example.bookingservice.persistence.respository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class StalePaymentRecoveryTest {
+
+    @Mock
+    private PaymentRepository paymentRepository;
+
+    @Mock
+    private BookingService bookingService;
+
+    private StalePaymentRecovery recovery;
+    private LocalDateTime cutoff;
+
+    @BeforeEach
+    void setUp() {
+        recovery = new StalePaymentRecovery(paymentRepository, bookingService, new SimpleMeterRegistry(),
+                Duration.ofMinutes(5), 10);
+        cutoff = LocalDateTime.now().minusMinutes(5);
+    }
+
+    @Test
+    void recoverStale_ClaimedPayment_IsResumed() {
+        when(paymentRepository.findByStatusAndUpdatedAtBefore(eq(PaymentStatus.PROCESSING), eq(cutoff), any(Pageable.class)))
+                .thenReturn(List.of(payment("payment-1")));
+        when(paymentRepository.updateIfMatches(eq("payment-1"), any(), any(Update.class)))
+                .thenReturn(Optional.of(payment("payment-1")));
+
+        assertEquals(1, recovery.recoverStale(cutoff));
+
+        verify(bookingService).resumePayment("payment-1");
+    }
+
+    @Test
+    void recoverStale_ClaimedByAnotherReplica_IsSkipped() {
+        when(paymentRepository.findByStatusAndUpdatedAtBefore(eq(PaymentStatus.PROCESSING), eq(cutoff), any(Pageable.class)))
+                .thenReturn(List.of(payment("payment-1")));
+        when(paymentRepository.updateIfMatches(eq("payment-1"), any(), any(Update.class))).thenReturn(Optional.empty());
+
+        assertEquals(0, recovery.recoverStale(cutoff));
+
+        verify(bookingService, never()).resumePayment(anyString());
+    }
+
+    @Test
+    void recoverStale_ResumeFails_ContinuesWithNextPayment() {
+        when(paymentRepository.findByStatusAndUpdatedAtBefore(eq(PaymentStatus.PROCESSING), eq(cutoff), any(Pageable.class)))
+                .thenReturn(List.of(payment("payment-1"), payment("payment-2")));
+        when(paymentRepository.updateIfMatches(anyString(), any(), any(Update.class)))
+                .thenReturn(Optional.of(payment("claimed")));
+        doThrow(new RuntimeException("Mongo down")).when(bookingService).resumePayment("payment-1");
+
+        assertEquals(1, recovery.recoverStale(cutoff));
+
+        verify(bookingService).resumePayment("payment-2");
+    }
+
+    private PaymentEntity payment(String id) {
+        return PaymentEntity.builder()
+                .id(id)
+                .bookingId("booking-1")
+                .status(PaymentStatus.PROCESSING)
+                .updatedAt(cutoff.minusMinutes(1))
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.bookingservice.business.saga;
+
+import com.example.bookingservice.business.interfaces.BookingService;
+import com.example.bookingservice.domain.dto.BookingDto;
+import com.example.bookingservice.domain.request.CreateBookingRequest;
+import com.example.bookingservice.persistence.model.SagaPayload;
+import com.example.bookingservice.persistence.model.SagaState;
+import com.example.bookingservice.persistence.model.SagaStatus;
+import com.example.bookingservice.persistence.model.SagaStep;
+import com.example.bookingservice.persistence.respository.SagaStateRepository;
+import com.example.bookingservice.producer.BookingEventProducer;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingSagaOrchestratorTest {
+
+    @Mock
+    private SagaStateRepository sagaStateRepository;
+
+    @Mock
+    private BookingEventProducer bookingEventProducer;
+
+    @Mock
+    private SagaCompensationService compensationService;
+
+    @Mock
+    private BookingService bookingService;
+
+    private BookingSagaOrchestrator orchestrator;
+
+    @BeforeEach
+    void setUp() {
+        orchestrator = new BookingSagaOrchestrator(sagaStateRepository, bookingEventProducer, compensationService,
+                new SagaRetryBackoff(Duration.ofSeconds(30), Duration.ofMinutes(5)), bookingService);
+    }
+
+    @Test
+    void handlePaymentCompleted_UpdatesOnlyChangedFields() {
+        SagaState saga = saga();
+        when(sagaStateRepository.findByBookingId("booking-1")).thenReturn(Optional.of(saga));
+
+        orchestrator.handlePaymentCompleted("booking-1", "txn-1");
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(sagaStateRepository, times(2)).updateFields(eq("saga-1"), updates.capture());
+        Document payment = updates.getAllValues().get(0).getUpdateObject();
+        assertEquals(SagaStep.PAYMENT_COMPLETED.bit(),
+                payment.get("$bit", Document.class).get("completedStepMask", Document.class).get("or"));
+        assertEquals("txn-1", payment.get("$set", Document.class).get("payload.transactionId"));
+        assertTrue(saga.isStepCompleted(SagaStep.PAYMENT_COMPLETED));
+        assertEquals(SagaStatus.COMPLETED, saga.getStatus());
+        verify(sagaStateRepository, never()).save(any(SagaState.class));
+    }
+
+    @Test
+    void retrySaga_ReplaysBookingRequestFromPayload() {
+        SagaState saga = saga();
+        saga.setBookingId(null);
+        saga.setStatus(SagaStatus.RETRYING);
+        saga.setPayload(SagaPayload.builder()
+                .moveInDate(LocalDateTime.of(2030, 1, 1, 12, 0))
+                .moveOutDate(LocalDateTime.of(2031, 1, 1, 12, 0))
+                .bookingDurationMonths(12)
+                .notes("ground floor")
+                .build());
+        when(sagaStateRepository.findById("saga-1")).thenReturn(Optional.of(saga));
+        when(bookingService.getBookingsByAppointmentId("appt-1")).thenReturn(List.of());
+        BookingDto booking = new BookingDto();
+        booking.setId("booking-2");
+        when(bookingService.createBooking(any(CreateBookingRequest.class))).thenReturn(booking);
+
+        orchestrator.retrySaga("saga-1");
+
+        ArgumentCaptor<CreateBookingRequest> request = ArgumentCaptor.forClass(CreateBookingRequest.class);
+        verify(bookingService).createBooking(request.capture());
+        assertEquals("appt-1", request.getValue().getAppointmentId());
+        assertEquals(Integer.valueOf(12), request.getValue().getBookingDurationMonths());
+        assertEquals("ground floor", request.getValue().getNotes());
+        assertEquals("booking-2", saga.getBookingId());
+    }
+
+    @Test
+    void stepMask_RoundTrips() {
+        int mask = SagaStep.maskOf(List.of(SagaStep.APPOINTMENT_CONFIRMED, SagaStep.PAYMENT_COMPLETED));
+
+        assertEquals(0b101, mask);
+        assertEquals(EnumSet.of(SagaStep.APPOINTMENT_CONFIRMED, SagaStep.PAYMENT_COMPLETED),
+                SagaStep.fromMask(mask));
+    }
+
+    private SagaState saga() {
+        SagaState saga = SagaState.builder()
+                .id("saga-1")
+                .bookingId("booking-1")
+                .appointmentId("appt-1")
+                .status(SagaStatus.PROCESSING)
+                .currentStep(SagaStep.BOOKING_CREATED)
+                .build();
+        saga.addCompletedStep(SagaStep.APPOINTMENT_CONFIRMED);
+        saga.addCompletedStep(SagaStep.BOOKING_CREATED);
+        return saga;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.bookingservice.business.saga;
+
+import com.example.bookingservice.persistence.model.SagaState;
+import com.example.bookingservice.persistence.model.SagaStatus;
+import com.example.bookingservice.persistence.model.SagaStep;
+import com.example.bookingservice.persistence.respository.SagaStateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SagaRetrySchedulerTest {
+
+    @Mock
+    private BookingSagaOrchestrator sagaOrchestrator;
+
+    @Mock
+    private SagaStateRepository sagaStateRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private SagaRetryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new SagaRetryScheduler(sagaOrchestrator, sagaStateRepository, mongoTemplate,
+                new SimpleMeterRegistry(), Duration.ofMinutes(2), 3, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void dispatchDueRetries_ClaimsUntilNoneDue() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SagaState.class))).thenReturn(saga("saga-1"), saga("saga-2"), null);
+
+        scheduler.dispatchDueRetries();
+
+        verify(sagaOrchestrator, timeout(2000)).retrySaga("saga-1");
+        verify(sagaOrchestrator, timeout(2000)).retrySaga("saga-2");
+        verify(mongoTemplate, times(3)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(SagaState.class));
+        verify(sagaStateRepository, never()).findAll();
+    }
+
+    @Test
+    void dispatchDueRetries_ClaimsAtMostOneBatch() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SagaState.class))).thenAnswer(invocation -> saga("saga-x"));
+
+        scheduler.dispatchDueRetries();
+
+        verify(mongoTemplate, atMost(3)).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(SagaState.class));
+    }
+
+    @Test
+    void claimNextDue_QueriesDueRetriesAndPushesOutNextRetryAt() {
+        scheduler.claimNextDue();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class),
+                eq(SagaState.class));
+        assertEquals(SagaStatus.RETRYING, query.getValue().getQueryObject().get("status"));
+        assertTrue(query.getValue().getQueryObject().containsKey("nextRetryAt"));
+        assertTrue(update.getValue().getUpdateObject().get("$set", org.bson.Document.class).containsKey("nextRetryAt"));
+    }
+
+    @Test
+    void retry_ThrowingRetryCountsAsFailure() {
+        SagaState saga = saga("saga-1");
+        doThrow(new IllegalStateException("boom")).when(sagaOrchestrator).retrySaga("saga-1");
+        when(sagaStateRepository.findById("saga-1")).thenReturn(Optional.of(saga));
+
+        scheduler.retry("saga-1");
+
+        verify(sagaOrchestrator).handleSagaFailure(eq(saga), eq(SagaStep.BOOKING_CREATED), any(IllegalStateException.class));
+    }
+
+    @Test
+    void backoff_GrowsExponentiallyWithJitterUpToMax() {
+        SagaRetryBackoff backoff = new SagaRetryBackoff(Duration.ofSeconds(30), Duration.ofMinutes(5));
+
+        for (int i = 0; i < 50; i++) {
+            Duration first = backoff.backoff(1);
+            Duration third = backoff.backoff(3);
+            Duration tenth = backoff.backoff(10);
+            assertTrue(first.toMillis() >= 15_000 && first.toMillis() <= 30_000);
+            assertTrue(third.toMillis() >= 60_000 && third.toMillis() <= 120_000);
+            assertTrue(tenth.toMillis() >= 150_000 && tenth.toMillis() <= 300_000);
+        }
+    }
+
+    private SagaState saga(String id) {
+        return SagaState.builder()
+                .id(id)
+                .status(SagaStatus.RETRYING)
+                .currentStep(SagaStep.BOOKING_CREATED)
+                .build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.bookingservice.business.saga;
+
+import com.example.bookingservice.persistence.lock.MongoLeaseLock;
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.BookingStatus;
+import com.example.bookingservice.persistence.model.PaymentStatus;
+import com.example.bookingservice.persistence.model.SagaPayload;
+import com.example.bookingservice.persistence.model.SagaState;
+import com.example.bookingservice.persistence.model.SagaStatus;
+import com.example.bookingservice.persistence.model.SagaStep;
+import com.example.bookingservice.persistence.respository.BookingRepository;
+import com.example.bookingservice.persistence.respository.SagaStateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class StaleSagaWatchdogTest {
+
+    @Mock
+    private SagaStateRepository sagaStateRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private BookingSagaOrchestrator sagaOrchestrator;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoLeaseLock leaseLock;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StaleSagaWatchdog watchdog;
+    private LocalDateTime cutoff;
+
+    @BeforeEach
+    void setUp() {
+        when(leaseLock.getOwnerId()).thenReturn("replica-1");
+        meterRegistry = new SimpleMeterRegistry();
+        watchdog = new StaleSagaWatchdog(sagaStateRepository, bookingRepository, sagaOrchestrator, mongoTemplate,
+                leaseLock, meterRegistry, Duration.ofMinutes(10), Duration.ofMinutes(2), 10, 2);
+        cutoff = LocalDateTime.now().minusMinutes(10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        watchdog.shutdown();
+    }
+
+    @Test
+    void claimAndRecover_PaidBooking_CompletesSaga() {
+        SagaState saga = saga("saga-1", "booking-1");
+        claimReturns(saga);
+        when(bookingRepository.findById("booking-1")).thenReturn(Optional.of(BookingEntity.builder()
+                .id("booking-1").status(BookingStatus.CONFIRMED).paymentStatus(PaymentStatus.COMPLETED).build()));
+
+        StaleSagaWatchdog.Outcome outcome = watchdog.claimAndRecover("saga-1", SagaStatus.PROCESSING, cutoff);
+
+        assertEquals(StaleSagaWatchdog.Outcome.COMPLETED, outcome);
+        verify(sagaOrchestrator).completeSaga(saga);
+        verify(mongoTemplate).updateFirst(any(Query.class), argThat(update ->
+                update.getUpdateObject().containsKey("$unset")), eq(SagaState.class));
+        assertEquals(1, meterRegistry.get("booking.saga.recovery.latency").timer().count());
+    }
+
+    @Test
+    void claimAndRecover_NoBookingAndRetryable_ResumesSaga() {
+        SagaState saga = saga("saga-1", null);
+        saga.setPayload(SagaPayload.builder()
+                .moveInDate(LocalDateTime.now().plusDays(30))
+                .moveOutDate(LocalDateTime.now().plusYears(1))
+                .bookingDurationMonths(12)
+                .build());
+        claimReturns(saga);
+        when(bookingRepository.findByAppointmentId("appt-1")).thenReturn(List.of());
+
+        StaleSagaWatchdog.Outcome outcome = watchdog.claimAndRecover("saga-1", SagaStatus.PROCESSING, cutoff);
+
+        assertEquals(StaleSagaWatchdog.Outcome.RESUMED, outcome);
+        verify(sagaOrchestrator).retrySaga("saga-1");
+    }
+
+    @Test
+    void claimAndRecover_NoBookingAndRetriesExhausted_Compensates() {
+        SagaState saga = saga("saga-1", null);
+        saga.setRetryCount(3);
+        claimReturns(saga);
+        when(bookingRepository.findByAppointmentId("appt-1")).thenReturn(List.of());
+
+        StaleSagaWatchdog.Outcome outcome = watchdog.claimAndRecover("saga-1", SagaStatus.PROCESSING, cutoff);
+
+        assertEquals(StaleSagaWatchdog.Outcome.COMPENSATED, outcome);
+        verify(sagaOrchestrator).handleSagaFailure(eq(saga), any(), any(IllegalStateException.class));
+    }
+
+    @Test
+    void claimAndRecover_StaleRetry_IsMadeDueForTheRetryScheduler() {
+        SagaState saga = saga("saga-1", "booking-1");
+        saga.setStatus(SagaStatus.RETRYING);
+        claimReturns(saga);
+
+        StaleSagaWatchdog.Outcome outcome = watchdog.claimAndRecover("saga-1", SagaStatus.RETRYING, cutoff);
+
+        assertEquals(StaleSagaWatchdog.Outcome.RESUMED, outcome);
+        verify(mongoTemplate).updateFirst(any(Query.class), argThat(update -> update.getUpdateObject().containsKey("$set")
+                && update.getUpdateObject().get("$set", org.bson.Document.class).containsKey("nextRetryAt")), eq(SagaState.class));
+        verifyNoInteractions(sagaOrchestrator, bookingRepository);
+    }
+
+    @Test
+    void claimAndRecover_ClaimedElsewhere_Skips() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SagaState.class))).thenReturn(null);
+
+        assertNull(watchdog.claimAndRecover("saga-1", SagaStatus.PROCESSING, cutoff));
+
+        verifyNoInteractions(bookingRepository, sagaOrchestrator);
+    }
+
+    @Test
+    void recoverStale_ProcessesEveryClaimedSagaOfThePage() {
+        SagaState first = saga("saga-1", "booking-1");
+        SagaState second = saga("saga-2", "booking-2");
+        when(sagaStateRepository.findByStatusAndLastUpdatedAtBefore(eq(SagaStatus.PROCESSING), any(), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SagaState.class))).thenReturn(first, second);
+        when(bookingRepository.findById(anyString())).thenReturn(Optional.of(BookingEntity.builder()
+                .status(BookingStatus.CANCELLED).build()));
+
+        int recovered = watchdog.recoverStale(SagaStatus.PROCESSING, cutoff);
+
+        assertEquals(2, recovered);
+        verify(sagaOrchestrator, times(2)).closeSaga(any(SagaState.class), eq("Booking CANCELLED"));
+    }
+
+    private void claimReturns(SagaState saga) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SagaState.class))).thenReturn(saga);
+    }
+
+    private SagaState saga(String id, String bookingId) {
+        return SagaState.builder()
+                .id(id)
+                .bookingId(bookingId)
+                .appointmentId("appt-1")
+                .status(SagaStatus.PROCESSING)
+                .currentStep(SagaStep.BOOKING_CREATED)
+                .lastUpdatedAt(LocalDateTime.now().minusHours(1))
+                .build();
+    }
+}
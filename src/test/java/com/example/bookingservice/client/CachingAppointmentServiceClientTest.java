@@ -0,0 +1,200 @@
+package com.example.bookingservice.client;
+
+import com.example.bookingservice.domain.dto.AppointmentDto;
+import com.example.bookingservice.domain.response.AppointmentResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CachingAppointmentServiceClientTest {
+
+    @Mock
+    private AppointmentServiceClient delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingAppointmentServiceClient client;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        client = new CachingAppointmentServiceClient(delegate, 100, Duration.ofMinutes(5), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getAppointmentById_CachesSuccessfulResponse() {
+        AppointmentResponse response = AppointmentResponse.success("ok",
+                AppointmentDto.builder().appointmentId("appointment-123").build());
+        when(delegate.getAppointmentById("appointment-123")).thenReturn(response);
+
+        assertSame(response, client.getAppointmentById("appointment-123"));
+        assertSame(response, client.getAppointmentById("appointment-123"));
+
+        verify(delegate, times(1)).getAppointmentById("appointment-123");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void getAppointmentById_DoesNotCacheErrors() {
+        when(delegate.getAppointmentById("appointment-123")).thenReturn(AppointmentResponse.error("not found"));
+
+        client.getAppointmentById("appointment-123");
+        client.getAppointmentById("appointment-123");
+
+        verify(delegate, times(2)).getAppointmentById("appointment-123");
+    }
+
+    @Test
+    void getAppointmentById_DoesNotShareResponsesBetweenCallers() {
+        AppointmentResponse response = AppointmentResponse.success("ok",
+                AppointmentDto.builder().appointmentId("appointment-123").build());
+        when(delegate.getAppointmentById("appointment-123")).thenReturn(response);
+
+        authenticateAs("student-1");
+        client.getAppointmentById("appointment-123");
+        authenticateAs("student-2");
+        client.getAppointmentById("appointment-123");
+        client.getAppointmentById("appointment-123");
+
+        verify(delegate, times(2)).getAppointmentById("appointment-123");
+    }
+
+    @Test
+    void evict_DropsEntriesOfAllCallers() {
+        AppointmentResponse response = AppointmentResponse.success("ok",
+                AppointmentDto.builder().appointmentId("appointment-123").build());
+        when(delegate.getAppointmentById("appointment-123")).thenReturn(response);
+        authenticateAs("student-1");
+        client.getAppointmentById("appointment-123");
+        authenticateAs("student-2");
+        client.getAppointmentById("appointment-123");
+
+        client.evict("appointment-123");
+        client.getAppointmentById("appointment-123");
+        authenticateAs("student-1");
+        client.getAppointmentById("appointment-123");
+
+        verify(delegate, times(4)).getAppointmentById("appointment-123");
+    }
+
+    @Test
+    void evict_ForcesReload() {
+        AppointmentResponse response = AppointmentResponse.success("ok",
+                AppointmentDto.builder().appointmentId("appointment-123").build());
+        when(delegate.getAppointmentById("appointment-123")).thenReturn(response);
+
+        client.getAppointmentById("appointment-123");
+        client.evict("appointment-123");
+        client.getAppointmentById("appointment-123");
+
+        verify(delegate, times(2)).getAppointmentById("appointment-123");
+    }
+
+    @Test
+    void getAppointmentById_ConcurrentCallersShareOneRequest() throws Exception {
+        AppointmentResponse response = AppointmentResponse.success("ok",
+                AppointmentDto.builder().appointmentId("appointment-123").build());
+        CountDownLatch requestStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getAppointmentById("appointment-123")).thenAnswer(invocation -> {
+            requestStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+
+        CompletableFuture<AppointmentResponse> leader =
+                CompletableFuture.supplyAsync(() -> client.getAppointmentById("appointment-123"));
+        assertTrue(requestStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<AppointmentResponse> follower =
+                CompletableFuture.supplyAsync(() -> client.getAppointmentById("appointment-123"));
+        awaitCoalesced(1);
+        release.countDown();
+
+        assertSame(response, leader.get(5, TimeUnit.SECONDS));
+        assertSame(response, follower.get(5, TimeUnit.SECONDS));
+        verify(delegate, times(1)).getAppointmentById("appointment-123");
+    }
+
+    @Test
+    void getAppointmentById_ConcurrentCallersShareFailure() throws Exception {
+        CountDownLatch requestStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getAppointmentById("appointment-123")).thenAnswer(invocation -> {
+            requestStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new IllegalStateException("appointment-service unavailable");
+        });
+
+        CompletableFuture<AppointmentResponse> leader =
+                CompletableFuture.supplyAsync(() -> client.getAppointmentById("appointment-123"));
+        assertTrue(requestStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<AppointmentResponse> follower =
+                CompletableFuture.supplyAsync(() -> client.getAppointmentById("appointment-123"));
+        awaitCoalesced(1);
+        release.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+        assertInstanceOf(IllegalStateException.class, followerError.getCause());
+        verify(delegate, times(1)).getAppointmentById("appointment-123");
+    }
+
+    @Test
+    void getAppointmentById_LeaderThrowsError_ReleasesJoinedCallers() throws Exception {
+        CountDownLatch requestStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(delegate.getAppointmentById("appointment-123")).thenAnswer(invocation -> {
+            requestStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            throw new LinkageError("response codec not loaded");
+        });
+
+        CompletableFuture<AppointmentResponse> leader =
+                CompletableFuture.supplyAsync(() -> client.getAppointmentById("appointment-123"));
+        assertTrue(requestStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<AppointmentResponse> follower =
+                CompletableFuture.supplyAsync(() -> client.getAppointmentById("appointment-123"));
+        awaitCoalesced(1);
+        release.countDown();
+
+        ExecutionException leaderError = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+        ExecutionException followerError = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(LinkageError.class, leaderError.getCause());
+        assertInstanceOf(LinkageError.class, followerError.getCause());
+        verify(delegate, times(1)).getAppointmentById("appointment-123");
+    }
+
+    private void authenticateAs(String principal) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(principal, null));
+    }
+
+    private void awaitCoalesced(double expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get("booking.appointment.lookups.coalesced").counter().count() < expected
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, meterRegistry.get("booking.appointment.lookups.coalesced").counter().count());
+    }
+}
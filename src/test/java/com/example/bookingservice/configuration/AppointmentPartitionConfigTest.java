@@ -0,0 +1,97 @@
+package com.example.bookingservice.configuration;
+
+import com.example.bookingservice.consumer.AppointmentEventConsumer;
+import com.example.bookingservice.event.AppointmentEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AppointmentPartitionConfigTest {
+
+    @Mock
+    private AmqpAdmin amqpAdmin;
+
+    @Mock
+    private AppointmentEventConsumer consumer;
+
+    @Mock
+    private RabbitListenerEndpointRegistrar registrar;
+
+    private final AppointmentPartitionConfig config = new AppointmentPartitionConfig(null, 3, "appointmentId");
+
+    @Test
+    void appointmentPartitions_DeclaresSingleActiveConsumerQueuesOnHashExchange() {
+        Declarables declarables = config.appointmentPartitions(new DirectExchange(RabbitMQConfig.EXCHANGE_NAME));
+
+        CustomExchange exchange = declarables.getDeclarablesByType(CustomExchange.class).get(0);
+        assertEquals("x-consistent-hash", exchange.getType());
+        assertEquals("appointmentId", exchange.getArguments().get("hash-header"));
+
+        List<Queue> queues = declarables.getDeclarablesByType(Queue.class);
+        assertEquals(List.of("appointment-queue.p0", "appointment-queue.p1", "appointment-queue.p2"),
+                queues.stream().map(Queue::getName).toList());
+        queues.forEach(queue -> assertEquals(true, queue.getArguments().get("x-single-active-consumer")));
+
+        // app-exchange -> hash exchange, then one weighted binding per partition
+        assertEquals(4, declarables.getDeclarablesByType(Binding.class).size());
+    }
+
+    @Test
+    void appointmentPartitionListeners_OneSingleThreadedEndpointPerPartition() {
+        MessageConverter converter = new RabbitMQConfig().messageConverter("json", false, 2048);
+        config.appointmentPartitionListeners(consumer, converter, new SimpleRabbitListenerContainerFactory())
+                .configureRabbitListeners(registrar);
+
+        ArgumentCaptor<SimpleRabbitListenerEndpoint> endpoints = ArgumentCaptor.forClass(SimpleRabbitListenerEndpoint.class);
+        verify(registrar, times(3)).registerEndpoint(endpoints.capture(), any(SimpleRabbitListenerContainerFactory.class));
+        SimpleRabbitListenerEndpoint first = endpoints.getAllValues().get(0);
+        assertEquals(List.of("appointment-queue.p0"), first.getQueueNames());
+        assertEquals("1", first.getConcurrency());
+
+        // Type header of the publishing service, not resolvable here
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setHeader("__TypeId__", "com.example.appointmentservice.event.AppointmentEvent");
+        first.getMessageListener().onMessage(new Message(
+                "{\"eventType\":\"APPOINTMENT_CANCELLED\",\"appointmentId\":\"appt-1\"}".getBytes(StandardCharsets.UTF_8),
+                properties));
+
+        ArgumentCaptor<AppointmentEvent> event = ArgumentCaptor.forClass(AppointmentEvent.class);
+        verify(consumer).consumeAppointmentEvent(event.capture());
+        assertEquals("appt-1", event.getValue().getAppointmentId());
+    }
+
+    @Test
+    void unbindAppointmentQueue_RemovesLegacyBinding() {
+        AppointmentPartitionConfig withAdmin = new AppointmentPartitionConfig(amqpAdmin, 3, "appointmentId");
+
+        withAdmin.unbindAppointmentQueue();
+
+        ArgumentCaptor<Binding> binding = ArgumentCaptor.forClass(Binding.class);
+        verify(amqpAdmin).removeBinding(binding.capture());
+        assertEquals(RabbitMQConfig.APPOINTMENT_QUEUE, binding.getValue().getDestination());
+        assertEquals(RabbitMQConfig.APPOINTMENT_ROUTING_KEY, binding.getValue().getRoutingKey());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.bookingservice.configuration;
+
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.OutboxEvent;
+import com.example.bookingservice.persistence.model.PaymentEntity;
+import com.example.bookingservice.persistence.model.SagaState;
+import com.mongodb.WriteConcern;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BookingWriteConcernResolverTest {
+
+    private final MongoClientProperties properties = new MongoClientProperties();
+    private final BookingWriteConcernResolver resolver = new BookingWriteConcernResolver(
+            properties.getWriteConcern().getCritical().toWriteConcern(),
+            properties.getWriteConcern().getStandard().toWriteConcern());
+
+    @Test
+    void resolve_CriticalEntities_UseJournaledMajority() {
+        for (Class<?> type : new Class<?>[]{PaymentEntity.class, SagaState.class, OutboxEvent.class}) {
+            WriteConcern concern = resolver.resolve(action(type));
+
+            assertEquals("majority", concern.getWString());
+            assertTrue(concern.getJournal());
+            assertEquals(5000L, concern.getWTimeout(TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    void resolve_OtherEntities_UseStandard() {
+        WriteConcern concern = resolver.resolve(action(BookingEntity.class));
+
+        assertEquals(1, concern.getW());
+        assertFalse(concern.getJournal());
+        assertNull(concern.getWTimeout(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void toWriteConcern_NumericAcknowledgement() {
+        WriteConcern concern = new MongoClientProperties.Level("2", true, Duration.ofSeconds(1)).toWriteConcern();
+
+        assertEquals(2, concern.getW());
+        assertEquals(1000L, concern.getWTimeout(TimeUnit.MILLISECONDS));
+    }
+
+    private MongoAction action(Class<?> type) {
+        return new MongoAction(WriteConcern.ACKNOWLEDGED, MongoActionOperation.UPDATE, "collection", type, null, null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bookingservice.configuration;
+
+import com.example.bookingservice.event.BookingEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RabbitMessageConverterTest {
+
+    private final RabbitMQConfig config = new RabbitMQConfig();
+
+    @Test
+    void cborEncoding_RoundTripsDatesAndDecimals() {
+        MessageConverter converter = config.messageConverter("cbor", false, 2048);
+        BookingEvent event = event();
+
+        Message message = converter.toMessage(event, new MessageProperties());
+
+        assertEquals(Jackson2CborMessageConverter.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        Message json = config.messageConverter("json", false, 2048).toMessage(event, new MessageProperties());
+        assertTrue(message.getBody().length < json.getBody().length);
+        assertEquals(event, converter.fromMessage(message));
+    }
+
+    @Test
+    void compression_OnlyAboveThreshold() {
+        MessageConverter converter = config.messageConverter("json", true, 64);
+        Message smallMessage = converter.toMessage("booking-1", new MessageProperties());
+        Message largeMessage = converter.toMessage(event(), new MessageProperties());
+
+        assertFalse(smallMessage.getMessageProperties().getContentEncoding().startsWith("gzip"));
+        assertTrue(largeMessage.getMessageProperties().getContentEncoding().startsWith("gzip"));
+        assertEquals(event(), converter.fromMessage(largeMessage));
+    }
+
+    @Test
+    void consumer_DecodesEitherEncodingByContentType() {
+        MessageConverter consumer = config.messageConverter("json", false, 2048);
+        Message cbor = config.messageConverter("cbor", true, 0).toMessage(event(), new MessageProperties());
+
+        assertEquals(event(), consumer.fromMessage(cbor));
+    }
+
+    private BookingEvent event() {
+        return BookingEvent.builder()
+                .eventId("event-1")
+                .eventType("BOOKING_CREATED")
+                .bookingId("booking-1")
+                .propertyTitle("Luxury Apartment near the city centre")
+                .propertyAddress("123 Main St, 5611 AB Eindhoven")
+                .moveInDate(LocalDateTime.of(2025, 2, 14, 12, 0))
+                .moveOutDate(LocalDateTime.of(2026, 2, 14, 12, 0))
+                .totalAmount(new BigDecimal("16250.00"))
+                .monthlyRent(new BigDecimal("1250.00"))
+                .notes("Bright two bedroom apartment with balcony and shared garden, close to the university")
+                .build();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.bookingservice.consumer;
+
+import com.example.bookingservice.business.saga.BookingSagaOrchestrator;
+import com.example.bookingservice.client.AppointmentServiceClient;
+import com.example.bookingservice.event.AppointmentEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AppointmentEventConsumerTest {
+
+    @Mock
+    private BookingSagaOrchestrator sagaOrchestrator;
+
+    @Mock
+    private AppointmentServiceClient appointmentServiceClient;
+
+    @InjectMocks
+    private AppointmentEventConsumer consumer;
+
+    @Test
+    void consumeAppointmentEvents_HandlesEventsInArrivalOrder() {
+        List<AppointmentEvent> events = List.of(
+                event("APPOINTMENT_CANCELLED", "appt-1"),
+                event("APPOINTMENT_RESCHEDULED", "appt-2"),
+                event("APPOINTMENT_CONFIRMED", "appt-4"),
+                event("APPOINTMENT_CANCELLED", "appt-3"));
+
+        consumer.consumeAppointmentEvents(events);
+
+        // Not grouped by type, the reschedule of appt-2 is handled before the later cancellation of appt-3
+        InOrder inOrder = inOrder(appointmentServiceClient);
+        inOrder.verify(appointmentServiceClient).evict("appt-1");
+        inOrder.verify(appointmentServiceClient).evict("appt-2");
+        inOrder.verify(appointmentServiceClient).evict("appt-3");
+        verifyNoMoreInteractions(appointmentServiceClient);
+    }
+
+    @Test
+    void consumeAppointmentEvents_FailedEventDoesNotStopTheBatch() {
+        doThrow(new IllegalStateException("cache unavailable")).when(appointmentServiceClient).evict("appt-1");
+
+        consumer.consumeAppointmentEvents(List.of(
+                event("APPOINTMENT_CANCELLED", "appt-1"),
+                event("APPOINTMENT_RESCHEDULED", "appt-2")));
+
+        verify(appointmentServiceClient).evict("appt-2");
+    }
+
+    @Test
+    void consumeAppointmentEvent_ConfirmedOnly_TouchesNothing() {
+        consumer.consumeAppointmentEvent(event("APPOINTMENT_CONFIRMED", "appt-1"));
+
+        verifyNoInteractions(appointmentServiceClient, sagaOrchestrator);
+    }
+
+    private AppointmentEvent event(String type, String appointmentId) {
+        AppointmentEvent event = new AppointmentEvent();
+        event.setEventType(type);
+        event.setAppointmentId(appointmentId);
+        return event;
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.bookingservice.load;
+
+import com.example.bookingservice.business.impl.BookingServiceImpl;
+import com.example.bookingservice.business.mapper.BookingMapper;
+import com.example.bookingservice.business.payment.MockPaymentGateway;
+import com.example.bookingservice.client.AppointmentServiceClient;
+import com.example.bookingservice.domain.dto.AppointmentDto;
+import com.example.bookingservice.domain.dto.BookingDto;
+import com.example.bookingservice.domain.request.CreateBookingRequest;
+import com.example.bookingservice.domain.request.ProcessPaymentRequest;
+import com.example.bookingservice.domain.response.AppointmentResponse;
+import com.example.bookingservice.persistence.model.AppointmentStatus;
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.PaymentEntity;
+import com.example.bookingservice.persistence.model.PaymentMethod;
+import com.example.bookingservice.persistence.respository.BookingRepository;
+import com.example.bookingservice.persistence.respository.PaymentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.bson.Document;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Concurrent createBooking + processPayment on platform threads vs virtual threads
+ * Mongo and appointment-service are simulated with fixed latencies, so the run measures how the
+ * blocking request path scales with the executor and not the infrastructure.
+ *
+ * ./gradlew loadTest -PjavaVersion=21 [-Dload.requests=2000 -Dload.platformThreads=200]
+ */
+@Tag("load")
+public class BookingThroughputLoadTest {
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 2000);
+    // Tomcat's default max threads
+    private static final int PLATFORM_THREADS = Integer.getInteger("load.platformThreads", 200);
+    private static final Duration MONGO_LATENCY = Duration.ofMillis(5);
+    private static final Duration APPOINTMENT_SERVICE_LATENCY = Duration.ofMillis(50);
+    private static final Duration PAYMENT_GATEWAY_LATENCY = Duration.ofMillis(200);
+
+    private final Map<String, BookingEntity> bookings = new ConcurrentHashMap<>();
+    private final Map<String, PaymentEntity> payments = new ConcurrentHashMap<>();
+
+    private MockPaymentGateway paymentGateway;
+    private BookingServiceImpl bookingService;
+
+    @BeforeEach
+    void setUp() {
+        BookingRepository bookingRepository = mock(BookingRepository.class, withSettings().stubOnly());
+        PaymentRepository paymentRepository = mock(PaymentRepository.class, withSettings().stubOnly());
+        AppointmentServiceClient appointmentServiceClient = mock(AppointmentServiceClient.class, withSettings().stubOnly());
+
+        Answer<BookingEntity> saveBooking = invocation -> {
+            pause(MONGO_LATENCY);
+            BookingEntity booking = invocation.getArgument(0);
+            if (booking.getId() == null) {
+                booking.setId(UUID.randomUUID().toString());
+            }
+            bookings.put(booking.getId(), booking);
+            return booking;
+        };
+        when(bookingRepository.insert(any(BookingEntity.class))).thenAnswer(saveBooking);
+        when(bookingRepository.save(any(BookingEntity.class))).thenAnswer(saveBooking);
+        when(bookingRepository.findById(anyString())).thenAnswer(invocation -> {
+            pause(MONGO_LATENCY);
+            return Optional.ofNullable(bookings.get(invocation.<String>getArgument(0)));
+        });
+        when(bookingRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenAnswer(invocation -> {
+            pause(MONGO_LATENCY);
+            BookingEntity booking = bookings.get(invocation.<String>getArgument(0));
+            if (booking == null) {
+                return Optional.empty();
+            }
+            // Every request works on its own booking, so the precondition holds and only the changes are applied
+            applySet(booking, invocation.getArgument(2));
+            return Optional.of(booking);
+        });
+        when(paymentRepository.save(any(PaymentEntity.class))).thenAnswer(invocation -> {
+            pause(MONGO_LATENCY);
+            PaymentEntity payment = invocation.getArgument(0);
+            if (payment.getId() == null) {
+                payment.setId(UUID.randomUUID().toString());
+            }
+            payments.put(payment.getId(), payment);
+            return payment;
+        });
+        when(paymentRepository.findById(anyString())).thenAnswer(invocation -> {
+            pause(MONGO_LATENCY);
+            return Optional.ofNullable(payments.get(invocation.<String>getArgument(0)));
+        });
+        when(paymentRepository.updateIfMatches(anyString(), any(), any(Update.class))).thenAnswer(invocation -> {
+            pause(MONGO_LATENCY);
+            PaymentEntity payment = payments.get(invocation.<String>getArgument(0));
+            if (payment == null) {
+                return Optional.empty();
+            }
+            applySet(payment, invocation.getArgument(2));
+            return Optional.of(payment);
+        });
+        when(appointmentServiceClient.getAppointmentById(anyString())).thenAnswer(invocation -> {
+            pause(APPOINTMENT_SERVICE_LATENCY);
+            return AppointmentResponse.success("Appointment retrieved", appointment(invocation.getArgument(0)));
+        });
+
+        useGateway(false);
+    }
+
+    /**
+     * Service with a gateway set up as in the platform or the virtual-threads profile
+     */
+    private void useGateway(boolean virtualThreads) {
+        if (paymentGateway != null) {
+            paymentGateway.shutdown();
+        }
+        paymentGateway = new MockPaymentGateway(PAYMENT_GATEWAY_LATENCY, 0.0, 2, virtualThreads);
+        bookingService = new BookingServiceImpl(
+                bookingRepository, paymentRepository, new BookingMapper(), appointmentServiceClient, paymentGateway);
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentGateway.shutdown();
+    }
+
+    @Test
+    void createBookingAndProcessPayment_PlatformVsVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads need Java 21, run with -PjavaVersion=21");
+
+        // Warm up JIT and Mockito before measuring
+        run("warm-up", Executors.newFixedThreadPool(PLATFORM_THREADS), REQUESTS / 4);
+
+        LoadResult platform = run("platform threads (" + PLATFORM_THREADS + ")",
+                Executors.newFixedThreadPool(PLATFORM_THREADS), REQUESTS);
+        useGateway(true);
+        LoadResult virtual = run("virtual threads", newVirtualThreadPerTaskExecutor(), REQUESTS);
+
+        System.out.printf("speed-up virtual/platform: %.2fx%n", virtual.throughput() / platform.throughput());
+        assertEquals(0, platform.failures());
+        assertEquals(0, virtual.failures());
+    }
+
+    /**
+     * Submit all requests at once, like a burst hitting Tomcat, and wait for every response
+     */
+    private LoadResult run(String name, ExecutorService executor, int requests) throws InterruptedException {
+        long[] latencies = new long[requests];
+        List<Future<?>> futures = new ArrayList<>(requests);
+        int failures = 0;
+
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < requests; i++) {
+                int request = i;
+                long submitted = System.nanoTime();
+                futures.add(executor.submit(() -> {
+                    BookingDto booking = bookingService.createBooking(createBookingRequest());
+                    bookingService.processPayment(ProcessPaymentRequest.builder()
+                            .bookingId(booking.getId())
+                            .amount(booking.getTotalAmount())
+                            .paymentMethod(PaymentMethod.CREDIT_CARD)
+                            .build());
+                    latencies[request] = System.nanoTime() - submitted;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    failures++;
+                }
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        LoadResult result = new LoadResult(
+                requests / (elapsed / 1_000_000_000.0),
+                TimeUnit.NANOSECONDS.toMillis(latencies[requests / 2]),
+                TimeUnit.NANOSECONDS.toMillis(latencies[(int) (requests * 0.99) - 1]),
+                failures);
+        System.out.printf("%-28s %6d requests  %8.1f req/s  p50 %5d ms  p99 %5d ms  failures %d%n",
+                name, requests, result.throughput(), result.p50Millis(), result.p99Millis(), result.failures());
+        return result;
+    }
+
+    private CreateBookingRequest createBookingRequest() {
+        return CreateBookingRequest.builder()
+                .appointmentId(UUID.randomUUID().toString())
+                .moveInDate(LocalDateTime.now().plusDays(30))
+                .moveOutDate(LocalDateTime.now().plusYears(1))
+                .bookingDurationMonths(12)
+                .notes("Load test booking")
+                .build();
+    }
+
+    private AppointmentDto appointment(String appointmentId) {
+        AppointmentDto appointment = new AppointmentDto();
+        appointment.setAppointmentId(appointmentId);
+        appointment.setStatus(AppointmentStatus.CONFIRMED);
+        appointment.setAppointmentTitle("Viewing Appointment");
+        appointment.setAppointmentDateTime(LocalDateTime.now().plusDays(5));
+        appointment.setPropertyId(1L);
+        appointment.setPropertyTitle("Luxury Apartment");
+        appointment.setPropertyIsRented(false);
+        appointment.setPropertyRentAmount(new BigDecimal("1250.00"));
+        appointment.setRequesterId(100L);
+        appointment.setProviderId(200L);
+        return appointment;
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() throws Exception {
+        // Executors.newVirtualThreadPerTaskExecutor is Java 21 API, the test sources compile on 17
+        return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    }
+
+    private static void applySet(Object target, Update changes) {
+        Document set = changes.getUpdateObject().get("$set", Document.class);
+        if (set != null) {
+            BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(target);
+            set.forEach(wrapper::setPropertyValue);
+        }
+    }
+
+    private static void pause(Duration latency) throws InterruptedException {
+        Thread.sleep(latency.toMillis());
+    }
+
+    private record LoadResult(double throughput, long p50Millis, long p99Millis, int failures) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.bookingservice.persistence.index;
+
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class QueryPlanAdvisorTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoDatabase database;
+
+    private QueryPlanAdvisor advisor;
+
+    @BeforeEach
+    void setUp() {
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, new MongoMappingContext());
+        converter.afterPropertiesSet();
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.getDb()).thenReturn(database);
+        advisor = new QueryPlanAdvisor(mongoTemplate);
+    }
+
+    @Test
+    void explainAll_FlagsCollectionScans() {
+        when(database.runCommand(any(Bson.class))).thenReturn(plan(new Document("stage", "COLLSCAN")));
+
+        List<QueryPlanReport> reports = advisor.explainAll();
+
+        QueryPlanReport overdue = reports.stream()
+                .filter(r -> r.getMethod().equals("findByPaymentDeadlineBeforeAndStatusNot"))
+                .findFirst().orElseThrow();
+        assertTrue(overdue.getFlagged());
+        assertTrue(overdue.getCollectionScan());
+        assertEquals("bookings", overdue.getCollection());
+        assertTrue(overdue.getFilter().contains("paymentDeadline"));
+        assertTrue(reports.stream().anyMatch(r -> r.getMethod().startsWith("findPage")));
+        assertTrue(reports.stream().noneMatch(r -> r.getMethod().equals("insertUnordered")));
+    }
+
+    @Test
+    void explainAll_IndexScanIsNotFlagged() {
+        Document ixscan = new Document("stage", "FETCH")
+                .append("inputStage", new Document("stage", "IXSCAN").append("indexName", "status_page_idx"));
+        when(database.runCommand(any(Bson.class))).thenReturn(plan(ixscan));
+
+        List<QueryPlanReport> reports = advisor.explainAll();
+
+        assertTrue(reports.stream().noneMatch(QueryPlanReport::getFlagged));
+        ArgumentCaptor<Bson> command = ArgumentCaptor.forClass(Bson.class);
+        verify(database, atLeastOnce()).runCommand(command.capture());
+        assertTrue(command.getAllValues().stream().allMatch(c -> ((Document) c).containsKey("explain")));
+    }
+
+    @Test
+    void collectStages_FindsNestedInMemorySort() {
+        Document plan = new Document("stage", "SORT")
+                .append("inputStage", new Document("stage", "FETCH")
+                        .append("inputStages", List.of(new Document("stage", "IXSCAN").append("indexName", "a_idx"))));
+        List<String> stages = new ArrayList<>();
+        Set<String> indexes = new LinkedHashSet<>();
+
+        QueryPlanAdvisor.collectStages(plan, stages, indexes);
+
+        assertEquals(List.of("SORT", "FETCH", "IXSCAN"), stages);
+        assertEquals(Set.of("a_idx"), indexes);
+    }
+
+    private Document plan(Document winningPlan) {
+        return new Document("queryPlanner", new Document("winningPlan", winningPlan));
+    }
+}
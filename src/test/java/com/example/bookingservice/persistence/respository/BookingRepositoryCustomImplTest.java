@@ -0,0 +1,117 @@
+package com.example.bookingservice.persistence.respository;
+
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.routing.SecondaryReadRouter;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingRepositoryCustomImplTest {
+
+    // Mongo's order for the page sort: createdAt descending with missing values last, then _id descending
+    private static final Comparator<BookingEntity> PAGE_ORDER = Comparator
+            .comparing(BookingEntity::getCreatedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparing(BookingEntity::getId)
+            .reversed();
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private SecondaryReadRouter secondaryReadRouter;
+
+    private BookingRepositoryCustomImpl repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new BookingRepositoryCustomImpl(mongoTemplate, secondaryReadRouter);
+    }
+
+    @Test
+    void findPage_PagesFromDatedBookingsIntoBookingsWithoutCreatedAt() {
+        LocalDateTime now = LocalDateTime.of(2026, 10, 1, 12, 0);
+        List<BookingEntity> stored = List.of(
+                booking("booking-1", now.minusDays(2)),
+                booking("booking-2", now.minusDays(1)),
+                booking("booking-3", now),
+                booking("booking-4", null),
+                booking("booking-5", null));
+        when(secondaryReadRouter.find(any(Query.class), eq(BookingEntity.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            return stored.stream()
+                    .filter(booking -> matches(query.getQueryObject(), booking))
+                    .sorted(PAGE_ORDER)
+                    .limit(query.getLimit())
+                    .toList();
+        });
+
+        List<String> seen = new ArrayList<>();
+        BookingCursor after = null;
+        List<BookingEntity> page;
+        do {
+            page = repository.findPage(null, after, 2, null);
+            page.forEach(booking -> seen.add(booking.getId()));
+            after = page.isEmpty() ? null : BookingCursor.of(page.get(page.size() - 1));
+        } while (!page.isEmpty());
+
+        // The second page crosses from booking-1 into the undated bookings
+        assertEquals(List.of("booking-3", "booking-2", "booking-1", "booking-5", "booking-4"), seen);
+    }
+
+    private static BookingEntity booking(String id, LocalDateTime createdAt) {
+        return BookingEntity.builder().id(id).createdAt(createdAt).build();
+    }
+
+    /**
+     * Evaluates the $and / $or / $lt / equality subset of the query language used by the keyset criteria
+     */
+    private static boolean matches(Document criteria, BookingEntity booking) {
+        for (Map.Entry<String, Object> entry : criteria.entrySet()) {
+            boolean matched = switch (entry.getKey()) {
+                case "$and" -> ((List<?>) entry.getValue()).stream()
+                        .allMatch(part -> matches((Document) part, booking));
+                case "$or" -> ((List<?>) entry.getValue()).stream()
+                        .anyMatch(part -> matches((Document) part, booking));
+                default -> matchesField(field(booking, entry.getKey()), entry.getValue());
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static boolean matchesField(Comparable actual, Object condition) {
+        if (condition instanceof Document operators && operators.containsKey("$lt")) {
+            return actual != null && actual.compareTo(operators.get("$lt")) < 0;
+        }
+        return Objects.equals(actual, condition);
+    }
+
+    private static Comparable<?> field(BookingEntity booking, String name) {
+        return switch (name) {
+            case "createdAt" -> booking.getCreatedAt();
+            case "id", "_id" -> booking.getId();
+            default -> throw new IllegalArgumentException("Unsupported field " + name);
+        };
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.bookingservice.persistence.routing;
+
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SecondaryReadRouterTest {
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MongoTemplate sessionTemplate;
+
+    @Mock
+    private MongoClient mongoClient;
+
+    @Mock
+    private ClientSession session;
+
+    private CausalTokenStore tokenStore;
+    private SecondaryReadRouter router;
+
+    @BeforeEach
+    void setUp() {
+        tokenStore = new CausalTokenStore(Duration.ofSeconds(90), 100);
+        router = new SecondaryReadRouter(mongoTemplate, mongoClient, tokenStore, true, Duration.ofSeconds(90));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("tenant-1", null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void find_NoRecentWrite_ReadsSecondaryWithoutSession() {
+        Query query = new Query();
+
+        router.find(query, BookingEntity.class);
+
+        assertEquals(ReadPreference.secondaryPreferred(90, TimeUnit.SECONDS), query.getReadPreference());
+        verify(mongoTemplate).find(query, BookingEntity.class);
+        verifyNoInteractions(mongoClient);
+    }
+
+    @Test
+    void find_AfterOwnWrite_ReadsInCausalSession() {
+        BsonTimestamp operationTime = new BsonTimestamp(1700000000, 3);
+        BsonDocument clusterTime = new BsonDocument("clusterTime", operationTime);
+        new CausalTokenCommandListener(tokenStore).commandSucceeded(insertSucceeded(operationTime, clusterTime));
+
+        when(mongoClient.startSession(any())).thenReturn(session);
+        when(mongoTemplate.withSession(session)).thenReturn(sessionTemplate);
+        Query query = new Query();
+
+        router.find(query, BookingEntity.class);
+
+        verify(session).advanceOperationTime(operationTime);
+        verify(session).advanceClusterTime(clusterTime);
+        verify(sessionTemplate).find(query, BookingEntity.class);
+        verify(session).close();
+    }
+
+    @Test
+    void find_OtherUsersWrite_NotApplied() {
+        BsonTimestamp operationTime = new BsonTimestamp(1700000000, 3);
+        new CausalTokenCommandListener(tokenStore).commandSucceeded(
+                insertSucceeded(operationTime, new BsonDocument("clusterTime", operationTime)));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("tenant-2", null, List.of()));
+
+        router.find(new Query(), BookingEntity.class);
+
+        verifyNoInteractions(mongoClient);
+    }
+
+    @Test
+    void find_Disabled_UsesPrimary() {
+        router = new SecondaryReadRouter(mongoTemplate, mongoClient, tokenStore, false, Duration.ofSeconds(90));
+        Query query = new Query();
+
+        router.find(query, BookingEntity.class);
+
+        assertNull(query.getReadPreference());
+        verify(mongoTemplate).find(query, BookingEntity.class);
+    }
+
+    private CommandSucceededEvent insertSucceeded(BsonTimestamp operationTime, BsonDocument clusterTime) {
+        BsonDocument response = new BsonDocument("ok", new BsonInt64(1))
+                .append("operationTime", operationTime)
+                .append("$clusterTime", clusterTime);
+        CommandSucceededEvent event = mock(CommandSucceededEvent.class);
+        when(event.getCommandName()).thenReturn("insert");
+        when(event.getResponse()).thenReturn(response);
+        return event;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.bookingservice.producer;
+
+import com.example.bookingservice.configuration.RabbitMQConfig;
+import com.example.bookingservice.event.BookingEvent;
+import com.example.bookingservice.event.BookingStatusChangedEvent;
+import com.example.bookingservice.persistence.model.OutboxEvent;
+import com.example.bookingservice.persistence.model.PendingEvent;
+import com.example.bookingservice.persistence.respository.OutboxEventRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingEventProducerTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void publishBookingPaymentCompleted_RoutesByEventType() {
+        BookingEventProducer producer = new BookingEventProducer(outboxEventRepository, "full", false);
+
+        producer.publishBookingPaymentCompleted(BookingEvent.builder().bookingId("booking-1").build());
+
+        ArgumentCaptor<OutboxEvent> outbox = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).insert(outbox.capture());
+        assertEquals(RabbitMQConfig.BOOKING_EVENTS_EXCHANGE, outbox.getValue().getExchange());
+        assertEquals("booking.payment.completed", outbox.getValue().getRoutingKey());
+    }
+
+    @Test
+    void pendingStatusChange_UsesStatusChangedRoutingKey() {
+        BookingEventProducer producer = new BookingEventProducer(outboxEventRepository, "delta", false);
+
+        PendingEvent pending = producer.pendingEvent(BookingStatusChangedEvent.builder().bookingId("booking-1").build());
+
+        assertEquals("booking.status.changed", pending.getRoutingKey());
+        assertEquals(BookingStatusChangedEvent.EVENT_TYPE, pending.getEventType());
+        assertNotNull(pending.getEventId());
+        // Stored with the booking write, nothing goes to the outbox collection directly
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    @Test
+    void pendingEvent_SetsTypeAndRoute() {
+        BookingEventProducer producer = new BookingEventProducer(outboxEventRepository, "full", false);
+        BookingEvent event = BookingEvent.builder().bookingId("booking-1").build();
+
+        PendingEvent pending = producer.pendingEvent("BOOKING_CANCELLED", event);
+
+        assertEquals("BOOKING_CANCELLED", event.getEventType());
+        assertEquals(RabbitMQConfig.BOOKING_EVENTS_EXCHANGE, pending.getExchange());
+        assertEquals("booking.cancelled", pending.getRoutingKey());
+        assertSame(event, pending.getPayload());
+        assertEquals(event.getEventId(), pending.getEventId());
+    }
+
+    @Test
+    void legacyRouting_UsesDirectExchange() {
+        BookingEventProducer producer = new BookingEventProducer(outboxEventRepository, "full", true);
+
+        producer.publishBookingCreated(BookingEvent.builder().bookingId("booking-1").build());
+
+        ArgumentCaptor<OutboxEvent> outbox = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).insert(outbox.capture());
+        assertEquals(RabbitMQConfig.EXCHANGE_NAME, outbox.getValue().getExchange());
+        assertEquals(RabbitMQConfig.BOOKING_ROUTING_KEY, outbox.getValue().getRoutingKey());
+    }
+
+    @Test
+    void routingKeyFor_PrefixesNonBookingTypes() {
+        assertEquals("booking.created", BookingEventProducer.routingKeyFor("BOOKING_CREATED"));
+        assertEquals("booking.saga.compensated", BookingEventProducer.routingKeyFor("SAGA_COMPENSATED"));
+        assertEquals("booking.event", BookingEventProducer.routingKeyFor(null));
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.bookingservice.producer;
+
+import com.example.bookingservice.event.BookingEvent;
+import com.example.bookingservice.persistence.lock.MongoLeaseLock;
+import com.example.bookingservice.persistence.model.BookingEntity;
+import com.example.bookingservice.persistence.model.OutboxEvent;
+import com.example.bookingservice.persistence.model.OutboxStatus;
+import com.example.bookingservice.persistence.model.PendingEvent;
+import com.example.bookingservice.persistence.respository.OutboxEventRepository;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private RabbitTemplate rabbitTemplate;
+
+    @Mock
+    private MongoLeaseLock leaseLock;
+
+    private PublisherConfirmTracker confirmTracker;
+    private OutboxRelay relay;
+    private OutboxEvent outboxEvent;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        confirmTracker = new PublisherConfirmTracker(meterRegistry, 1000);
+        when(leaseLock.getOwnerId()).thenReturn("replica-1");
+        relay = new OutboxRelay(outboxEventRepository, mongoTemplate, rabbitTemplate, confirmTracker, leaseLock,
+                meterRegistry, 100, Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(30));
+
+        outboxEvent = OutboxEvent.builder()
+                .id("outbox-1")
+                .eventId("event-1")
+                .exchange("app-exchange")
+                .routingKey("booking.key")
+                .payload(BookingEvent.builder().bookingId("booking-123").build())
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void relayBatch_PublishesWithCorrelationAndWaitsForConfirm() {
+        when(claimNext()).thenReturn(outboxEvent, (OutboxEvent) null);
+
+        int published = relay.relayBatch();
+
+        assertEquals(1, published);
+        ArgumentCaptor<CorrelationData> correlation = ArgumentCaptor.forClass(CorrelationData.class);
+        verify(rabbitTemplate).convertAndSend(eq("app-exchange"), eq("booking.key"),
+                eq(outboxEvent.getPayload()), any(MessagePostProcessor.class), correlation.capture());
+        assertEquals("event-1", correlation.getValue().getId());
+        assertEquals(List.of("outbox-1"), confirmTracker.inFlightIds());
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(OutboxEvent.class));
+    }
+
+    @Test
+    void relayBatch_AckedEventIsMarkedSent() {
+        when(claimNext()).thenReturn(outboxEvent, (OutboxEvent) null);
+        relay.relayBatch();
+        confirmTracker.confirm(new CorrelationData("event-1"), true, null);
+
+        relay.relayBatch();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), update.capture(), eq(OutboxEvent.class));
+        assertEquals(OutboxStatus.SENT, update.getValue().getUpdateObject().get("$set", Document.class).get("status"));
+        assertTrue(update.getValue().getUpdateObject().get("$unset", Document.class).containsKey("claimedBy"));
+        assertTrue(confirmTracker.inFlightIds().isEmpty());
+    }
+
+    @Test
+    void relayBatch_NackedEventIsScheduledForRetry() {
+        when(claimNext()).thenReturn(outboxEvent, (OutboxEvent) null);
+        relay.relayBatch();
+        confirmTracker.confirm(new CorrelationData("event-1"), false, "queue full");
+
+        relay.relayBatch();
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateMulti(any(Query.class), update.capture(), eq(OutboxEvent.class));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertTrue(update.getValue().getUpdateObject().containsKey("$inc"));
+        assertFalse(set.containsKey("status"));
+        assertEquals("nack: queue full", set.get("lastError"));
+        assertNotNull(set.get("nextAttemptAt"));
+    }
+
+    @Test
+    void relayBatch_ClaimsEventsNotHeldByAnotherReplica() {
+        when(claimNext()).thenReturn(outboxEvent, (OutboxEvent) null);
+
+        relay.relayBatch();
+
+        ArgumentCaptor<Query> claimable = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> claim = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).findAndModify(claimable.capture(), claim.capture(),
+                any(FindAndModifyOptions.class), eq(OutboxEvent.class));
+        assertTrue(claimable.getValue().getQueryObject().toString().contains("claimExpiresAt"));
+        Document set = claim.getValue().getUpdateObject().get("$set", Document.class);
+        assertEquals("replica-1", set.get("claimedBy"));
+        assertNotNull(set.get("claimExpiresAt"));
+    }
+
+    @Test
+    void relayBatch_FullConfirmTable_PublishesNothing() {
+        confirmTracker = new PublisherConfirmTracker(new SimpleMeterRegistry(), 1);
+        relay = new OutboxRelay(outboxEventRepository, mongoTemplate, rabbitTemplate, confirmTracker, leaseLock,
+                new SimpleMeterRegistry(), 100, Duration.ofSeconds(5), Duration.ofSeconds(5), Duration.ofSeconds(30));
+        confirmTracker.track(OutboxEvent.builder().id("outbox-0").eventId("event-0").build());
+
+        int published = relay.relayBatch();
+
+        assertEquals(0, published);
+        verifyNoInteractions(rabbitTemplate);
+        verify(mongoTemplate, never()).findAndModify(any(Query.class), any(Update.class),
+                any(FindAndModifyOptions.class), eq(OutboxEvent.class));
+    }
+
+    @Test
+    void relayBatch_PublishFailure_ReleasesConfirmSlot() {
+        when(claimNext()).thenReturn(outboxEvent, (OutboxEvent) null);
+        doThrow(new AmqpConnectException(new ConnectException("refused"))).when(rabbitTemplate)
+                .convertAndSend(anyString(), anyString(), any(Object.class), any(MessagePostProcessor.class),
+                        any(CorrelationData.class));
+
+        int published = relay.relayBatch();
+
+        assertEquals(0, published);
+        assertTrue(confirmTracker.inFlightIds().isEmpty());
+        assertEquals(1, confirmTracker.drainFailed().size());
+    }
+
+    @Test
+    void forwardPendingEvents_MovesEmbeddedEventsToOutbox() {
+        PendingEvent pending = PendingEvent.builder()
+                .eventId("event-2")
+                .eventType("BOOKING_CANCELLED")
+                .exchange("booking-events")
+                .routingKey("booking.cancelled")
+                .createdAt(LocalDateTime.now())
+                .build();
+        when(mongoTemplate.find(any(Query.class), eq(BookingEntity.class))).thenReturn(List.of(
+                BookingEntity.builder().id("booking-123").pendingEvents(List.of(pending)).build()));
+        BulkOperations inserts = mock(BulkOperations.class);
+        BulkOperations pulls = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(OutboxEvent.class))).thenReturn(inserts);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(BookingEntity.class))).thenReturn(pulls);
+        when(inserts.insert(anyList())).thenReturn(inserts);
+
+        assertEquals(1, relay.forwardPendingEvents());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboxEvent>> forwarded = ArgumentCaptor.forClass(List.class);
+        verify(inserts).insert(forwarded.capture());
+        assertEquals("event-2", forwarded.getValue().get(0).getEventId());
+        assertEquals("booking-123", forwarded.getValue().get(0).getAggregateId());
+        assertEquals(OutboxStatus.PENDING, forwarded.getValue().get(0).getStatus());
+        ArgumentCaptor<Update> pull = ArgumentCaptor.forClass(Update.class);
+        verify(pulls).updateOne(any(Query.class), pull.capture());
+        assertTrue(pull.getValue().getUpdateObject().containsKey("$pull"));
+        verify(pulls).execute();
+    }
+
+    @Test
+    void forwardPendingEvents_AlreadyForwarded_StillRemovesFromBooking() {
+        PendingEvent pending = PendingEvent.builder().eventId("event-2").createdAt(LocalDateTime.now()).build();
+        when(mongoTemplate.find(any(Query.class), eq(BookingEntity.class))).thenReturn(List.of(
+                BookingEntity.builder().id("booking-123").pendingEvents(List.of(pending)).build()));
+        BulkOperations inserts = mock(BulkOperations.class);
+        BulkOperations pulls = mock(BulkOperations.class);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(OutboxEvent.class))).thenReturn(inserts);
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(BookingEntity.class))).thenReturn(pulls);
+        when(inserts.insert(anyList())).thenReturn(inserts);
+        when(inserts.execute()).thenThrow(new BulkOperationException("duplicate",
+                new MongoBulkWriteException(null, List.of(new BulkWriteError(11000, "E11000 duplicate key", new BsonDocument(), 0)),
+                        null, new ServerAddress(), Set.of())));
+
+        relay.forwardPendingEvents();
+
+        verify(pulls).execute();
+    }
+
+    private OutboxEvent claimNext() {
+        return mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(OutboxEvent.class));
+    }
+}
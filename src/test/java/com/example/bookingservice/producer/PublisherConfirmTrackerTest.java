@@ -0,0 +1,67 @@
+package com.example.bookingservice.producer;
+
+import com.example.bookingservice.persistence.model.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PublisherConfirmTrackerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PublisherConfirmTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new PublisherConfirmTracker(meterRegistry, 2);
+    }
+
+    @Test
+    void track_IsBoundedByMaxInFlight() {
+        assertNotNull(tracker.track(event("1")));
+        assertNotNull(tracker.track(event("2")));
+
+        assertNull(tracker.track(event("3")));
+        assertEquals(0, tracker.available());
+        assertEquals(2.0, meterRegistry.get("booking.outbox.confirms.inflight").gauge().value());
+    }
+
+    @Test
+    void confirm_ReturnedMessageCountsAsFailure() {
+        CorrelationData correlation = tracker.track(event("1"));
+        correlation.setReturned(new ReturnedMessage(new Message(new byte[0], new MessageProperties()),
+                312, "NO_ROUTE", "app-exchange", "booking.key"));
+
+        tracker.confirm(correlation, true, null);
+
+        assertTrue(tracker.drainAcked().isEmpty());
+        assertEquals(List.of(new PublisherConfirmTracker.Failure("outbox-1", "returned: NO_ROUTE")), tracker.drainFailed());
+        assertEquals(1.0, meterRegistry.get("booking.outbox.confirms").tag("result", "returned").counter().count());
+        assertEquals(1, meterRegistry.get("booking.outbox.confirm.latency").timer().count());
+    }
+
+    @Test
+    void expire_FailsUnconfirmedEvents() {
+        tracker.track(event("1"));
+
+        tracker.expire(Duration.ZERO);
+        tracker.confirm(new CorrelationData("event-1"), true, null);
+
+        assertTrue(tracker.drainAcked().isEmpty());
+        assertEquals(List.of(new PublisherConfirmTracker.Failure("outbox-1", "confirm timeout")), tracker.drainFailed());
+        assertEquals(2, tracker.available());
+    }
+
+    private OutboxEvent event(String id) {
+        return OutboxEvent.builder().id("outbox-" + id).eventId("event-" + id).build();
+    }
+}